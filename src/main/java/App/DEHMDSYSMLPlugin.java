@@ -53,8 +53,18 @@ import DstController.IDstController;
 import HubController.IHubController;
 import MappingRules.*;
 import MappingRules.Interfaces.*;
+import Services.ContainmentIndex.ContainmentIndexService;
+import Services.ContainmentIndex.IContainmentIndexService;
 import Services.HistoryService.IMagicDrawLocalExchangeHistoryService;
 import Services.HistoryService.MagicDrawLocalExchangeHistoryService;
+import Services.IncrementalMapping.IIncrementalMappingService;
+import Services.IncrementalMapping.IncrementalMappingService;
+import Services.IterationIndex.ElementDefinitionIndexService;
+import Services.IterationIndex.IElementDefinitionIndexService;
+import Services.IterationIndex.IRelationshipIndexService;
+import Services.IterationIndex.IRequirementIndexService;
+import Services.IterationIndex.RelationshipIndexService;
+import Services.IterationIndex.RequirementIndexService;
 import Services.MagicDrawSelection.IMagicDrawSelectionService;
 import Services.MagicDrawSelection.MagicDrawSelectionService;
 import Services.MagicDrawSession.IMagicDrawProjectEventListener;
@@ -72,9 +82,15 @@ import Services.Mapping.MapCommandService;
 import Services.MappingConfiguration.IMappingConfigurationService;
 import Services.MappingConfiguration.MagicDrawMappingConfigurationService;
 import Services.MappingEngineService.IMappingEngineService;
-import Services.MappingEngineService.MappingEngineService;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.MappingMetrics.MappingMetricsService;
+import Services.MappingRuleRegistry.IMappingRuleRegistry;
+import Services.MappingRuleRegistry.MagicDrawMappingEngineService;
+import Services.MappingRuleRegistry.MappingRuleRegistry;
 import Services.ModelConsistency.CircularDependencyValidationService;
 import Services.ModelConsistency.ICircularDependencyValidationService;
+import Services.ReferenceData.IReferenceDataLibraryIndexService;
+import Services.ReferenceData.ReferenceDataLibraryIndexService;
 import Services.Stereotype.IStereotypeService;
 import Services.Stereotype.StereotypeService;
 import Services.AdapterInfo.IAdapterInfoService;
@@ -229,8 +245,8 @@ public class DEHMDSYSMLPlugin extends Plugin
         {
             AppContainer.Container.as(CACHE).addComponent(IDstController.class, DstController.class);
             AppContainer.Container.addComponent(IMagicDrawProjectEventListener.class, MagicDrawProjectEventListener.class);
-            AppContainer.Container.addConfig(MappingEngineService.AssemblyParameterName, BlockToElementMappingRule.class.getPackage());
-            AppContainer.Container.as(CACHE, Characteristics.USE_NAMES).addComponent(IMappingEngineService.class, MappingEngineService.class);
+            AppContainer.Container.as(CACHE).addComponent(IMappingRuleRegistry.class, MappingRuleRegistry.class);
+            AppContainer.Container.as(CACHE).addComponent(IMappingEngineService.class, MagicDrawMappingEngineService.class);
             AppContainer.Container.as(CACHE).addComponent(MapAction.class);
             
             AppContainer.Container.addComponent(BlockToElementMappingRule.class.getName(), BlockToElementMappingRule.class);
@@ -241,6 +257,13 @@ public class DEHMDSYSMLPlugin extends Plugin
             AppContainer.Container.addComponent(BinaryRelationshipsToDirectedRelationshipsMappingRule.class.getName(), BinaryRelationshipsToDirectedRelationshipsMappingRule.class);
             AppContainer.Container.addComponent(IStateMappingRule.class, StateMappingRule.class);
             AppContainer.Container.as(CACHE).addComponent(ICircularDependencyValidationService.class, CircularDependencyValidationService.class);
+            AppContainer.Container.as(CACHE).addComponent(IReferenceDataLibraryIndexService.class, ReferenceDataLibraryIndexService.class);
+            AppContainer.Container.as(CACHE).addComponent(IElementDefinitionIndexService.class, ElementDefinitionIndexService.class);
+            AppContainer.Container.as(CACHE).addComponent(IRelationshipIndexService.class, RelationshipIndexService.class);
+            AppContainer.Container.as(CACHE).addComponent(IRequirementIndexService.class, RequirementIndexService.class);
+            AppContainer.Container.as(CACHE).addComponent(IContainmentIndexService.class, ContainmentIndexService.class);
+            AppContainer.Container.as(CACHE).addComponent(IIncrementalMappingService.class, IncrementalMappingService.class);
+            AppContainer.Container.as(CACHE).addComponent(IMappingMetricsService.class, MappingMetricsService.class);
 
             AppContainer.Container.addComponent(IMappingConfigurationService.class, MagicDrawMappingConfigurationService.class);
             AppContainer.Container.addComponent(IMagicDrawUILogService.class, MagicDrawUILogService.class);
@@ -28,11 +28,13 @@ import static Utils.Operators.Operators.AreTheseEquals;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -71,6 +73,7 @@ import MappingRules.BlockToElementMappingRule;
 import Reactive.ObservableCollection;
 import Reactive.ObservableValue;
 import Services.HistoryService.IMagicDrawLocalExchangeHistoryService;
+import Services.IncrementalMapping.IIncrementalMappingService;
 import Services.MagicDrawSession.IMagicDrawSessionService;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MagicDrawTransaction.Clones.ClonedReferenceElement;
@@ -185,6 +188,32 @@ public final class DstController implements IDstController
      */
     private IStereotypeService stereotypeService;
 
+    /**
+     * The {@linkplain IIncrementalMappingService}
+     */
+    private final IIncrementalMappingService incrementalMappingService;
+
+    /**
+     * The iid and the revision number of the open {@linkplain Iteration} the mapping results registered in the {@linkplain #incrementalMappingService} refer to
+     */
+    private Pair<UUID, Integer> mappedIterationRevision;
+
+    /**
+     * The number of mapping rules currently running, possibly concurrently when several groups of elements are mapped at once. 
+     * The session events raised meanwhile come from the rules writing to the reference data library and are not handled on the mapping workers
+     */
+    private final AtomicInteger numberOfRunningMappings = new AtomicInteger();
+
+    /**
+     * The ids of the {@linkplain Element}s owned by the model during the current transfer preparation, null until first needed
+     */
+    private HashSet<String> modelOwnedElementIds;
+
+    /**
+     * The time in nanoseconds spent preparing the {@linkplain Interface}s during the current transfer preparation
+     */
+    private long interfacePreparationTime;
+
     /**
      * A value indicating whether the {@linkplain DstController} should load mapping when the HUB session is refresh or reloaded
      */
@@ -340,10 +369,12 @@ public final class DstController implements IDstController
      * @param exchangeHistory the {@linkplain IMagicDrawLocalExchangeHistoryService} instance
      * @param transactionService the {@linkplain IMagicDrawTransactionService} instance
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param incrementalMappingService the {@linkplain IIncrementalMappingService}
      */
     public DstController(IMappingEngineService mappingEngine, IHubController hubController, IMagicDrawUILogService logService, 
             IMagicDrawMappingConfigurationService mappingConfigurationService, IMagicDrawSessionService sessionService,
-            IMagicDrawLocalExchangeHistoryService exchangeHistory, IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService)
+            IMagicDrawLocalExchangeHistoryService exchangeHistory, IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService,
+            IIncrementalMappingService incrementalMappingService)
     {
         this.mappingEngine = mappingEngine;
         this.hubController = hubController;
@@ -353,6 +384,7 @@ public final class DstController implements IDstController
         this.exchangeHistory = exchangeHistory;
         this.transactionService = transactionService;
         this.stereotypeService = stereotypeService;
+        this.incrementalMappingService = incrementalMappingService;
         
         this.InitializeObservables();
     }
@@ -363,7 +395,20 @@ public final class DstController implements IDstController
     private void InitializeObservables()
     {            
         this.sessionService.SessionUpdated().subscribe(x -> this.ReloadMapping());
-        this.hubController.GetSessionEventObservable().subscribe(x -> this.ReloadMapping());
+        this.hubController.GetSessionEventObservable().subscribe(x -> 
+        {
+            if(this.numberOfRunningMappings.get() > 0)
+            {
+                return;
+            }
+            
+            if(!AreTheseEquals(this.mappedIterationRevision, this.GetOpenIterationRevision()))
+            {
+                this.incrementalMappingService.Invalidate();
+            }
+            
+            this.ReloadMapping();
+        });
         
         this.hubController.GetIsSessionOpenObservable().subscribe(isSessionOpen -> this.WhenAnySessionCloses(isSessionOpen));
         this.sessionService.HasAnyOpenSessionObservable().subscribe(isSessionOpen -> this.WhenAnySessionCloses(isSessionOpen));
@@ -381,6 +426,7 @@ public final class DstController implements IDstController
     {
         if(!isSessionOpen)
         {
+            this.incrementalMappingService.Invalidate();
             this.ResetAllRelatedMappingCollections();
         }
     }
@@ -399,6 +445,18 @@ public final class DstController implements IDstController
         this.mappedBinaryRelationshipsToDirectedRelationships.clear();
     }
 
+    /**
+     * Gets the iid and the revision number of the open {@linkplain Iteration}, 
+     * these only change when the content of the iteration changes and not when the rules write things to the reference data library
+     * 
+     * @return a {@linkplain Pair} of {@linkplain UUID} and revision number, or null when no iteration is open
+     */
+    private Pair<UUID, Integer> GetOpenIterationRevision()
+    {
+        Iteration iteration = this.hubController.GetOpenIteration();
+        return iteration == null ? null : Pair.of(iteration.getIid(), iteration.getRevisionNumber());
+    }
+
     /**
      * Reloads the saved mapping and applies the mapping rule to the loaded things
      */
@@ -475,6 +533,40 @@ public final class DstController implements IDstController
         this.logService.Append(String.format("Loaded %s saved mapping, done in %s ms", things.size(), timer.getTime(TimeUnit.MILLISECONDS)));
     }
 
+    /**
+     * Pre-maps the provided mapped blocks towards the hub, reusing the previous mapping result of the blocks 
+     * that have not changed since they were mapped
+     * 
+     * @param mappedBlocks the {@linkplain MagicDrawBlockCollection} of mapped blocks
+     * @return a {@linkplain Collection} of {@linkplain MappedElementRowViewModel}
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<MappedElementRowViewModel<DefinedThing, Class>> PreMapBlocks(MagicDrawBlockCollection mappedBlocks)
+    {
+        MagicDrawBlockCollection blocksToMap = this.incrementalMappingService.GetBlocksToMap(mappedBlocks);
+        
+        if(blocksToMap.GetReusedElements().isEmpty())
+        {
+            return this.PreMapThroughTheMappingEngine(blocksToMap);
+        }
+        
+        this.logService.Append("%s mapped blocks have not changed, their previous mapping is reused", blocksToMap.GetReusedElements().size());
+        
+        ArrayList<MappedElementRowViewModel<DefinedThing, Class>> mapResult = new ArrayList<>();
+        
+        for (MappedElementRowViewModel<? extends DefinedThing, Class> reusedElement : blocksToMap.GetReusedElements())
+        {
+            mapResult.add((MappedElementRowViewModel<DefinedThing, Class>) reusedElement);
+        }
+        
+        if(!blocksToMap.isEmpty())
+        {
+            mapResult.addAll(this.PreMapThroughTheMappingEngine(blocksToMap));
+        }
+        
+        return mapResult;
+    }
+
     /**
      * Sorts the {@linkplain IMappedElementRowViewModel} and adds it to the relevant collection of one of the two provided
      * 
@@ -571,7 +663,17 @@ public final class DstController implements IDstController
             result.Set(true);
         }
         
-        Object outputAsObject = this.mappingEngine.Map(input);
+        Object outputAsObject;
+        this.numberOfRunningMappings.incrementAndGet();
+        
+        try
+        {
+            outputAsObject = this.mappingEngine.Map(input);
+        }
+        finally
+        {
+            this.numberOfRunningMappings.decrementAndGet();
+        }
 
         if(outputAsObject instanceof ArrayList<?>)
         {
@@ -582,14 +684,31 @@ public final class DstController implements IDstController
     }
     /**
      * Pre-maps the {@linkplain input} by calling the {@linkplain IMappingEngine}
-     * and return the map result
+     * and return the map result, the blocks that have not changed since they were last mapped are not mapped again
      * 
      * @param input the {@linkplain IMappableThingCollection} in other words the  {@linkplain Collection} of {@linkplain Object} to map
      * @return a {@linkplain Collection} of {@linkplain MappedElementRowViewModel}
      */
     @Override
-    @SuppressWarnings("unchecked")
     public Collection<MappedElementRowViewModel<DefinedThing, Class>> PreMap(IMappableThingCollection input)
+    {
+        if(input instanceof MagicDrawBlockCollection)
+        {
+            return this.PreMapBlocks((MagicDrawBlockCollection)input);
+        }
+        
+        return this.PreMapThroughTheMappingEngine(input);
+    }
+    
+    /**
+     * Pre-maps the {@linkplain input} by calling the {@linkplain IMappingEngine}
+     * and return the map result
+     * 
+     * @param input the {@linkplain IMappableThingCollection} in other words the  {@linkplain Collection} of {@linkplain Object} to map
+     * @return a {@linkplain Collection} of {@linkplain MappedElementRowViewModel}
+     */
+    @SuppressWarnings("unchecked")
+    private Collection<MappedElementRowViewModel<DefinedThing, Class>> PreMapThroughTheMappingEngine(IMappableThingCollection input)
     {
         Ref<ArrayList<?>> output = new Ref<>(null);
         Ref<Boolean> result = new Ref<>(Boolean.class, false);
@@ -610,42 +729,59 @@ public final class DstController implements IDstController
      * @param mappingDirection the {@linkplain MappingDirection} towards the {@linkplain IMappableThingCollection} maps to
      * @return a {@linkplain boolean} indicating whether the mapping operation went well
      */
-    @SuppressWarnings("unchecked")
     @Override
     public boolean Map(IMappableThingCollection input, MappingDirection mappingDirection)
     {
-        Ref<ArrayList<?>> output = new Ref<>(null);
-        Ref<Boolean> result = new Ref<>(Boolean.class, false);
+        return this.Map(input, this.PreMap(input), mappingDirection) || input.isEmpty();
+    }
+
+    /**
+     * Assigns the provided map result of the {@linkplain input}, as returned by {@linkplain #PreMap(IMappableThingCollection)}, 
+     * to the dstMapResult or the hubMapResult
+     * 
+     * @param input the mapped {@linkplain IMappableThingCollection}
+     * @param mapResult the {@linkplain Collection} of {@linkplain MappedElementRowViewModel} resulting from the mapping of the {@linkplain input}
+     * @param mappingDirection the {@linkplain MappingDirection} towards the {@linkplain IMappableThingCollection} maps to
+     * @return a {@linkplain boolean} indicating whether the map result has been assigned
+     */
+    @Override
+    public boolean Map(IMappableThingCollection input, Collection<MappedElementRowViewModel<DefinedThing, Class>> mapResult, MappingDirection mappingDirection)
+    {
+        if(mapResult == null || mapResult.isEmpty())
+        {
+            return false;
+        }
         
-        if(this.TryMap(input, output, result))
+        if (mappingDirection == MappingDirection.FromDstToHub
+                && mapResult.stream().allMatch(x -> x.GetHubElement() instanceof Thing))
         {
-            ArrayList<MappedElementRowViewModel<DefinedThing, Class>> resultAsCollection = 
-                    (ArrayList<MappedElementRowViewModel<DefinedThing, Class>>) output.Get();
+            this.dstMapResult.removeIf(x -> mapResult.stream()
+                    .anyMatch(d -> AreTheseEquals(d.GetHubElement().getIid(), x.GetHubElement().getIid())));
             
-            if(!resultAsCollection.isEmpty())
+            if(input instanceof MagicDrawBlockCollection)
             {
-                if (mappingDirection == MappingDirection.FromDstToHub
-                        && resultAsCollection.stream().allMatch(x -> x.GetHubElement() instanceof Thing))
-                {
-                    this.dstMapResult.removeIf(x -> resultAsCollection.stream()
-                            .anyMatch(d -> AreTheseEquals(d.GetHubElement().getIid(), x.GetHubElement().getIid())));
-        
-                    this.selectedDstMapResultForTransfer.clear();                
-                    return this.dstMapResult.addAll(resultAsCollection);
-                }
-                else if (mappingDirection == MappingDirection.FromHubToDst
-                        && resultAsCollection.stream().allMatch(x -> x.GetDstElement() instanceof Class))
-                {
-                    this.hubMapResult.removeIf(x -> resultAsCollection.stream()
-                            .anyMatch(d -> AreTheseEquals(d.GetDstElement().getID(), x.GetDstElement().getID())));
-    
-                    this.selectedHubMapResultForTransfer.clear();
-                    return this.hubMapResult.addAll(resultAsCollection);
-                }            
+                this.incrementalMappingService.Register(mapResult.stream()
+                        .filter(MappedElementDefinitionRowViewModel.class::isInstance)
+                        .map(MappedElementDefinitionRowViewModel.class::cast)
+                        .collect(Collectors.toList()));
+                
+                this.mappedIterationRevision = this.GetOpenIterationRevision();
             }
+
+            this.selectedDstMapResultForTransfer.clear();                
+            return this.dstMapResult.addAll(mapResult);
+        }
+        else if (mappingDirection == MappingDirection.FromHubToDst
+                && mapResult.stream().allMatch(x -> x.GetDstElement() instanceof Class))
+        {
+            this.hubMapResult.removeIf(x -> mapResult.stream()
+                    .anyMatch(d -> AreTheseEquals(d.GetDstElement().getID(), x.GetDstElement().getID())));
+
+            this.selectedHubMapResultForTransfer.clear();
+            return this.hubMapResult.addAll(mapResult);
         }
         
-        return result.Get();
+        return false;
     }
     
     /**
@@ -687,6 +823,7 @@ public final class DstController implements IDstController
                 break;        
         }
         
+        this.incrementalMappingService.Invalidate();
         this.LoadMapping();
         return result;
     }
@@ -745,29 +882,77 @@ public final class DstController implements IDstController
      */
     private void PrepareThingsForTransfer()
     {
-        Collection<Class> allElementToTransfer = StreamExtensions.OfType(this.selectedHubMapResultForTransfer, Class.class);
+        this.modelOwnedElementIds = null;
+        this.interfacePreparationTime = 0;
         
-        for (Class element : allElementToTransfer)
+        try
         {
-            Class reference = element;
+            Collection<Class> allElementToTransfer = StreamExtensions.OfType(this.selectedHubMapResultForTransfer, Class.class);
             
-            if(this.transactionService.IsCloned(element))
+            for (Class element : allElementToTransfer)
             {
-                reference = this.transactionService.GetClone(element).GetOriginal();
-            }
-        
-            if(this.stereotypeService.DoesItHaveTheStereotype(reference, Stereotypes.Block))
-            {
-                this.PrepareBlocks(element);
+                Class reference = element;
+                
+                if(this.transactionService.IsCloned(element))
+                {
+                    reference = this.transactionService.GetClone(element).GetOriginal();
+                }
+            
+                if(this.stereotypeService.DoesItHaveTheStereotype(reference, Stereotypes.Block))
+                {
+                    this.PrepareBlocks(element);
+                }
+                else if(this.stereotypeService.DoesItHaveTheStereotype(reference, Stereotypes.Requirement))
+                {
+                    this.PrepareRequirement(element);
+                }
             }
-            else if(this.stereotypeService.DoesItHaveTheStereotype(reference, Stereotypes.Requirement))
+            
+            this.logService.Append("Prepared the interfaces of the transferred blocks in %s ms", TimeUnit.NANOSECONDS.toMillis(this.interfacePreparationTime));
+            this.PrepareDirectedRelationShip();
+            this.PrepareStates();
+        }
+        finally
+        {
+            this.modelOwnedElementIds = null;
+        }
+    }
+
+    /**
+     * Verifies that the provided {@linkplain Element} is directly owned by the model,
+     * the ids of the owned {@linkplain Element}s are collected once per transfer preparation
+     * 
+     * @param element the {@linkplain Element}
+     * @return a value indicating whether the model owns the provided {@linkplain Element}
+     */
+    private boolean IsOwnedByTheModel(Element element)
+    {
+        if(this.modelOwnedElementIds == null)
+        {
+            this.modelOwnedElementIds = new HashSet<>();
+            
+            for (Element ownedElement : this.sessionService.GetModel().getOwnedElement())
             {
-                this.PrepareRequirement(element);
+                this.modelOwnedElementIds.add(ownedElement.getID());
             }
         }
         
-        this.PrepareDirectedRelationShip();
-        this.PrepareStates();
+        return this.modelOwnedElementIds.contains(element.getID());
+    }
+
+    /**
+     * Adds the provided {@linkplain Element} to the elements owned by the model and keeps {@linkplain #modelOwnedElementIds} up to date
+     * 
+     * @param element the {@linkplain Element}
+     */
+    private void AddToTheModel(Element element)
+    {
+        this.sessionService.GetModel().getOwnedElement().add(element);
+        
+        if(this.modelOwnedElementIds != null)
+        {
+            this.modelOwnedElementIds.add(element.getID());
+        }
     }
 
     /**
@@ -898,11 +1083,13 @@ public final class DstController implements IDstController
             element.getOwnedAttribute().removeIf(x -> this.GetSelectedHubMapResultForTransfer().stream()
                         .noneMatch(d -> AreTheseEquals(x.getID(), d.getID())));
             
-            this.sessionService.GetModel().getOwnedElement().add(element);
+            this.AddToTheModel(element);
             this.exchangeHistory.Append(element, ChangeKind.CREATE);
         }
         
+        StopWatch timer = StopWatch.createStarted();
         this.PrepareInterfaces(element);
+        this.interfacePreparationTime += timer.getNanoTime();
         this.UpdateElementPortsRelationships(element);
     }
 
@@ -1012,9 +1199,9 @@ public final class DstController implements IDstController
             
             for (Usage usage : usagesRelationships)
             {
-                if(this.sessionService.GetModel().getOwnedElement().stream().noneMatch(x -> AreTheseEquals(x.getID(), usage.getID())))
+                if(!this.IsOwnedByTheModel(usage))
                 {
-                    this.sessionService.GetModel().getOwnedElement().add(usage);
+                    this.AddToTheModel(usage);
                 }                
             }
             
@@ -1037,9 +1224,9 @@ public final class DstController implements IDstController
 	 */
 	private void AddNewInterfaceToElement(Interface interfaceToAdd)
 	{
-		if(this.sessionService.GetModel().getOwnedElement().stream().noneMatch(x -> AreTheseEquals(x.getID(), interfaceToAdd.getID())))
+		if(!this.IsOwnedByTheModel(interfaceToAdd))
 		{
-		    this.sessionService.GetModel().getOwnedElement().add(interfaceToAdd);
+		    this.AddToTheModel(interfaceToAdd);
 		    this.exchangeHistory.Append(interfaceToAdd, ChangeKind.CREATE);
 		}
 	}
@@ -1096,7 +1283,7 @@ public final class DstController implements IDstController
                 this.exchangeHistory.Append(containerToUpdate, ChangeKind.CREATE);
             }
             
-            this.sessionService.GetModel().getOwnedElement().add(containerToUpdate);
+            this.AddToTheModel(containerToUpdate);
 
             this.exchangeHistory.Append(requirement, ChangeKind.CREATE);
         }
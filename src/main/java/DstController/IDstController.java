@@ -62,6 +62,17 @@ public interface IDstController extends IDstControllerBase<Class>
      */
     boolean Map(IMappableThingCollection input, MappingDirection mappingDirection);
 
+    /**
+     * Assigns the provided map result of the {@linkplain input}, as returned by {@linkplain #PreMap(IMappableThingCollection)}, 
+     * to the dstMapResult or the hubMapResult
+     * 
+     * @param input the mapped {@linkplain IMappableThingCollection}
+     * @param mapResult the {@linkplain Collection} of {@linkplain MappedElementRowViewModel} resulting from the mapping of the {@linkplain input}
+     * @param mappingDirection the {@linkplain MappingDirection} towards the {@linkplain IMappableThingCollection} maps to
+     * @return a {@linkplain boolean} indicating whether the map result has been assigned
+     */
+    boolean Map(IMappableThingCollection input, Collection<MappedElementRowViewModel<DefinedThing, Class>> mapResult, MappingDirection mappingDirection);
+
 
     /**
      * Transfers all the {@linkplain Thing} contained in the {@linkplain dstMapResult} to the Hub
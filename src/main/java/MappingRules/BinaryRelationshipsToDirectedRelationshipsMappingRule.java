@@ -25,8 +25,10 @@ package MappingRules;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map.Entry;
-import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.tuple.Pair;
@@ -34,6 +36,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DirectedRelationship;
 import com.nomagic.uml2.ext.magicdraw.classes.mddependencies.Abstraction;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
 
 import App.AppContainer;
 import DstController.IDstController;
@@ -41,6 +44,7 @@ import HubController.IHubController;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
 import Services.MappingEngineService.MappingRule;
+import Services.MappingMetrics.IMappingMetricsService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Operators.Operators;
 import Utils.Stereotypes.DirectedRelationshipType;
@@ -69,11 +73,12 @@ public class BinaryRelationshipsToDirectedRelationshipsMappingRule extends HubTo
      * @param mappingConfiguration the {@linkplain IMagicDrawMappingConfigurationService}
      * @param transactionService the {@linkplain IMagicDrawTransactionService}
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
     public BinaryRelationshipsToDirectedRelationshipsMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, 
-            IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService)
+            IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService, IMappingMetricsService metricsService)
     {
-        super(hubController, mappingConfiguration, transactionService, stereotypeService);
+        super(hubController, mappingConfiguration, transactionService, stereotypeService, metricsService);
     }
     
     /**
@@ -83,7 +88,7 @@ public class BinaryRelationshipsToDirectedRelationshipsMappingRule extends HubTo
      * @return the {@linkplain ArrayList} of {@linkplain MappedElementDefinitionRowViewModel}
      */
     @Override
-    public ArrayList<Abstraction> Transform(Object input)
+    protected ArrayList<Abstraction> TransformInput(Object input)
     {
         try
         {
@@ -113,10 +118,12 @@ public class BinaryRelationshipsToDirectedRelationshipsMappingRule extends HubTo
      */
     private void Map(HubRelationshipElementsCollection elements)
     {
+        Set<Pair<String, String>> mappedDirectedRelationships = this.GetMappedDirectedRelationships();
+        
         for (Entry<BinaryRelationship, Pair<MappedElementRowViewModel<? extends Thing, ? extends Class>, MappedElementRowViewModel<? extends Thing, ? extends Class>>> 
                                                                 relationshipAndPairs : this.GetMappableBinaryRelationships(elements).entrySet())
         {
-            if(this.DoesThisRelationshipAlreadyExist(relationshipAndPairs))
+            if(this.DoesThisRelationshipAlreadyExist(relationshipAndPairs, mappedDirectedRelationships))
             {
                 continue;
             }
@@ -125,6 +132,29 @@ public class BinaryRelationshipsToDirectedRelationshipsMappingRule extends HubTo
         }
     }
     
+    /**
+     * Gets the pairs of source and target DST element ids of the {@linkplain DirectedRelationship}s already mapped from the HUB
+     * 
+     * @return a {@linkplain Set} of {@linkplain Pair} of source id and target id
+     */
+    private Set<Pair<String, String>> GetMappedDirectedRelationships()
+    {
+        Set<Pair<String, String>> mappedDirectedRelationships = new HashSet<>();
+        
+        for (Abstraction relationship : this.dstController.GetMappedBinaryRelationshipsToDirectedRelationships())
+        {
+            for (Element source : relationship.getSource())
+            {
+                for (Element target : relationship.getTarget())
+                {
+                    mappedDirectedRelationships.add(Pair.of(source.getID(), target.getID()));
+                }
+            }
+        }
+        
+        return mappedDirectedRelationships;
+    }
+    
     /**
      * Creates a new SysML {@linkplain Trace}
      * 
@@ -178,17 +208,19 @@ public class BinaryRelationshipsToDirectedRelationshipsMappingRule extends HubTo
      * Verifies that the trace already exist in the capella model
      * 
      * @param relationshipAndPairs a {@linkplain HashMap} of {@linkplain BinaryRelationship} and a {@linkplain Pair} of {@linkplain MappedElementRowViewModel}
+     * @param mappedDirectedRelationships the {@linkplain Set} of source and target ids of the already mapped {@linkplain DirectedRelationship}s
      * @return an assert
      */
     private boolean DoesThisRelationshipAlreadyExist(
-            Entry<BinaryRelationship, Pair<MappedElementRowViewModel<? extends Thing, ? extends Class>, MappedElementRowViewModel<? extends Thing, ? extends Class>>> relationshipAndPairs)
+            Entry<BinaryRelationship, Pair<MappedElementRowViewModel<? extends Thing, ? extends Class>, MappedElementRowViewModel<? extends Thing, ? extends Class>>> relationshipAndPairs,
+            Set<Pair<String, String>> mappedDirectedRelationships)
     {
+        String sourceId = relationshipAndPairs.getValue().getLeft().GetDstElement().getID();
+        String targetId = relationshipAndPairs.getValue().getRight().GetDstElement().getID();
+        
         return relationshipAndPairs.getValue().getLeft().GetDstElement().get_directedRelationshipOfSource().stream()
-                    .anyMatch(x -> x.getTarget().stream().anyMatch(r -> Operators.AreTheseEquals(r.getID(), relationshipAndPairs.getValue().getRight().GetDstElement().getID())))
-                || this.dstController.GetMappedBinaryRelationshipsToDirectedRelationships().stream().anyMatch(x -> 
-                        !x.getTarget().isEmpty() && !x.getSource().isEmpty() 
-                        && x.getSource().stream().anyMatch(r -> Operators.AreTheseEquals(r.getID(), relationshipAndPairs.getValue().getLeft().GetDstElement().getID()))
-                        && x.getTarget().stream().anyMatch(r -> Operators.AreTheseEquals(r.getID(), relationshipAndPairs.getValue().getRight().GetDstElement().getID())));
+                    .anyMatch(x -> x.getTarget().stream().anyMatch(r -> Operators.AreTheseEquals(r.getID(), targetId)))
+                || mappedDirectedRelationships.contains(Pair.of(sourceId, targetId));
     }
 
     /**
@@ -203,6 +235,13 @@ public class BinaryRelationshipsToDirectedRelationshipsMappingRule extends HubTo
         HashMap<BinaryRelationship, Pair<MappedElementRowViewModel<? extends Thing, ? extends Class>, MappedElementRowViewModel<? extends Thing, ? extends Class>>> relatedThings = 
                 new HashMap<>();
         
+        HashMap<UUID, MappedElementRowViewModel<? extends Thing, ? extends Class>> elementsByIid = new HashMap<>();
+        
+        for (MappedElementRowViewModel<? extends Thing, ? extends Class> mappedElementRowViewModel : elements)
+        {
+            elementsByIid.putIfAbsent(mappedElementRowViewModel.GetHubElement().getIid(), mappedElementRowViewModel);
+        }
+        
         for (MappedElementRowViewModel<? extends Thing, ? extends Class> mappedElementRowViewModel : elements)
         {
             for(BinaryRelationship relationship : mappedElementRowViewModel.GetHubElement().getRelationships().stream()
@@ -211,20 +250,18 @@ public class BinaryRelationshipsToDirectedRelationshipsMappingRule extends HubTo
             {
                 boolean isTarget = Operators.AreTheseEquals(relationship.getTarget().getIid(), mappedElementRowViewModel.GetHubElement().getIid());
                 
-                Optional<MappedElementRowViewModel<? extends Thing, ? extends Class>> otherElement = elements.stream().filter(x -> isTarget 
-                        ? Operators.AreTheseEquals(x.GetHubElement().getIid(), relationship.getSource().getIid())
-                        : Operators.AreTheseEquals(x.GetHubElement().getIid(), relationship.getTarget().getIid()))
-                .findFirst();
+                MappedElementRowViewModel<? extends Thing, ? extends Class> otherElement = 
+                        elementsByIid.get(isTarget ? relationship.getSource().getIid() : relationship.getTarget().getIid());
                 
-                if(otherElement.isPresent())
+                if(otherElement != null)
                 {
                     if(isTarget)
                     {
-                        relatedThings.put(relationship, Pair.of(otherElement.get(), mappedElementRowViewModel));
+                        relatedThings.put(relationship, Pair.of(otherElement, mappedElementRowViewModel));
                     }
                     else
                     {
-                        relatedThings.put(relationship, Pair.of(mappedElementRowViewModel, otherElement.get()));  
+                        relatedThings.put(relationship, Pair.of(mappedElementRowViewModel, otherElement));  
                     }
                 }
             }
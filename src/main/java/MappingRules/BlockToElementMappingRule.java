@@ -25,24 +25,27 @@ package MappingRules;
 
 import static Utils.Operators.Operators.AreTheseEquals;
 import static Utils.Stereotypes.StereotypeUtils.GetShortName;
-import static Utils.Stereotypes.StereotypeUtils.IsOwnedBy;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.commons.lang3.tuple.Triple;
 
 import com.nomagic.uml2.ext.magicdraw.classes.mdinterfaces.Interface;
+import com.nomagic.uml2.ext.magicdraw.classes.mdinterfaces.InterfaceRealization;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.ElementValue;
@@ -63,13 +66,20 @@ import Enumerations.MappingDirection;
 import HubController.IHubController;
 import MappingRules.Interfaces.IStateMappingRule;
 import Reactive.ObservableCollection;
+import Services.ContainmentIndex.IContainmentIndexService;
+import Services.IterationIndex.ElementDefinitionNameIndex;
+import Services.IterationIndex.IElementDefinitionIndexService;
+import Services.IterationIndex.IRelationshipIndexService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.ReferenceData.IReferenceDataLibraryIndexService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Ref;
 import Utils.Stereotypes.MagicDrawBlockCollection;
 import ViewModels.Rows.MappedElementDefinitionRowViewModel;
 import cdp4common.commondata.ClassKind;
 import cdp4common.commondata.Definition;
+import cdp4common.commondata.Thing;
 import cdp4common.dto.ParameterValueSetBase;
 import cdp4common.engineeringmodeldata.ActualFiniteState;
 import cdp4common.engineeringmodeldata.BinaryRelationship;
@@ -88,7 +98,6 @@ import cdp4common.sitedirectorydata.NumberSetKind;
 import cdp4common.sitedirectorydata.ParameterType;
 import cdp4common.sitedirectorydata.QuantityKind;
 import cdp4common.sitedirectorydata.RatioScale;
-import cdp4common.sitedirectorydata.ReferenceDataLibrary;
 import cdp4common.sitedirectorydata.SimpleQuantityKind;
 import cdp4common.sitedirectorydata.SimpleUnit;
 import cdp4common.sitedirectorydata.TextParameterType;
@@ -180,6 +189,46 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      * The {@linkplain ElementDefinition} that represents the ports
      */
     private ElementDefinition portElementDefinition;
+
+    /**
+     * The {@linkplain IElementDefinitionIndexService}
+     */
+    private final IElementDefinitionIndexService elementDefinitionIndex;
+
+    /**
+     * The {@linkplain IRelationshipIndexService}
+     */
+    private final IRelationshipIndexService relationshipIndex;
+
+    /**
+     * The {@linkplain IContainmentIndexService}
+     */
+    private final IContainmentIndexService containmentIndex;
+
+    /**
+     * The {@linkplain ElementDefinitionNameIndex} of the {@linkplain ElementDefinition}s retrieved or created during the current mapping pass
+     */
+    private final ElementDefinitionNameIndex elementDefinitionsOfThisPass = new ElementDefinitionNameIndex();
+
+    /**
+     * The {@linkplain MappedElementDefinitionRowViewModel} of the blocks already mapped during the current mapping pass, keyed by block id
+     */
+    private final HashMap<String, MappedElementDefinitionRowViewModel> mappedBlocksOfThisPass = new HashMap<>();
+
+    /**
+     * The scale and unit names parsed during the current mapping pass, keyed by value type id
+     */
+    private final HashMap<String, Pair<String, String>> scalesAndUnitsOfThisPass = new HashMap<>();
+
+    /**
+     * The {@linkplain MeasurementScale}s retrieved or created during the current mapping pass, keyed by value type id
+     */
+    private final HashMap<String, MeasurementScale> measurementScalesOfThisPass = new HashMap<>();
+
+    /**
+     * The number of block mappings that were avoided during the last mapping pass by reusing an already mapped block
+     */
+    private int numberOfAvoidedBlockMappings;
     
     /**
      * Initializes a new {@linkplain BlockToElementMappingRule}
@@ -188,11 +237,21 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      * @param mappingConfiguration the {@linkplain IMagicDrawMappingConfigurationService}
      * @param stateMappingRule the {@linkplain IStateMappingRule}
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param referenceDataLibraryIndex the {@linkplain IReferenceDataLibraryIndexService}
+     * @param elementDefinitionIndex the {@linkplain IElementDefinitionIndexService}
+     * @param relationshipIndex the {@linkplain IRelationshipIndexService}
+     * @param containmentIndex the {@linkplain IContainmentIndexService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
-    public BlockToElementMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, IStateMappingRule stateMappingRule, IStereotypeService stereotypeService)
+    public BlockToElementMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, IStateMappingRule stateMappingRule, 
+            IStereotypeService stereotypeService, IReferenceDataLibraryIndexService referenceDataLibraryIndex, IElementDefinitionIndexService elementDefinitionIndex,
+            IRelationshipIndexService relationshipIndex, IContainmentIndexService containmentIndex, IMappingMetricsService metricsService)
     {
-        super(hubController, mappingConfiguration, stereotypeService);
+        super(hubController, mappingConfiguration, stereotypeService, referenceDataLibraryIndex, metricsService);
         this.stateMappingRule = stateMappingRule;
+        this.elementDefinitionIndex = elementDefinitionIndex;
+        this.relationshipIndex = relationshipIndex;
+        this.containmentIndex = containmentIndex;
     }
     
     /**
@@ -202,13 +261,24 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      * @return the {@linkplain ArrayList} of {@linkplain MappedElementDefinitionRowViewModel}
      */
     @Override
-    public ArrayList<MappedElementDefinitionRowViewModel> Transform(Object input)
+    protected ArrayList<MappedElementDefinitionRowViewModel> TransformInput(Object input)
     {
         try
         {
             this.elements = this.CastInput(input);
             this.Map(this.elements);
-            this.SaveMappingConfiguration(this.elements);
+            
+            List<Thing> mappedThings = new ArrayList<>(this.binaryRelationShips);
+            this.elements.forEach(x -> mappedThings.add(x.GetHubElement()));
+            this.elements.forEach(x -> mappedThings.addAll(x.GetRelationships()));
+            
+            if(!this.CommitStagedReferenceDataLibraryThings(mappedThings))
+            {
+                this.logger.error("The blocks could not be mapped because the new reference data could not be written");
+                return new ArrayList<>();
+            }
+            
+            this.SaveMappingConfiguration(this.elements, MappingDirection.FromDstToHub);
             return new ArrayList<>(this.elements);
         }
         catch (Exception exception)
@@ -223,30 +293,48 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
             this.connectedElements.clear();
             this.binaryRelationShips.clear();
             this.stateMappingRule.Clear();
+            this.ClearStagedReferenceDataLibraryThings();
+            this.elementDefinitionsOfThisPass.Clear();
+            this.mappedBlocksOfThisPass.clear();
+            this.scalesAndUnitsOfThisPass.clear();
+            this.measurementScalesOfThisPass.clear();
         }
     }
     
     /**
-     * Saves the mapping configuration
+     * Gets the number of block mappings that were avoided during the last mapping pass by reusing an already mapped block
      * 
-     * @param elements the {@linkplain MagicDrawBlockCollection}
+     * @return an int
      */
-    private void SaveMappingConfiguration(MagicDrawBlockCollection elements)
+    public int GetNumberOfAvoidedBlockMappings()
     {
-        for (MappedElementDefinitionRowViewModel mappedElement : elements)
-        {
-            this.mappingConfiguration.AddToExternalIdentifierMap(
-                    mappedElement.GetHubElement().getIid(), mappedElement.GetDstElement().getID(), MappingDirection.FromDstToHub);
-        }
+        return this.numberOfAvoidedBlockMappings;
     }
-
+    
     /**
      * Maps the provided collection of block
      * 
      * @param mappedElementDefinitions the collection of {@linkplain Class} or block to map
      */
     private void Map(MagicDrawBlockCollection mappedElementDefinitions)
-    {        
+    {
+        this.numberOfAvoidedBlockMappings = 0;
+        
+        for (MappedElementDefinitionRowViewModel reusedElement : mappedElementDefinitions.GetReusedElements())
+        {
+            this.elementDefinitionsOfThisPass.Add(reusedElement.GetHubElement());
+            
+            if(reusedElement.GetDstElement().getID() != null)
+            {
+                this.mappedBlocksOfThisPass.putIfAbsent(reusedElement.GetDstElement().getID(), reusedElement);
+            }
+        }
+        
+        for (MappedElementDefinitionRowViewModel mappedElement : mappedElementDefinitions)
+        {
+            this.elementDefinitionsOfThisPass.Add(mappedElement.GetHubElement());
+        }
+        
         for (MappedElementDefinitionRowViewModel mappedElement : new ArrayList<MappedElementDefinitionRowViewModel>(mappedElementDefinitions))
         {
             if(mappedElement.GetHubElement() == null)
@@ -254,15 +342,38 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
                 mappedElement.SetHubElement(this.GetOrCreateElementDefinition(mappedElement.GetDstElement()));
             }
             
-            this.MapCategories(mappedElement.GetHubElement(), mappedElement.GetDstElement());
-            this.MapProperties(mappedElement.GetHubElement(), mappedElement.GetDstElement(), null);
+            this.MapBlock(mappedElement, null);
         }
         
+        this.logger.debug(String.format("%s block mappings were avoided by reusing the already mapped blocks", this.numberOfAvoidedBlockMappings));
+        this.logger.debug(String.format("%s things were cloned", this.GetNumberOfClones()));
+        
         this.MapPorts();
         this.ProcessInterfaces();
         this.ProcessConnectorProperties();
     }
     
+    /**
+     * Maps the categories and the properties of the block represented by the provided {@linkplain MappedElementDefinitionRowViewModel},
+     * unless this block has already been mapped during the current mapping pass
+     * 
+     * @param mappedElement the {@linkplain MappedElementDefinitionRowViewModel}
+     * @param parentPartProperty the part {@linkplain Property} typed by the block, or null when the block is mapped at the top level
+     */
+    private void MapBlock(MappedElementDefinitionRowViewModel mappedElement, Property parentPartProperty)
+    {
+        String blockId = mappedElement.GetDstElement().getID();
+        
+        if(blockId != null && this.mappedBlocksOfThisPass.putIfAbsent(blockId, mappedElement) != null)
+        {
+            this.numberOfAvoidedBlockMappings++;
+            return;
+        }
+        
+        this.MapCategories(mappedElement.GetHubElement(), mappedElement.GetDstElement());
+        this.MapProperties(mappedElement.GetHubElement(), mappedElement.GetDstElement(), parentPartProperty);
+    }
+    
     /**
      * Creates the {@linkplain BinaryRelationShip} that connects ports between each others
      * 
@@ -274,6 +385,16 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      */
     private void ProcessInterfaces()
     {
+        HashMap<String, ElementUsage> portUsagesByBlockName = new HashMap<>();
+        
+        for (Triple<Port, MappedElementDefinitionRowViewModel, ElementUsage> portElementUsage : this.portsToConnect)
+        {
+            portUsagesByBlockName.putIfAbsent(portElementUsage.getMiddle().GetDstElement().getName(), portElementUsage.getRight());
+        }
+        
+        IdentityHashMap<Interface, Collection<InterfaceRealization>> realizationsByInterface = new IdentityHashMap<>();
+        Ref<HashMap<String, ElementUsage>> iterationUsagesByName = new Ref<>(null);
+        
         for (Triple<Port, MappedElementDefinitionRowViewModel, ElementUsage> portElementUsage : this.portsToConnect)
         {            
             Port port = portElementUsage.getLeft();
@@ -284,8 +405,8 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
             }
             
             List<Pair<Interface, Class>> interfaceRealizationOfInterfaceBlocks = port.getRequired().stream()
-                    .flatMap(x -> x.get_interfaceRealizationOfContract().stream())
-                    .filter(x ->  !IsOwnedBy(x, port.getOwner()))
+                    .flatMap(x -> realizationsByInterface.computeIfAbsent(x, i -> i.get_interfaceRealizationOfContract()).stream())
+                    .filter(x -> !this.containmentIndex.IsOwnedBy(x, port.getOwner()))
                     .map(x -> Pair.of(x.getContract(), (Class)x.getOwner().getOwner()))
                     .collect(Collectors.toList());
 
@@ -297,33 +418,22 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
             for (Pair<Interface, Class> interfaceRealizationOfInterfaceBlock : interfaceRealizationOfInterfaceBlocks)
             {
                 String realizationOfInterfaceBlockName = interfaceRealizationOfInterfaceBlock.getRight().getName();
-                                
-                ElementUsage elementUsage = this.portsToConnect.stream()
-                        .filter(x -> AreTheseEquals(x.getMiddle().GetDstElement().getName(), realizationOfInterfaceBlockName))
-                        .map(x -> x.getRight())
-                        .findFirst()
-                        .orElse(this.hubController.GetOpenIteration().getElement().stream()
-                                .flatMap(x -> x.getContainedElement().stream())
-                                .filter(x -> AreTheseEquals(x.getName(), realizationOfInterfaceBlockName))
-                        .findFirst()
-                        .orElse(null));
+                
+                ElementUsage elementUsage = Optional.ofNullable(portUsagesByBlockName.get(realizationOfInterfaceBlockName))
+                        .orElseGet(() -> this.GetIterationElementUsagesByName(iterationUsagesByName).get(realizationOfInterfaceBlockName));
                 
                 if(elementUsage == null)
                 {
                     continue;
                 }
                 
-                BinaryRelationship relationship = this.hubController.GetOpenIteration()
-                        .getRelationship()
+                BinaryRelationship relationship = this.relationshipIndex
+                        .GetBinaryRelationships(portElementUsage.getRight().getIid(), elementUsage.getIid(), this.interfaceCategoryNames.getRight())
                         .stream()
-                        .filter(BinaryRelationship.class::isInstance)
-                        .map(BinaryRelationship.class::cast)
-                        .filter(x -> AreTheseEquals(interfaceRealizationOfInterfaceBlock.getLeft().getName(), x.getName())
-                                && AreTheseEquals(x.getTarget().getIid(), elementUsage.getIid())
-                                && AreTheseEquals(x.getTarget().getIid(), portElementUsage.getRight().getIid()))
+                        .filter(x -> AreTheseEquals(interfaceRealizationOfInterfaceBlock.getLeft().getName(), x.getName()))
                         .findFirst()    
-                        .map(x -> x.clone(false))
-                        .orElseGet(this.CreateBinaryRelationship(interfaceRealizationOfInterfaceBlock.getLeft(), portElementUsage.getRight(), elementUsage));
+                        .map(x -> this.CloneShallow(x))
+                        .orElseGet(() -> this.CreateBinaryRelationship(interfaceRealizationOfInterfaceBlock.getLeft(), portElementUsage.getRight(), elementUsage));
                 
                 this.logger.debug(String.format("BinaryRelationShip %s is linking element %s and element %s", relationship.getName(), portElementUsage.getRight().getUserFriendlyName(), elementUsage.getUserFriendlyName()));
                 portElementUsage.getMiddle().GetRelationships().add(relationship);
@@ -331,13 +441,41 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
         }
     }
 
+    /**
+     * Gets the {@linkplain ElementUsage}s of the open iteration keyed by name, the first {@linkplain ElementUsage} of each name wins. 
+     * The index is built on the first call with the provided {@linkplain Ref} and reused by the next calls with the same {@linkplain Ref}
+     * 
+     * @param index the {@linkplain Ref} that holds the index once built
+     * @return a {@linkplain HashMap} of {@linkplain ElementUsage} keyed by name
+     */
+    private HashMap<String, ElementUsage> GetIterationElementUsagesByName(Ref<HashMap<String, ElementUsage>> index)
+    {
+        if(!index.HasValue())
+        {
+            this.GetMetrics().IncrementNumberOfFullModelScans();
+            HashMap<String, ElementUsage> elementUsagesByName = new HashMap<>();
+            
+            for (ElementDefinition elementDefinition : this.hubController.GetOpenIteration().getElement())
+            {
+                for (ElementUsage elementUsage : elementDefinition.getContainedElement())
+                {
+                    elementUsagesByName.putIfAbsent(elementUsage.getName(), elementUsage);
+                }
+            }
+            
+            index.Set(elementUsagesByName);
+        }
+        
+        return index.Get();
+    }
+
     /**
      * Creates a {@linkplain BinaryRelationship} based on the specified {@linkplain Interface}
      *  
-     * @return a {@linkplain Supplier} of {@linkplain Relationship}
+     * @return a {@linkplain BinaryRelationship}
      */
     @SuppressWarnings("resource")    
-    private Supplier<? extends BinaryRelationship> CreateBinaryRelationship(Interface portInterface, ElementUsage source, ElementUsage target)
+    private BinaryRelationship CreateBinaryRelationship(Interface portInterface, ElementUsage source, ElementUsage target)
     {
         BinaryRelationship relationship = new BinaryRelationship();
         relationship.setIid(UUID.randomUUID());
@@ -348,13 +486,13 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
         
         Ref<Category> refCategory = new Ref<>(Category.class);
 
-        if(this.hubController.TryGetThingFromChainOfRdlBy(x -> AreTheseEquals(x.getName(), this.interfaceCategoryNames.getRight()), refCategory)
+        if(this.TryGetReferenceDataLibraryThing(refCategory, this.interfaceCategoryNames.getRight())
                    || this.TryCreateCategory(this.interfaceCategoryNames, refCategory, ClassKind.BinaryRelationship))
         {
             relationship.getCategory().add(refCategory.Get());            
         }
 
-        return () -> relationship;
+        return relationship;
     }
     
     /**
@@ -489,18 +627,9 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
     {
         String shortName = GetShortName(dstElementName);
         
-        Predicate<ElementDefinition> verifyNames = x -> AreTheseEquals(x.getShortName(), shortName, true) || AreTheseEquals(x.getName(), dstElementName, true);
-        
-        ElementDefinition elementDefinition = this.elements.stream()
-                .filter(x -> x.GetHubElement() != null && verifyNames.test(x.GetHubElement()))
-                .map(x -> x.GetHubElement())
-                .findFirst()
-                .orElse(this.hubController.GetOpenIteration()
-                    .getElement()
-                    .stream()
-                    .filter(x -> verifyNames.test(x))
-                    .map(x -> x.clone(true))
-                    .findFirst()
+        ElementDefinition elementDefinition = this.elementDefinitionsOfThisPass.Get(dstElementName, shortName)
+                .orElseGet(() -> this.elementDefinitionIndex.Get(dstElementName, shortName)
+                    .map(x -> this.CloneForUpdate(x))
                     .orElse(null));
         
         if(elementDefinition == null)
@@ -520,10 +649,9 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
                 definition.setLanguageCode(MDIID);
                 elementDefinition.getDefinition().add(definition);
             }
-            
-            return elementDefinition;
         }
 
+        this.elementDefinitionsOfThisPass.Add(elementDefinition);
         return elementDefinition;
     }
     
@@ -532,6 +660,18 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      */
     private void ProcessConnectorProperties()
     {
+        HashMap<String, ElementDefinition> connectedElementsById = new HashMap<>();
+        
+        for (Pair<Property, ElementDefinition> connectedElement : this.connectedElements)
+        {
+            Element connectedDstElement = ((ElementValue)connectedElement.getLeft().getDefaultValue()).getElement();
+            
+            if(connectedDstElement != null && connectedDstElement.getID() != null)
+            {
+                connectedElementsById.putIfAbsent(connectedDstElement.getID().toLowerCase(Locale.ROOT), connectedElement.getRight());
+            }
+        }
+        
         for (Pair<Property, ElementDefinition> element : this.connectedElements)
         {
             Optional<Definition> definition = element.getRight()
@@ -540,24 +680,19 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
                     .filter(x-> x.getLanguageCode().equals(MDIID))
                     .findFirst();
             
-            if(definition.isPresent())
+            if(definition.isPresent() && definition.get().getContent() != null)
             {
-                Optional<ElementDefinition> otherEnd = this.connectedElements.stream()
-                        .filter(x -> ((ElementValue)x.getLeft().getDefaultValue()).getElement().getID()
-                                .equalsIgnoreCase(definition.get().getContent()))
-                        .map(x -> x.getRight()).findFirst();
+                Optional<ElementDefinition> otherEnd = Optional.ofNullable(connectedElementsById.get(definition.get().getContent().toLowerCase(Locale.ROOT)));
                 
                 if(otherEnd.isPresent())
                 {
-                    BinaryRelationship relationship = this.hubController.GetOpenIteration()
-                            .getRelationship()
-                            .stream()
-                            .filter(x -> x.getName().equals(this.connectorPropertyNames.getRight())
-                                    && x instanceof BinaryRelationship
-                                    && VerifyBinaryRelationshipIsTheOne((BinaryRelationship)x, otherEnd.get(), element.getRight()))
+                    BinaryRelationship relationship = Stream.concat(
+                                this.relationshipIndex.GetBinaryRelationships(element.getRight().getIid(), otherEnd.get().getIid(), this.connectorPropertyNames.getRight()).stream(),
+                                this.relationshipIndex.GetBinaryRelationships(otherEnd.get().getIid(), element.getRight().getIid(), this.connectorPropertyNames.getRight()).stream())
+                            .filter(x -> AreTheseEquals(x.getName(), this.connectorPropertyNames.getRight()))
                             .findFirst()
-                            .map(x -> (BinaryRelationship)x.clone(false))
-                            .orElseGet(this.CreateBinaryRelationshipFromConnectorProperty(otherEnd.get(), element.getRight()));
+                            .map(x -> this.CloneShallow(x))
+                            .orElseGet(() -> this.CreateBinaryRelationshipFromConnectorProperty(otherEnd.get(), element.getRight()));
                             
                     this.binaryRelationShips.add(relationship);
                 }
@@ -565,30 +700,14 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
         }
     }
 
-    /**
-     * Verifies that the relationship is assigned to the specified {@linkplain ElementDefinitions}
-     * 
-     * @param relationship the {@linkplain BinaryRelationship} to verify
-     * @param elementDefinition0 one of the {@linkplain ElementDefinitions} that should be linked to the other
-     * @param elementDefinition1 the other {@linkplain ElementDefinitions} that should be linked to the other
-     * @return a value indicating whether the provided relationship meets the requirements
-     */
-    private boolean VerifyBinaryRelationshipIsTheOne(BinaryRelationship relationship, ElementDefinition elementDefinition0, ElementDefinition elementDefinition1)
-    {
-        return (relationship.getTarget().getIid().compareTo(elementDefinition0.getIid()) == 0
-                && relationship.getSource().getIid().compareTo(elementDefinition1.getIid()) == 0)
-                || (relationship.getTarget().getIid().compareTo(elementDefinition1.getIid()) == 0
-                && relationship.getSource().getIid().compareTo(elementDefinition0.getIid()) == 0);
-    }
-
     /**
      * Creates the relationship for the two specified {@linkplain ElementDefinition}s or verify that the two of them already own such relationship
      * 
      * @param elementDefinition0 one of the {@linkplain ElementDefinition} 
      * @param elementDefinition1 the other {@linkplain ElementDefinition}
-     * @return a {@linkplain Supplier} of {@linkplain Relationship}
+     * @return a {@linkplain BinaryRelationship}
      */
-    private Supplier<? extends BinaryRelationship> CreateBinaryRelationshipFromConnectorProperty(ElementDefinition elementDefinition0, ElementDefinition elementDefinition1)
+    private BinaryRelationship CreateBinaryRelationshipFromConnectorProperty(ElementDefinition elementDefinition0, ElementDefinition elementDefinition1)
     {        
         BinaryRelationship relationship = new BinaryRelationship();
         relationship.setIid(UUID.randomUUID());
@@ -607,7 +726,7 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
             relationship.getCategory().add(refCategory.Get());            
         }
 
-        return () -> relationship;
+        return relationship;
     }
 
     /**
@@ -670,8 +789,10 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      */
     private boolean TryGetOrCreateParameter(ElementDefinition elementDefinition, Property property, Ref<Parameter> refParameter, Ref<ParameterType> refParameterType) 
     {
+        String propertyShortName = GetShortName(property);
+        
         Predicate<Parameter> areParameterParameterTypeShortNameEqualsPredicate = 
-                x -> this.AreShortNamesEquals(x.getParameterType(), GetShortName(property)) 
+                x -> this.AreShortNamesEquals(x.getParameterType(), propertyShortName) 
                 || x.getParameterType().getName().compareToIgnoreCase(property.getName()) == 0;
         
         Optional<Parameter> existingParameter = elementDefinition.getContainedParameter().stream()
@@ -705,7 +826,7 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
         }   
         else
         {
-            refParameter.Set(existingParameter.get().clone(true));
+            refParameter.Set(this.CloneForUpdate(existingParameter.get()));
         }
         
         return true;
@@ -780,20 +901,25 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
         
         Class definitionBlock = (Class)partProperty.getType();
         
-        MappedElementDefinitionRowViewModel mappedElement = this.elements.stream()
-                .filter(x -> AreTheseEquals(x.GetDstElement().getID(), definitionBlock.getID()))
-                .findFirst()
-                .orElseGet(() -> 
-                {
-                    MappedElementDefinitionRowViewModel element = 
-                            new MappedElementDefinitionRowViewModel(this.GetOrCreateElementDefinition(definitionBlock), definitionBlock, MappingDirection.FromDstToHub);
-                    
-                    this.elements.add(element);                    
-                    return element;
-                });
+        MappedElementDefinitionRowViewModel mappedElement = Optional.ofNullable(this.mappedBlocksOfThisPass.get(definitionBlock.getID()))
+                .orElseGet(() -> this.elements.stream()
+                    .filter(x -> AreTheseEquals(x.GetDstElement().getID(), definitionBlock.getID()))
+                    .findFirst()
+                    .orElseGet(() -> 
+                    {
+                        MappedElementDefinitionRowViewModel element = 
+                                new MappedElementDefinitionRowViewModel(this.GetOrCreateElementDefinition(definitionBlock), definitionBlock, MappingDirection.FromDstToHub);
+                        
+                        this.elements.add(element);                    
+                        return element;
+                    }));
+        
+        if(mappedElement.GetHubElement() == null)
+        {
+            mappedElement.SetHubElement(this.GetOrCreateElementDefinition(definitionBlock));
+        }
         
-        this.MapCategories(mappedElement.GetHubElement(), definitionBlock);
-        this.MapProperties(mappedElement.GetHubElement(), definitionBlock, partProperty);
+        this.MapBlock(mappedElement, partProperty);
 
         if(elementDefinition.getContainedElement()
                 .stream().anyMatch(x -> AreTheseEquals(x.getElementDefinition().getIid(), mappedElement.GetHubElement().getIid())))
@@ -928,9 +1054,8 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
         {
             String shortName = GetShortName(property.getName());
             
-            if(!this.hubController.TryGetThingFromChainOfRdlBy(x -> this.AreShortNamesEquals(x, shortName) 
-                    || x.getName().compareToIgnoreCase(property.getName()) == 0 
-                    || (property.getType() != null && AreTheseEquals(property.getType().getName(), x.getName(), true)), refParameterType))
+            if(!this.TryGetReferenceDataLibraryThing(refParameterType, shortName, property.getName(), 
+                    property.getType() != null ? property.getType().getName() : null))
             {
                 ParameterType parameterType = this.CreateParameterType(property);
                                 
@@ -941,9 +1066,8 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
                     parameterType.setShortName(shortName);
                     parameterType.setSymbol(property.getName().substring(0, 1));
                     
-                    ReferenceDataLibrary referenceDataLibrary = this.hubController.GetDehpOrModelReferenceDataLibrary().clone(false);
-                    referenceDataLibrary.getParameterType().add(parameterType);
-                    return this.TryCreateOrUpdateReferenceDataLibraryThing(parameterType, referenceDataLibrary, refParameterType);
+                    this.GetStagedReferenceDataLibrary().getParameterType().add(parameterType);
+                    return this.TryCreateOrUpdateReferenceDataLibraryThing(parameterType, refParameterType);
                 }
             }
             else
@@ -1019,11 +1143,10 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
                 return false;
             }
             
-            QuantityKind clone = quantityKind.clone(false);
+            QuantityKind clone = this.IsStaged(quantityKind) ? quantityKind : this.CloneShallow(quantityKind);
             clone.getPossibleScale().add(refScale.Get());
 
-            ReferenceDataLibrary referenceDataLibrary = this.hubController.GetDehpOrModelReferenceDataLibrary().clone(false);
-            return this.TryCreateOrUpdateReferenceDataLibraryThing(clone, referenceDataLibrary, refParameterType);
+            return this.TryCreateOrUpdateReferenceDataLibraryThing(clone, refParameterType);
         }
         
         return true;
@@ -1060,13 +1183,42 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      * @param refScale the {@linkplain Ref} of {@linkplain MeasurementScale} as out parameter
      * @return a {@linkplain boolean} indicating whether the {@linkplain refScale} is not null
      */
-    @SuppressWarnings("resource")
     private boolean TryCreateOrGetMeasurementScale(ValueSpecification valueSpecification, Property property, Ref<MeasurementScale> refScale)
     {
-        String scaleName = this.GetScaleName(property);
+        String valueTypeId = property.getType() == null ? null : property.getType().getID();
+        MeasurementScale scaleOfThisPass = valueTypeId == null ? null : this.measurementScalesOfThisPass.get(valueTypeId);
+        
+        if(scaleOfThisPass != null)
+        {
+            refScale.Set(scaleOfThisPass);
+            return true;
+        }
+        
+        if(!this.TryCreateOrGetMeasurementScale(valueSpecification, this.GetScaleName(property), refScale))
+        {
+            return false;
+        }
         
-        if(!this.hubController.TryGetThingFromChainOfRdlBy(x -> AreTheseEquals(x.getShortName(), scaleName, true) 
-                ||  AreTheseEquals(x.getName(), scaleName, true) , refScale))
+        if(valueTypeId != null && refScale.HasValue())
+        {
+            this.measurementScalesOfThisPass.put(valueTypeId, refScale.Get());
+        }
+        
+        return true;
+    }
+
+    /**
+     * Tries to create a new {@linkplain MeasurementScale} named after the provided scale name or to retrieve it from the reference data library
+     * 
+     * @param valueSpecification the {@linkplain ValueSpecification}
+     * @param scaleName the scale name
+     * @param refScale the {@linkplain Ref} of {@linkplain MeasurementScale} as out parameter
+     * @return a {@linkplain boolean} indicating whether the {@linkplain refScale} is not null
+     */
+    @SuppressWarnings("resource")
+    private boolean TryCreateOrGetMeasurementScale(ValueSpecification valueSpecification, String scaleName, Ref<MeasurementScale> refScale)
+    {
+        if(!this.TryGetReferenceDataLibraryThing(refScale, scaleName))
         {
             MeasurementScale newScale = new RatioScale();
             newScale.setName(scaleName);
@@ -1094,9 +1246,8 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
             newScale.setUnit(refMeasurementUnit.Get());
             newScale.setShortName(refMeasurementUnit.Get().getShortName());
             
-            ReferenceDataLibrary referenceDataLibrary = this.hubController.GetDehpOrModelReferenceDataLibrary().clone(false);
-            referenceDataLibrary.getScale().add(newScale);
-            return this.TryCreateOrUpdateReferenceDataLibraryThing(newScale, referenceDataLibrary, refScale);
+            this.GetStagedReferenceDataLibrary().getScale().add(newScale);
+            return this.TryCreateOrUpdateReferenceDataLibraryThing(newScale, refScale);
         }
         
         return true;
@@ -1130,6 +1281,22 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      * @return a {@linkplain Pair} of {@linkplain Property} where left is the scale and right is the unit
      */
     private Pair<String, String> GetScaleAndUnit(Property property)
+    {
+        if(property.getType() == null || property.getType().getID() == null)
+        {
+            return this.ParseScaleAndUnit(property);
+        }
+        
+        return this.scalesAndUnitsOfThisPass.computeIfAbsent(property.getType().getID(), x -> this.ParseScaleAndUnit(property));
+    }
+
+    /**
+     * Parses the scale and the unit from the value type of the specified property
+     * 
+     * @param property the {@linkplain Property}
+     * @return a {@linkplain Pair} of {@linkplain Property} where left is the scale and right is the unit
+     */
+    private Pair<String, String> ParseScaleAndUnit(Property property)
     {
         String type = this.stereotypeService.GetTypeRepresentation(property);
 
@@ -1157,15 +1324,14 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
      */
     private boolean TryCreateOrGetMeasurementUnit(String unitName, Ref<MeasurementUnit> refMeasurementUnit)
     {
-        if(!this.hubController.TryGetThingFromChainOfRdlBy(x -> x.getShortName().equals(unitName) || x.getName().equals(unitName) || x.getShortName().equals("-"), refMeasurementUnit))
+        if(!this.TryGetReferenceDataLibraryThing(refMeasurementUnit, unitName, "-"))
         {
             SimpleUnit newMeasurementUnit = new SimpleUnit();
             newMeasurementUnit.setName(unitName);
             newMeasurementUnit.setShortName(unitName);
 
-            ReferenceDataLibrary referenceDataLibrary = this.hubController.GetDehpOrModelReferenceDataLibrary().clone(false);
-            referenceDataLibrary.getUnit().add(newMeasurementUnit);
-            return this.TryCreateOrUpdateReferenceDataLibraryThing(newMeasurementUnit, referenceDataLibrary, refMeasurementUnit);
+            this.GetStagedReferenceDataLibrary().getUnit().add(newMeasurementUnit);
+            return this.TryCreateOrUpdateReferenceDataLibraryThing(newMeasurementUnit, refMeasurementUnit);
         }
         
         return true;
@@ -1209,7 +1375,7 @@ public class BlockToElementMappingRule extends DstToHubBaseMappingRule<MagicDraw
         {         
             Ref<Category> refCategory = new Ref<>(Category.class);
     
-            if (!(this.hubController.TryGetThingFromChainOfRdlBy(x -> x.getShortName().equals(categoryNames.getLeft()), refCategory)) 
+            if (!(this.TryGetReferenceDataLibraryThing(refCategory, categoryNames.getLeft())) 
             		&& shouldCreateTheCategory && !this.TryCreateCategory(categoryNames, refCategory, ClassKind.ElementDefinition, ClassKind.ElementUsage))
 			{
 			    return;
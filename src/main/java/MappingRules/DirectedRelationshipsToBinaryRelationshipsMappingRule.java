@@ -24,9 +24,14 @@
 package MappingRules;
 
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.Predicate;
+
+import org.apache.commons.lang3.tuple.Triple;
 
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DirectedRelationship;
@@ -35,10 +40,12 @@ import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
 import App.AppContainer;
 import DstController.IDstController;
 import HubController.IHubController;
+import Services.IterationIndex.IRelationshipIndexService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
 import Services.MappingEngineService.MappingRule;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.ReferenceData.IReferenceDataLibraryIndexService;
 import Services.Stereotype.IStereotypeService;
-import Utils.Operators.Operators;
 import Utils.Stereotypes.DirectedRelationshipType;
 import Utils.Stereotypes.MagicDrawRelatedElementCollection;
 import ViewModels.Rows.MappedElementDefinitionRowViewModel;
@@ -47,6 +54,7 @@ import cdp4common.commondata.ClassKind;
 import cdp4common.commondata.Thing;
 import cdp4common.engineeringmodeldata.BinaryRelationship;
 import cdp4common.engineeringmodeldata.ElementDefinition;
+import cdp4common.sitedirectorydata.Category;
 
 /**
  * The {@linkplain DirectedRelationshipsToBinaryRelationshipsMappingRule} is the {@linkplain MappingRule} that maps {@linkplain DirectedRelationship}s to {@linkplain BinaryRelationShip}
@@ -63,16 +71,26 @@ public class DirectedRelationshipsToBinaryRelationshipsMappingRule extends DstTo
      */
     IDstController dstController;
 
+    /**
+     * The {@linkplain IRelationshipIndexService}
+     */
+    private final IRelationshipIndexService relationshipIndex;
+
     /**
      * Initializes a new {@linkplain DirectedRelationshipsToBinaryRelationshipsMappingRule}
      * 
      * @param hubController the {@linkplain IHubController}
      * @param mappingConfiguration the {@linkplain IMagicDrawMappingConfigurationService}
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param referenceDataLibraryIndex the {@linkplain IReferenceDataLibraryIndexService}
+     * @param relationshipIndex the {@linkplain IRelationshipIndexService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
-    public DirectedRelationshipsToBinaryRelationshipsMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, IStereotypeService stereotypeService)
+    public DirectedRelationshipsToBinaryRelationshipsMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, 
+            IStereotypeService stereotypeService, IReferenceDataLibraryIndexService referenceDataLibraryIndex, IRelationshipIndexService relationshipIndex, IMappingMetricsService metricsService)
     {
-        super(hubController, mappingConfiguration, stereotypeService);
+        super(hubController, mappingConfiguration, stereotypeService, referenceDataLibraryIndex, metricsService);
+        this.relationshipIndex = relationshipIndex;
     }
     
     /**
@@ -82,7 +100,7 @@ public class DirectedRelationshipsToBinaryRelationshipsMappingRule extends DstTo
      * @return the {@linkplain ArrayList} of {@linkplain MappedElementDefinitionRowViewModel}
      */
     @Override
-    public ArrayList<BinaryRelationship> Transform(Object input)
+    protected ArrayList<BinaryRelationship> TransformInput(Object input)
     {
         try
         {
@@ -92,6 +110,13 @@ public class DirectedRelationshipsToBinaryRelationshipsMappingRule extends DstTo
             }
             
             this.Map(this.CastInput(input));
+            
+            if(!this.CommitStagedReferenceDataLibraryThings(this.result))
+            {
+                this.logger.error("The relationships could not be mapped because the new reference data could not be written");
+                return new ArrayList<>();
+            }
+            
             return new ArrayList<>(this.result);
         }
         catch (Exception exception)
@@ -102,6 +127,7 @@ public class DirectedRelationshipsToBinaryRelationshipsMappingRule extends DstTo
         finally
         {
             this.result.clear();
+            this.ClearStagedReferenceDataLibraryThings();
         }
     }
 
@@ -112,12 +138,22 @@ public class DirectedRelationshipsToBinaryRelationshipsMappingRule extends DstTo
      */
     private void Map(MagicDrawRelatedElementCollection elements)
     {
+        HashMap<String, MappedElementRowViewModel<? extends Thing, ? extends Class>> elementsById = new HashMap<>();
+        
+        for (MappedElementRowViewModel<? extends Thing, ? extends Class> element : elements)
+        {
+            elementsById.putIfAbsent(element.GetDstElement().getID(), element);
+        }
+        
+        Set<Triple<UUID, UUID, String>> mappedBinaryRelationships = this.GetMappedBinaryRelationships();
+        
         for (MappedElementRowViewModel<? extends Thing, ? extends Class> sourceElement : elements)
         {
             for (DirectedRelationship relationship : sourceElement.GetDstElement().get_directedRelationshipOfSource())
             {
-                Optional<MappedElementRowViewModel<? extends Thing, ? extends Class>> optionalTargetElement = elements.stream()
-                        .filter(x -> relationship.getTarget().stream().anyMatch(e -> Operators.AreTheseEquals(e.getID(), x.GetDstElement().getID())))
+                Optional<MappedElementRowViewModel<? extends Thing, ? extends Class>> optionalTargetElement = relationship.getTarget().stream()
+                        .map(x -> elementsById.get(x.getID()))
+                        .filter(Objects::nonNull)
                         .findFirst();
                 
                 if(!optionalTargetElement.isPresent())
@@ -135,7 +171,7 @@ public class DirectedRelationshipsToBinaryRelationshipsMappingRule extends DstTo
                     continue;
                 }
                 
-                if(this.DoesRelationshipAlreadyExists(relationshipType, sourceElement.GetHubElement(), optionalTargetElement.get().GetHubElement()))
+                if(this.DoesRelationshipAlreadyExists(relationshipType, sourceElement.GetHubElement(), optionalTargetElement.get().GetHubElement(), mappedBinaryRelationships))
                 {
                     continue;
                 }
@@ -178,25 +214,39 @@ public class DirectedRelationshipsToBinaryRelationshipsMappingRule extends DstTo
                 : mappedElement.GetDstElement().getID();
     }
 
+    /**
+     * Gets the source iid, target iid and category name of the {@linkplain BinaryRelationship}s already mapped from the DST
+     * 
+     * @return a {@linkplain Set} of {@linkplain Triple} of source iid, target iid and category name
+     */
+    private Set<Triple<UUID, UUID, String>> GetMappedBinaryRelationships()
+    {
+        Set<Triple<UUID, UUID, String>> mappedBinaryRelationships = new HashSet<>();
+        
+        for (BinaryRelationship relationship : this.dstController.GetMappedDirectedRelationshipToBinaryRelationships())
+        {
+            for (Category category : relationship.getCategory())
+            {
+                mappedBinaryRelationships.add(Triple.of(relationship.getSource().getIid(), relationship.getTarget().getIid(), category.getName()));
+            }
+        }
+        
+        return mappedBinaryRelationships;
+    }
+
     /**
      * Verifies that no relationship already exists between the provided {@linkplain Class} source and the {@linkplain Class} target in the Hub
-     * @param relationshipType 
      * 
      * @param relationshipType the stereotype reprented by {@linkplain DirectedRelationship} of the current relationship
      * @param source the {@linkplain Thing} source
      * @param target the {@linkplain Thing} target
+     * @param mappedBinaryRelationships the {@linkplain Set} of source iid, target iid and category name of the already mapped {@linkplain BinaryRelationship}s
      * @return a {@linkplain boolean}
      */
-    private boolean DoesRelationshipAlreadyExists(DirectedRelationshipType relationshipType, Thing source, Thing target)
+    private boolean DoesRelationshipAlreadyExists(DirectedRelationshipType relationshipType, Thing source, Thing target, 
+            Set<Triple<UUID, UUID, String>> mappedBinaryRelationships)
     {
-        Predicate<? super BinaryRelationship> predicate = x -> Operators.AreTheseEquals(x.getTarget().getIid(), target.getIid()) 
-                && Operators.AreTheseEquals(x.getSource().getIid(), source.getIid())
-                && x.getCategory().stream().anyMatch(c -> Operators.AreTheseEquals(c.getName(), relationshipType.name()));
-        
-        return this.hubController.GetOpenIteration().getRelationship().stream()
-                    .filter(x -> x instanceof BinaryRelationship)
-                    .map(x -> (BinaryRelationship)x)
-                    .anyMatch(predicate)
-                || this.dstController.GetMappedDirectedRelationshipToBinaryRelationships().stream().anyMatch(predicate);
+        return !this.relationshipIndex.GetBinaryRelationships(source.getIid(), target.getIid(), relationshipType.name()).isEmpty()
+                || mappedBinaryRelationships.contains(Triple.of(source.getIid(), target.getIid(), relationshipType.name()));
     }    
 }
@@ -24,10 +24,15 @@
 package MappingRules;
 
 import static Utils.Operators.Operators.AreTheseEquals;
+import static Utils.Stereotypes.StereotypeUtils.GetCaseFoldedName;
 import static Utils.Stereotypes.StereotypeUtils.GetShortName;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -40,14 +45,18 @@ import com.nomagic.uml2.ext.magicdraw.mdprofiles.Stereotype;
 
 import Enumerations.MappingDirection;
 import HubController.IHubController;
+import Services.IterationIndex.IRequirementIndexService;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.ReferenceData.IReferenceDataLibraryIndexService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Ref;
 import Utils.Stereotypes.MagicDrawRequirementCollection;
 import ViewModels.Rows.MappedRequirementRowViewModel;
 import cdp4common.commondata.ClassKind;
 import cdp4common.commondata.Definition;
+import cdp4common.commondata.Thing;
 import cdp4common.engineeringmodeldata.Requirement;
 import cdp4common.engineeringmodeldata.RequirementsContainer;
 import cdp4common.engineeringmodeldata.RequirementsGroup;
@@ -59,14 +68,35 @@ import cdp4common.engineeringmodeldata.RequirementsSpecification;
 public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappingRule<MagicDrawRequirementCollection, ArrayList<MappedRequirementRowViewModel>>
 {
     /**
-     * A collection of {@linkplain RequirementsSpecification}
+     * The {@linkplain IRequirementIndexService}
      */
-    private final ArrayList<RequirementsSpecification> requirementsSpecifications = new ArrayList<>();
+    private final IRequirementIndexService requirementIndex;
 
     /**
-     *A collection of {@linkplain RequirementsGroup}
+     * The clones of the {@linkplain RequirementsSpecification}s touched during the current mapping pass, and of their contained 
+     * {@linkplain RequirementsGroup}s and {@linkplain Requirement}s, keyed by the original {@linkplain Thing}
      */
-    private final ArrayList<RequirementsGroup> requirementsGroups = new ArrayList<>();
+    private final Map<Thing, Thing> clonesOfThisPass = new IdentityHashMap<>();
+
+    /**
+     * The {@linkplain RequirementsSpecification}s created during the current mapping pass keyed by case-folded short name
+     */
+    private final Map<String, RequirementsSpecification> newRequirementsSpecifications = new HashMap<>();
+
+    /**
+     * The {@linkplain RequirementsGroup}s created during the current mapping pass keyed by case-folded short name
+     */
+    private final Map<String, RequirementsGroup> newRequirementsGroups = new HashMap<>();
+
+    /**
+     * The {@linkplain Requirement}s created during the current mapping pass keyed by case-folded short name
+     */
+    private final Map<String, Requirement> newRequirements = new HashMap<>();
+
+    /**
+     * The number of {@linkplain RequirementsSpecification}s cloned during the last mapping pass
+     */
+    private int numberOfClonedRequirementsSpecifications;
 
     /**
      * The {@linkplain IMagicDrawTransactionService}
@@ -85,12 +115,17 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
      * @param mappingConfiguration the {@linkplain IMagicDrawMappingConfigurationService}
      * @param mappingConfiguration the {@linkplain IMagicDrawTransactionService}
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param referenceDataLibraryIndex the {@linkplain IReferenceDataLibraryIndexService}
+     * @param requirementIndex the {@linkplain IRequirementIndexService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
     public DstRequirementToHubRequirementMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration,
-            IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService)
+            IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService, IReferenceDataLibraryIndexService referenceDataLibraryIndex,
+            IRequirementIndexService requirementIndex, IMappingMetricsService metricsService)
     {
-        super(hubController, mappingConfiguration, stereotypeService);
+        super(hubController, mappingConfiguration, stereotypeService, referenceDataLibraryIndex, metricsService);
         this.transactionService = transactionService;
+        this.requirementIndex = requirementIndex;
     }
 
     /**
@@ -100,20 +135,13 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
      * @return the {@linkplain ArrayList} of {@linkplain MappedDstRequirementRowViewModel}
      */
     @Override
-    public ArrayList<MappedRequirementRowViewModel> Transform(Object input)
+    protected ArrayList<MappedRequirementRowViewModel> TransformInput(Object input)
     {
         try
         {
+            this.numberOfClonedRequirementsSpecifications = 0;
             MagicDrawRequirementCollection mappedElementsAndMappingType = this.CastInput(input);
 
-            for (RequirementsSpecification requirementsSpecification : this.hubController.GetOpenIteration().getRequirementsSpecification()
-                    .stream().filter(x -> !x.isDeprecated()).collect(Collectors.toList()))
-            {
-                RequirementsSpecification requirementsSpecificationsClone = requirementsSpecification.clone(true);
-                this.requirementsSpecifications.add(requirementsSpecificationsClone);
-                this.PopulateRequirementsGroupCollection(requirementsSpecificationsClone);
-            }
-
             this.mappedElements = new ArrayList<>(mappedElementsAndMappingType.getRight());
 
             for (MappedRequirementRowViewModel mappedElement : this.mappedElements)
@@ -124,6 +152,15 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
             if (mappedElementsAndMappingType.getLeft())
             {
                 this.MapCategories();
+                
+                if(!this.CommitStagedReferenceDataLibraryThings(this.mappedElements.stream()
+                        .map(x -> x.GetHubElement())
+                        .collect(Collectors.toList())))
+                {
+                    this.logger.error("The requirements could not be mapped because the new reference data could not be written");
+                    return new ArrayList<>();
+                }
+                
                 this.SaveMappingConfiguration(this.mappedElements, MappingDirection.FromDstToHub);
             }
 
@@ -136,8 +173,80 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
         }
         finally
         {
-            this.requirementsSpecifications.clear();
-            this.requirementsGroups.clear();
+            this.logger.debug(String.format("%s RequirementsSpecifications were cloned", this.numberOfClonedRequirementsSpecifications));
+            this.clonesOfThisPass.clear();
+            this.newRequirementsSpecifications.clear();
+            this.newRequirementsGroups.clear();
+            this.newRequirements.clear();
+            this.ClearStagedReferenceDataLibraryThings();
+        }
+    }
+
+    /**
+     * Gets the number of {@linkplain RequirementsSpecification}s cloned during the last mapping pass
+     * 
+     * @return an int
+     */
+    public int GetNumberOfClonedRequirementsSpecifications()
+    {
+        return this.numberOfClonedRequirementsSpecifications;
+    }
+
+    /**
+     * Gets the clone of the provided {@linkplain Thing} from the open iteration, cloning the {@linkplain RequirementsSpecification} 
+     * that contains it the first time one of its {@linkplain Thing}s is needed during the current mapping pass
+     * 
+     * @param <TThing> the type of {@linkplain Thing}
+     * @param thing the {@linkplain RequirementsSpecification}, {@linkplain RequirementsGroup} or {@linkplain Requirement} from the cache
+     * @return the clone of the {@linkplain #TThing}
+     */
+    @SuppressWarnings("unchecked")
+    private <TThing extends Thing> TThing GetClone(TThing thing)
+    {
+        RequirementsSpecification requirementsSpecification = thing instanceof RequirementsSpecification 
+                ? (RequirementsSpecification)thing
+                : thing.getContainerOfType(RequirementsSpecification.class);
+        
+        if(!this.clonesOfThisPass.containsKey(requirementsSpecification))
+        {
+            RequirementsSpecification clone = requirementsSpecification.clone(true);
+            this.numberOfClonedRequirementsSpecifications++;
+            this.GetMetrics().IncrementNumberOfClones();
+            this.clonesOfThisPass.put(requirementsSpecification, clone);
+            this.AddClones(requirementsSpecification.getRequirement(), clone.getRequirement());
+            this.AddGroupClones(requirementsSpecification, clone);
+        }
+        
+        return (TThing)this.clonesOfThisPass.get(thing);
+    }
+
+    /**
+     * Pairs the original {@linkplain RequirementsGroup}s of the provided {@linkplain RequirementsContainer} with their clones, recursively
+     * 
+     * @param original the original {@linkplain RequirementsContainer}
+     * @param clone the cloned {@linkplain RequirementsContainer}
+     */
+    private void AddGroupClones(RequirementsContainer original, RequirementsContainer clone)
+    {
+        this.AddClones(original.getGroup(), clone.getGroup());
+        
+        for (int index = 0; index < original.getGroup().size(); index++)
+        {
+            this.AddGroupClones(original.getGroup().get(index), clone.getGroup().get(index));
+        }
+    }
+
+    /**
+     * Pairs the provided original {@linkplain Thing}s with their clones, which are in the same order
+     * 
+     * @param originals the {@linkplain List} of original {@linkplain Thing}
+     * @param clones the {@linkplain List} of cloned {@linkplain Thing}
+     */
+    private void AddClones(List<? extends Thing> originals, List<? extends Thing> clones)
+    {
+        for (int index = 0; index < originals.size(); index++)
+        {
+            this.clonesOfThisPass.put(originals.get(index), clones.get(index));
         }
     }
 
@@ -287,14 +396,17 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
     {
         String shortName = GetShortName(requirementPackage.getName());
        
-        Optional<RequirementsGroup> optionalRequirementsGroup = this.requirementsGroups.stream()
-                .filter(x -> AreTheseEquals(x.getShortName(), shortName, true))
-                .findFirst();
+        Optional<RequirementsGroup> optionalRequirementsGroup = this.requirementIndex.GetRequirementsGroup(shortName)
+                .map(x -> this.GetClone(x));
        
         if (optionalRequirementsGroup.isPresent())
         {
             refRequirementsGroup.Set(optionalRequirementsGroup.get());
         }
+        else if (this.newRequirementsGroups.containsKey(GetCaseFoldedName(shortName)))
+        {
+            refRequirementsGroup.Set(this.newRequirementsGroups.get(GetCaseFoldedName(shortName)));
+        }
         else
         {
             RequirementsGroup requirementsGroup = new RequirementsGroup();
@@ -304,7 +416,7 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
             requirementsGroup.setOwner(this.hubController.GetCurrentDomainOfExpertise());
 
             refRequirementsGroup.Set(requirementsGroup);
-            this.requirementsGroups.add(requirementsGroup);
+            this.newRequirementsGroups.put(GetCaseFoldedName(shortName), requirementsGroup);
         }
        
         return refRequirementsGroup.HasValue();
@@ -333,9 +445,13 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
     {
         String shortName = GetShortName(packageName);
 
-        Optional<RequirementsSpecification> optionalRequirementsSpecification = this.requirementsSpecifications.stream()
-                .filter(x -> AreTheseEquals(x.getShortName(), shortName, true))
-                .findFirst();
+        Optional<RequirementsSpecification> optionalRequirementsSpecification = this.requirementIndex.GetRequirementsSpecification(shortName)
+                .map(x -> this.GetClone(x));
+
+        if (!optionalRequirementsSpecification.isPresent() && this.newRequirementsSpecifications.containsKey(GetCaseFoldedName(shortName)))
+        {
+            optionalRequirementsSpecification = Optional.of(this.newRequirementsSpecifications.get(GetCaseFoldedName(shortName)));
+        }
 
         if (!optionalRequirementsSpecification.isPresent())
         {
@@ -345,15 +461,13 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
             newRequirementSpecification.setShortName(shortName);
             newRequirementSpecification.setOwner(this.hubController.GetCurrentDomainOfExpertise());
             refRequirementsSpecification.Set(newRequirementSpecification);
-            this.requirementsSpecifications.add(refRequirementsSpecification.Get());
+            this.newRequirementsSpecifications.put(GetCaseFoldedName(shortName), newRequirementSpecification);
         }
         else
         {
             refRequirementsSpecification.Set(optionalRequirementsSpecification.get());
         }
 
-        this.requirementsGroups.addAll(refRequirementsSpecification.Get().getAllContainedGroups());
-
         return refRequirementsSpecification.HasValue();
     }
 
@@ -369,7 +483,11 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
         if (!mappedElement.GetShouldCreateNewTargetElementValue() && this.TryGetRequirement(mappedElement.GetDstElement(), refRequirement))
         {
             RequirementsSpecification requirementsSpecification = refRequirement.Get().getContainerOfType(RequirementsSpecification.class);
-            requirementsSpecification.getRequirement().removeIf(x -> AreTheseEquals(x.getIid(), refRequirement.Get().getIid()));
+            
+            if (requirementsSpecification != null)
+            {
+                requirementsSpecification.getRequirement().removeIf(x -> AreTheseEquals(x.getIid(), refRequirement.Get().getIid()));
+            }
         }
         else
         {
@@ -377,6 +495,13 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
             requirement.setIid(UUID.randomUUID());
             requirement.setOwner(this.hubController.GetCurrentDomainOfExpertise());
             refRequirement.Set(requirement);
+            
+            String requirementShortName = this.transactionService.GetRequirementId(mappedElement.GetDstElement());
+            
+            if(requirementShortName != null)
+            {
+                this.newRequirements.put(GetCaseFoldedName(requirementShortName), requirement);
+            }
         }
 
         this.UpdateProperties(mappedElement.GetDstElement(), refRequirement.Get());
@@ -394,11 +519,9 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
     {
         String requirementShortname = this.transactionService.GetRequirementId(dstRequirement);
 
-        refRequirement.Set(this.requirementsSpecifications.stream()
-                .flatMap(x -> x.getRequirement().stream())
-                .filter(x -> !x.isDeprecated() && AreTheseEquals(x.getShortName(), requirementShortname, true))
-                .findFirst()
-                .orElse(null));
+        refRequirement.Set(this.requirementIndex.GetRequirement(requirementShortname)
+                .map(x -> this.GetClone(x))
+                .orElseGet(() -> this.newRequirements.get(GetCaseFoldedName(requirementShortname))));
 
         return refRequirement.HasValue();
     }
@@ -442,7 +565,7 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
                     .stream()
                     .filter(x -> x.getLanguageCode().equalsIgnoreCase("en"))
                     .findFirst()
-                    .map(x -> x.clone(true))
+                    .map(x -> this.CloneShallow(x))
                     .orElse(this.CreateDefinition());
 
             String requirementText  = this.stereotypeService.GetRequirementText(element);
@@ -465,19 +588,4 @@ public class DstRequirementToHubRequirementMappingRule extends DstToHubBaseMappi
         return definition;
     }
 
-    /**
-     * Populate the {@linkplain requirementsGroups} collection
-     *
-     *@param container The {@linkplain RequirementsContainer}
-     */
-    private void PopulateRequirementsGroupCollection(RequirementsContainer container)
-    {
-        this.requirementsGroups.addAll(container.getGroup());
-
-        for (RequirementsGroup requirementsGroup : container.getGroup())
-        {
-            this.PopulateRequirementsGroupCollection(requirementsGroup);
-        }
-    }
-
 }
@@ -24,26 +24,43 @@
 package MappingRules;
 
 import static Utils.Operators.Operators.AreTheseEquals;
+import static Utils.Stereotypes.StereotypeUtils.GetCaseFoldedName;
 import static Utils.Stereotypes.StereotypeUtils.GetShortName;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.tuple.Pair;
 
 import HubController.IHubController;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.ReferenceData.IReferenceDataLibraryIndexService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Ref;
 import cdp4common.commondata.ClassKind;
 import cdp4common.commondata.Thing;
+import cdp4common.engineeringmodeldata.BinaryRelationship;
 import cdp4common.engineeringmodeldata.ElementDefinition;
+import cdp4common.engineeringmodeldata.ElementUsage;
+import cdp4common.engineeringmodeldata.Parameter;
+import cdp4common.engineeringmodeldata.ParameterValueSet;
 import cdp4common.sitedirectorydata.CategorizableThing;
 import cdp4common.sitedirectorydata.Category;
+import cdp4common.sitedirectorydata.DefinedThing;
 import cdp4common.sitedirectorydata.ReferenceDataLibrary;
-import cdp4common.types.ContainerList;
 import cdp4dal.operations.ThingTransactionImpl;
 import cdp4dal.operations.TransactionContextResolver;
 
@@ -57,6 +74,34 @@ import cdp4dal.operations.TransactionContextResolver;
 public abstract class DstToHubBaseMappingRule<TInput extends Object, TOutput>
         extends MagicDrawBaseMappingRule<TInput, TOutput>
 {
+    /**
+     * The {@linkplain ReentrantLock} held by a mapping rule for its whole transformation, from the lookup of the reference data 
+     * until the staged {@linkplain Thing}s are written or discarded, so that rules running concurrently never stage the same reference data twice 
+     * nor write outdated {@linkplain ReferenceDataLibrary} clones
+     */
+    private static final ReentrantLock ReferenceDataLibraryLock = new ReentrantLock();
+
+    /**
+     * The cloned {@linkplain ReferenceDataLibrary} that contains the reference data staged during the current mapping pass
+     */
+    private ReferenceDataLibrary stagedReferenceDataLibrary;
+
+    /**
+     * The {@linkplain Map} of the {@linkplain Thing}s created or updated during the current mapping pass keyed by their provisional iid
+     */
+    private final Map<UUID, Thing> stagedThings = new LinkedHashMap<>();
+
+    /**
+     * The {@linkplain Map} of the staged {@linkplain DefinedThing}s keyed by each of their {@linkplain Thing} class and case folded name or short name,
+     * the first staged {@linkplain DefinedThing} is kept when several of them share the same key
+     */
+    private final Map<Pair<Class<?>, String>, Thing> stagedThingsByName = new HashMap<>();
+
+    /**
+     * The {@linkplain IReferenceDataLibraryIndexService}
+     */
+    protected final IReferenceDataLibraryIndexService referenceDataLibraryIndex;
+
     /**
      * Initializes a new {@linkplain DstToHubBaseMappingRule}
      * 
@@ -64,11 +109,36 @@ public abstract class DstToHubBaseMappingRule<TInput extends Object, TOutput>
      * @param mappingConfiguration the
      *                             {@linkplain IMagicDrawMappingConfigurationService}
      * @param stereotypeService    the {@linkplain IStereotypeService}
+     * @param referenceDataLibraryIndex the {@linkplain IReferenceDataLibraryIndexService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
     protected DstToHubBaseMappingRule(IHubController hubController,
-            IMagicDrawMappingConfigurationService mappingConfiguration, IStereotypeService stereotypeService)
+            IMagicDrawMappingConfigurationService mappingConfiguration, IStereotypeService stereotypeService,
+            IReferenceDataLibraryIndexService referenceDataLibraryIndex, IMappingMetricsService metricsService)
     {
-        super(hubController, mappingConfiguration, stereotypeService);
+        super(hubController, mappingConfiguration, stereotypeService, metricsService);
+        this.referenceDataLibraryIndex = referenceDataLibraryIndex;
+    }
+
+    /**
+     * Transforms the provided input while holding the {@linkplain #ReferenceDataLibraryLock}
+     * 
+     * @param input the input to transform
+     * @return the {@linkplain #TOutput} output
+     */
+    @Override
+    public TOutput Transform(Object input)
+    {
+        ReferenceDataLibraryLock.lock();
+        
+        try
+        {
+            return super.Transform(input);
+        }
+        finally
+        {
+            ReferenceDataLibraryLock.unlock();
+        }
     }
 
     /**
@@ -89,7 +159,7 @@ public abstract class DstToHubBaseMappingRule<TInput extends Object, TOutput>
             Predicate<Category> categoryMatcher = x -> AreTheseEquals(x.getShortName(), categoryShortName, true)
                     || AreTheseEquals(x.getName(), categoryName, true);
             
-            if (!(this.hubController.TryGetThingFromChainOfRdlBy(categoryMatcher, refCategory))
+            if (!(this.TryGetReferenceDataLibraryThing(refCategory, categoryShortName, categoryName))
                     && !this.TryCreateCategory(Pair.of(categoryShortName, categoryName), refCategory, permissibleClass))
             {
                 return;
@@ -125,59 +195,369 @@ public abstract class DstToHubBaseMappingRule<TInput extends Object, TOutput>
      * @param refCategory   the {@linkplain Ref} of Category
      * @param params        of permissive classes
      * 
-     * @return a value indicating whether the category has been successfully created
-     *         and retrieved from the cache
+     * @return a value indicating whether the category has been successfully staged
+     *         or retrieved from the staging area
      */
     protected boolean TryCreateCategory(Pair<String, String> categoryNames, Ref<Category> refCategory,
             ClassKind... permissibleClass)
     {
+        if(this.TryGetStagedThing(refCategory, categoryNames.getLeft()))
+        {
+            return true;
+        }
+        
         Category newCategory = new Category();
         newCategory.setName(categoryNames.getRight());
         newCategory.setShortName(categoryNames.getLeft());
         newCategory.setIid(UUID.randomUUID());
         newCategory.getPermissibleClass().addAll(Arrays.asList(permissibleClass));
 
-        ReferenceDataLibrary rdl = this.hubController.GetDehpOrModelReferenceDataLibrary().clone(false);
-        rdl.getDefinedCategory().add(newCategory);
+        this.GetStagedReferenceDataLibrary().getDefinedCategory().add(newCategory);
 
-        return this.TryCreateOrUpdateReferenceDataLibraryThing(newCategory, rdl, refCategory);
+        return this.TryCreateOrUpdateReferenceDataLibraryThing(newCategory, refCategory);
     }
 
     /**
-     * Tries to add the specified {@linkplain newThing} to the provided
-     * {@linkplain ContainerList} and retrieved the new reference from the cache
-     * after save
+     * Gets the cloned {@linkplain ReferenceDataLibrary} where the new reference data of the current mapping pass has to be added
      * 
-     * @param <TThing>                   the type of {@linkplain Thing}
-     * @param thing                      the new {@linkplain Thing}
-     * @param clonedReferenceDataLibrary the cloned
-     *                                   {@linkplain ReferenceDataLibrary} where the
-     *                                   {@linkplain newThing} is contained
-     * @param refThing                   the {@linkplain Ref} acting as an out
-     *                                   parameter here
-     * @return a value indicating whether the {@linkplain newThing} has been
-     *         successfully created and retrieved from the cache
+     * @return the staged {@linkplain ReferenceDataLibrary}
      */
-    protected <TThing extends Thing> boolean TryCreateOrUpdateReferenceDataLibraryThing(TThing thing,
-            ReferenceDataLibrary clonedReferenceDataLibrary, Ref<TThing> refThing)
+    protected ReferenceDataLibrary GetStagedReferenceDataLibrary()
     {
+        if(this.stagedReferenceDataLibrary == null)
+        {
+            this.stagedReferenceDataLibrary = this.hubController.GetDehpOrModelReferenceDataLibrary().clone(false);
+        }
+        
+        return this.stagedReferenceDataLibrary;
+    }
+
+    /**
+     * Tries to get the reference data {@linkplain Thing} that has its name or short name equal to one of the provided names, ignoring the case,
+     * from the staging area first, then from the {@linkplain IReferenceDataLibraryIndexService}
+     * 
+     * @param <TThing> the type of {@linkplain Thing}
+     * @param refThing the {@linkplain Ref} acting as an out parameter here
+     * @param names the names to look for, in order of preference
+     * @return a value indicating whether the {@linkplain Thing} has been found
+     */
+    protected <TThing extends Thing> boolean TryGetReferenceDataLibraryThing(Ref<TThing> refThing, String... names)
+    {
+        return this.TryGetStagedThing(refThing, names) 
+                || this.referenceDataLibraryIndex.TryGet(refThing, names);
+    }
+
+    /**
+     * Tries to get a {@linkplain DefinedThing} that has been staged during the current mapping pass
+     * and that has its name or short name equal to one of the provided names, ignoring the case
+     * 
+     * @param <TThing> the type of {@linkplain Thing}
+     * @param refThing the {@linkplain Ref} acting as an out parameter here
+     * @param names the names to look for, in order of preference
+     * @return a value indicating whether the {@linkplain Thing} has been found
+     */
+    private <TThing extends Thing> boolean TryGetStagedThing(Ref<TThing> refThing, String... names)
+    {
+        for (String name : names)
+        {
+            if(name == null)
+            {
+                continue;
+            }
+            
+            Thing stagedThing = this.stagedThingsByName.get(Pair.of(refThing.GetType(), GetCaseFoldedName(name)));
+            
+            if(stagedThing != null)
+            {
+                refThing.Set(refThing.GetType().cast(stagedThing));
+                return true;
+            }
+        }
+        
+        return false;
+    }
+
+    /**
+     * Stages the specified {@linkplain Thing} that has been added to or that is contained in the {@linkplain #GetStagedReferenceDataLibrary()},
+     * the staged {@linkplain Thing}s are written to the hub all at once by {@linkplain #CommitStagedReferenceDataLibraryThings(Collection)}
+     * 
+     * @param <TThing> the type of {@linkplain Thing}
+     * @param thing the new or updated {@linkplain Thing}
+     * @param refThing the {@linkplain Ref} acting as an out parameter here
+     * @return a value indicating whether the {@linkplain Thing} has been successfully staged
+     */
+    protected <TThing extends Thing> boolean TryCreateOrUpdateReferenceDataLibraryThing(TThing thing, Ref<TThing> refThing)
+    {
+        if(thing.getIid() == null)
+        {
+            thing.setIid(UUID.randomUUID());
+        }
+        
+        this.GetStagedReferenceDataLibrary();
+        this.stagedThings.put(thing.getIid(), thing);
+        this.IndexStagedThing(thing);
+        refThing.Set(thing);
+        return true;
+    }
+
+    /**
+     * Indexes the provided staged {@linkplain Thing} by its name and short name under its class and each of its super classes up to {@linkplain Thing}
+     * 
+     * @param thing the staged {@linkplain Thing}
+     */
+    private void IndexStagedThing(Thing thing)
+    {
+        if(!(thing instanceof DefinedThing))
+        {
+            return;
+        }
+        
+        DefinedThing definedThing = (DefinedThing)thing;
+        
+        for (Class<?> thingClass = thing.getClass(); thingClass != null && Thing.class.isAssignableFrom(thingClass); thingClass = thingClass.getSuperclass())
+        {
+            for (String name : Arrays.asList(definedThing.getName(), definedThing.getShortName()))
+            {
+                if(name != null)
+                {
+                    this.stagedThingsByName.putIfAbsent(Pair.of(thingClass, GetCaseFoldedName(name)), thing);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets a value indicating whether the specified {@linkplain Thing} is staged in the current mapping pass
+     * 
+     * @param thing the {@linkplain Thing}
+     * @return a value indicating whether the {@linkplain Thing} is staged
+     */
+    protected boolean IsStaged(Thing thing)
+    {
+        return thing.getIid() != null && this.stagedThings.get(thing.getIid()) == thing;
+    }
+
+    /**
+     * Writes all the {@linkplain Thing}s staged during the current mapping pass in one transaction
+     * and refreshes the {@linkplain ReferenceDataLibrary} once, then makes the provided mapped {@linkplain Thing}s
+     * reference the {@linkplain Thing}s from the cache instead of the staged ones
+     * 
+     * @param mappedThings the {@linkplain Collection} of mapped {@linkplain Thing} that can reference staged {@linkplain Thing}s
+     * @return a value indicating whether the staged {@linkplain Thing}s have been successfully written
+     */
+    protected boolean CommitStagedReferenceDataLibraryThings(Collection<? extends Thing> mappedThings)
+    {
+        if(this.stagedThings.isEmpty())
+        {
+            this.ClearStagedReferenceDataLibraryThings();
+            return true;
+        }
+        
         try
         {
             ThingTransactionImpl transaction = new ThingTransactionImpl(
-                    TransactionContextResolver.resolveContext(clonedReferenceDataLibrary), clonedReferenceDataLibrary);
-            transaction.createOrUpdate(clonedReferenceDataLibrary);
-            transaction.createOrUpdate(thing);
+                    TransactionContextResolver.resolveContext(this.stagedReferenceDataLibrary), this.stagedReferenceDataLibrary);
+            
+            transaction.createOrUpdate(this.stagedReferenceDataLibrary);
 
-            this.hubController.Write(transaction);
-            this.hubController.RefreshReferenceDataLibrary(clonedReferenceDataLibrary);
+            for (Thing thing : this.stagedThings.values())
+            {
+                transaction.createOrUpdate(thing);
+            }
 
-            return this.hubController.TryGetThingFromChainOfRdlBy(x -> x.getIid().compareTo(thing.getIid()) == 0,
-                    refThing);
-        } catch (Exception exception)
+            this.hubController.Write(transaction);
+            this.GetMetrics().IncrementNumberOfHubRoundTrips();
+            this.hubController.RefreshReferenceDataLibrary(this.stagedReferenceDataLibrary);
+            this.GetMetrics().IncrementNumberOfHubRoundTrips();
+            this.referenceDataLibraryIndex.Invalidate();
+            
+            Map<UUID, Thing> committedThings = this.GetCommittedThings();
+            Set<Thing> visitedThings = Collections.newSetFromMap(new IdentityHashMap<>());
+            
+            for (Thing mappedThing : mappedThings)
+            {
+                this.ReplaceStagedThings(mappedThing, committedThings, visitedThings);
+            }
+            
+            return true;
+        } 
+        catch (Exception exception)
         {
-            this.logger.error(String.format("Could not create the %s because %s", thing.getClassKind(), exception));
+            this.logger.error(String.format("Could not create the %s staged reference data because %s", this.stagedThings.size(), exception));
             this.logger.catching(exception);
             return false;
         }
+        finally
+        {
+            this.ClearStagedReferenceDataLibraryThings();
+        }
+    }
+
+    /**
+     * Gets the written {@linkplain Thing}s from the refreshed chain of {@linkplain ReferenceDataLibrary} by the iid of the staged {@linkplain Thing}s
+     * 
+     * @return a {@linkplain Map} of iid and {@linkplain Thing} from the cache
+     */
+    @SuppressWarnings("unchecked")
+    private Map<UUID, Thing> GetCommittedThings()
+    {
+        Map<UUID, Thing> committedThings = new HashMap<>();
+        
+        for (Thing stagedThing : this.stagedThings.values())
+        {
+            Ref<Thing> refCommittedThing = new Ref<>((Class<Thing>)stagedThing.getClass());
+            
+            if(this.hubController.TryGetThingFromChainOfRdlBy(x -> x.getIid().compareTo(stagedThing.getIid()) == 0, refCommittedThing))
+            {
+                committedThings.put(stagedThing.getIid(), refCommittedThing.Get());
+            }
+            else
+            {
+                this.logger.warn(String.format("The %s %s could not be retrieved from the cache after it has been written", 
+                        stagedThing.getClassKind(), stagedThing.getIid()));
+            }
+        }
+        
+        return committedThings;
+    }
+
+    /**
+     * Replaces the references to staged {@linkplain Thing}s held by the provided mapped {@linkplain Thing}, 
+     * its {@linkplain Parameter}s, {@linkplain ElementUsage}s and {@linkplain BinaryRelationship}s by the written {@linkplain Thing}s
+     * 
+     * @param thing the mapped {@linkplain Thing}
+     * @param committedThings the {@linkplain Map} of iid and written {@linkplain Thing}
+     * @param visitedThings the {@linkplain Set} of {@linkplain Thing} already processed
+     */
+    private void ReplaceStagedThings(Thing thing, Map<UUID, Thing> committedThings, Set<Thing> visitedThings)
+    {
+        if(thing == null || !visitedThings.add(thing))
+        {
+            return;
+        }
+        
+        if(thing instanceof CategorizableThing)
+        {
+            List<Category> categories = ((CategorizableThing)thing).getCategory();
+            
+            for (int index = 0; index < categories.size(); index++)
+            {
+                categories.set(index, this.GetCommittedThing(categories.get(index), committedThings));
+            }
+        }
+        
+        if(thing instanceof Parameter)
+        {
+            Parameter parameter = (Parameter)thing;
+            parameter.setParameterType(this.GetCommittedThing(parameter.getParameterType(), committedThings));
+            parameter.setScale(this.GetCommittedThing(parameter.getScale(), committedThings));
+            parameter.getRelationships().forEach(x -> this.ReplaceStagedThings(x, committedThings, visitedThings));
+        }
+        else if(thing instanceof ElementDefinition)
+        {
+            ElementDefinition elementDefinition = (ElementDefinition)thing;
+            elementDefinition.getParameter().forEach(x -> this.ReplaceStagedThings(x, committedThings, visitedThings));
+            elementDefinition.getContainedElement().forEach(x -> this.ReplaceStagedThings(x, committedThings, visitedThings));
+            elementDefinition.getRelationships().forEach(x -> this.ReplaceStagedThings(x, committedThings, visitedThings));
+        }
+        else if(thing instanceof ElementUsage)
+        {
+            this.ReplaceStagedThings(((ElementUsage)thing).getElementDefinition(), committedThings, visitedThings);
+        }
+    }
+
+    /**
+     * Gets the written {@linkplain Thing} that replaces the provided one when it has been staged
+     * 
+     * @param <TThing> the type of {@linkplain Thing}
+     * @param thing the referenced {@linkplain Thing}
+     * @param committedThings the {@linkplain Map} of iid and written {@linkplain Thing}
+     * @return the written {@linkplain Thing} or the provided one
+     */
+    @SuppressWarnings("unchecked")
+    private <TThing extends Thing> TThing GetCommittedThing(TThing thing, Map<UUID, Thing> committedThings)
+    {
+        if(thing == null || thing.getIid() == null)
+        {
+            return thing;
+        }
+        
+        Thing committedThing = committedThings.get(thing.getIid());
+        return committedThing != null && thing.getClass().isInstance(committedThing) ? (TThing)committedThing : thing;
+    }
+
+    /**
+     * Discards the {@linkplain Thing}s staged during the current mapping pass
+     */
+    protected void ClearStagedReferenceDataLibraryThings()
+    {
+        this.stagedThings.clear();
+        this.stagedThingsByName.clear();
+        this.stagedReferenceDataLibrary = null;
+    }
+
+    /**
+     * Clones the provided {@linkplain Thing} without cloning its contained {@linkplain Thing}s. 
+     * The contained {@linkplain Thing}s that the rule mutates have to be cloned on their own
+     * 
+     * @param <TThing> the type of {@linkplain Thing}
+     * @param thing the {@linkplain Thing} to clone
+     * @return the clone
+     */
+    @SuppressWarnings("unchecked")
+    protected <TThing extends Thing> TThing CloneShallow(TThing thing)
+    {
+        this.GetMetrics().IncrementNumberOfClones();
+        return (TThing)thing.clone(false);
+    }
+
+    /**
+     * Clones the provided {@linkplain Parameter} and its {@linkplain ParameterValueSet}s, which are the contained {@linkplain Thing}s 
+     * updated when mapping a parameter
+     * 
+     * @param parameter the {@linkplain Parameter} to clone
+     * @return the clone
+     */
+    protected Parameter CloneForUpdate(Parameter parameter)
+    {
+        Parameter clone = this.CloneShallow(parameter);
+        
+        List<ParameterValueSet> valueSets = parameter.getValueSet().stream()
+                .map(x -> this.CloneShallow(x))
+                .collect(Collectors.toList());
+        
+        clone.getValueSet().clear();
+        clone.getValueSet().addAll(valueSets);
+        return clone;
+    }
+
+    /**
+     * Clones the provided {@linkplain ElementDefinition} and its {@linkplain ElementUsage}s, which are the contained {@linkplain Thing}s 
+     * transferred along with the {@linkplain ElementDefinition}. Its {@linkplain Parameter}s are cloned by {@linkplain #CloneForUpdate(Parameter)} when they get mapped
+     * 
+     * @param elementDefinition the {@linkplain ElementDefinition} to clone
+     * @return the clone
+     */
+    protected ElementDefinition CloneForUpdate(ElementDefinition elementDefinition)
+    {
+        ElementDefinition clone = this.CloneShallow(elementDefinition);
+        
+        List<ElementUsage> elementUsages = elementDefinition.getContainedElement().stream()
+                .map(x -> this.CloneShallow(x))
+                .collect(Collectors.toList());
+        
+        clone.getContainedElement().clear();
+        clone.getContainedElement().addAll(elementUsages);
+        return clone;
+    }
+
+    /**
+     * Gets the number of {@linkplain Thing}s cloned during the last mapping pass
+     * 
+     * @return an int
+     */
+    public int GetNumberOfClones()
+    {
+        return this.GetMetrics().GetNumberOfClones();
     }
 }
@@ -24,11 +24,15 @@
 package MappingRules;
 
 import static Utils.Operators.Operators.AreTheseEquals;
+import static Utils.Stereotypes.StereotypeUtils.GetCaseFoldedName;
 
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.UUID;
@@ -66,6 +70,7 @@ import HubController.IHubController;
 import MappingRules.Interfaces.IStateMappingRule;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Ref;
 import Utils.ValueSetUtils;
@@ -136,6 +141,31 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
      */
     private HashMap<UUID, UUID> selectedStatesAndParameter = new HashMap<>();
 
+    /**
+     * The {@linkplain HashMap} of the {@linkplain #elements} keyed by the lower-cased name of their {@linkplain Class}
+     */
+    private HashMap<String, MappedElementDefinitionRowViewModel> elementsByName = new HashMap<>();
+
+    /**
+     * The {@linkplain HashMap} of the {@linkplain #elements} keyed by the iid of their {@linkplain ElementDefinition}
+     */
+    private HashMap<UUID, MappedElementDefinitionRowViewModel> elementsByDefinitionIid = new HashMap<>();
+
+    /**
+     * The {@linkplain HashSet} of the iid of the {@linkplain ElementDefinition}s whose contained elements have been mapped during the current mapping pass
+     */
+    private HashSet<UUID> definitionsWithMappedContainedElements = new HashSet<>();
+
+    /**
+     * The number of contained element mappings that were avoided during the last mapping pass by reusing an already mapped {@linkplain ElementDefinition}
+     */
+    private int numberOfAvoidedContainedElementMappings;
+
+    /**
+     * The index of the {@linkplain Property}s of each {@linkplain Class} that entered the current mapping pass, keyed by lower-cased property name
+     */
+    private Map<Class, Map<String, Property>> propertiesByBlock = new IdentityHashMap<>();
+
     /**
      * Initializes a new {@linkplain ElementToClassMappingRule}
      * 
@@ -144,11 +174,12 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
      * @param transactionService the {@linkplain IMagicDrawTransactionService}
      * @param stateMappingRule the {@linkplain IStateMappingRule}
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
     public ElementToBlockMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration,
-            IMagicDrawTransactionService transactionService, IStateMappingRule stateMappingRule, IStereotypeService stereotypeService)
+            IMagicDrawTransactionService transactionService, IStateMappingRule stateMappingRule, IStereotypeService stereotypeService, IMappingMetricsService metricsService)
     {
-        super(hubController, mappingConfiguration, transactionService, stereotypeService);
+        super(hubController, mappingConfiguration, transactionService, stereotypeService, metricsService);
         this.stateMappingRule = stateMappingRule;
     }
     
@@ -159,7 +190,7 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
      * @return the {@linkplain ArrayList} of {@linkplain MappedElementDefinitionRowViewModel}
      */
     @Override
-    public ArrayList<MappedElementDefinitionRowViewModel> Transform(Object input)
+    protected ArrayList<MappedElementDefinitionRowViewModel> TransformInput(Object input)
     {
         try
         {
@@ -187,9 +218,23 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
             this.portsToConnect.clear();
             this.temporaryInterfaces.clear();
             this.selectedStatesAndParameter.clear();
+            this.elementsByName.clear();
+            this.elementsByDefinitionIid.clear();
+            this.definitionsWithMappedContainedElements.clear();
+            this.propertiesByBlock.clear();
         }
     }
     
+    /**
+     * Gets the number of contained element mappings that were avoided during the last mapping pass by reusing an already mapped {@linkplain ElementDefinition}
+     * 
+     * @return an int
+     */
+    public int GetNumberOfAvoidedContainedElementMappings()
+    {
+        return this.numberOfAvoidedContainedElementMappings;
+    }
+    
     /**
      * Saves the selected {@linkplain ActualFiniteState}
      * 
@@ -210,24 +255,75 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
      * @param mappedElementDefinitions the collection of {@linkplain Class} to map
      */
     private void Map(HubElementCollection mappedElementDefinitions)
-    {        
+    {
+        this.numberOfAvoidedContainedElementMappings = 0;
+        
+        for (MappedElementDefinitionRowViewModel mappedElement : mappedElementDefinitions)
+        {
+            this.AddToIndex(mappedElement);
+        }
+        
         for (MappedElementDefinitionRowViewModel mappedElement : new ArrayList<MappedElementDefinitionRowViewModel>(mappedElementDefinitions))
         {
             if(mappedElement.GetDstElement() == null)
             {
                 Class element = this.GetOrCreateElement(mappedElement.GetHubElement());
                 mappedElement.SetDstElement(element);
+                this.AddToIndex(mappedElement);
+            }
+            
+            if(this.ShouldMapContainedElements(mappedElement.GetHubElement()))
+            {
+                this.MapContainedElement(mappedElement);
             }
             
-            this.MapContainedElement(mappedElement);
             this.MapProperties(mappedElement.GetHubElement(), mappedElement.GetDstElement(), x -> mappedElement.GetSelectedActualFiniteStateFor(x));
             this.MapPort(mappedElement);
             this.MapStereotypes(mappedElement);
         }
 
+        this.logger.debug(String.format("%s contained element mappings were avoided by reusing the already mapped element definitions", 
+                this.numberOfAvoidedContainedElementMappings));
+        
         this.ConnectPorts();
     }
     
+    /**
+     * Adds the provided {@linkplain MappedElementDefinitionRowViewModel} to the indexes of the {@linkplain #elements}
+     * 
+     * @param mappedElement the {@linkplain MappedElementDefinitionRowViewModel}
+     */
+    private void AddToIndex(MappedElementDefinitionRowViewModel mappedElement)
+    {
+        if(mappedElement.GetHubElement() != null && mappedElement.GetHubElement().getIid() != null)
+        {
+            this.elementsByDefinitionIid.putIfAbsent(mappedElement.GetHubElement().getIid(), mappedElement);
+        }
+        
+        if(mappedElement.GetDstElement() != null)
+        {
+            this.elementsByName.putIfAbsent(GetCaseFoldedName(mappedElement.GetDstElement().getName()), mappedElement);
+        }
+    }
+    
+    /**
+     * Verifies that the contained elements of the provided {@linkplain ElementDefinition} have not yet been mapped during the current mapping pass,
+     * and marks them as mapped
+     * 
+     * @param elementDefinition the {@linkplain ElementDefinition}
+     * @return a value indicating whether the contained elements of the provided {@linkplain ElementDefinition} should be mapped
+     */
+    private boolean ShouldMapContainedElements(ElementDefinition elementDefinition)
+    {
+        if(elementDefinition.getIid() == null || this.definitionsWithMappedContainedElements.add(elementDefinition.getIid()))
+        {
+            return true;
+        }
+        
+        this.numberOfAvoidedContainedElementMappings++;
+        return false;
+    }
+    
     /**
      * Maps the {@linkplain Stereotype}s represented by means of applied {@linkplain Category}
      * 
@@ -284,7 +380,7 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
 	{
 		Ref<Usage> refRelation = new Ref<>(Usage.class);
 		
-		if(!this.dstController.TryGetElementBy(x -> x instanceof Usage 
+		if(!this.TryGetElementBy(x -> x instanceof Usage 
 		        && x.getTarget().stream().anyMatch(r -> AreTheseEquals(r.getID(), refInterface.Get().getID()))
 		        && x.getSource().stream().anyMatch(r -> AreTheseEquals(x.getID(), portType.getID())), refRelation))
 		{
@@ -331,7 +427,7 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
     {
         refInterface.Set(this.temporaryInterfaces.get(relationship.getIid()));
         
-        if(!refInterface.HasValue() && !this.dstController.TryGetElementBy(
+        if(!refInterface.HasValue() && !this.TryGetElementBy(
                 x -> x instanceof Interface && AreTheseEquals(relationship.getName(), x.getName(), true), refInterface))
         {
             Interface newInterface = this.transactionService.Create(Interface.class, relationship.getName());
@@ -357,6 +453,7 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
                 {
                     Property newPartProperty = this.transactionService.Create(Stereotypes.PartProperty, element.getName());
                     parent.getOwnedAttribute().add(newPartProperty);
+                    this.AddToPropertyIndex(parent, newPartProperty);
                     return newPartProperty;
                 });
         
@@ -413,6 +510,7 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
                 this.GetOrCreateDataType(parameter, refParameterType);                             
                 this.CreateProperty(parameter, refProperty, refParameterType);
                 element.getOwnedAttribute().add(refProperty.Get());
+                this.AddToPropertyIndex(element, refProperty.Get());
             }
             
             if(refProperty.Get().getType() != null)
@@ -468,7 +566,7 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
     {
         this.QueryCollectionByNameAndShortName(parameterType, this.temporaryDataTypes, refDataTypeType);
         
-        if(!refDataTypeType.HasValue() && !this.dstController.TryGetDataType(parameterType, null, refDataTypeType))
+        if(!refDataTypeType.HasValue() && !this.TryGetDataType(parameterType, null, refDataTypeType))
         {
             DataType newDataType = this.transactionService.Create(Stereotypes.ValueType, parameterType.getName());
             
@@ -508,7 +606,7 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
     {
         this.QueryCollectionByNameAndShortName(scale, this.temporaryDataTypes, refDataType);
         
-        if(!refDataType.HasValue() && !this.dstController.TryGetDataType(parameterType, scale, refDataType))
+        if(!refDataType.HasValue() && !this.TryGetDataType(parameterType, scale, refDataType))
         {
             DataType newDataType = this.transactionService.Create(Stereotypes.ValueType, parameterType.getName());
             
@@ -546,7 +644,7 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
 
         this.QueryCollectionByNameAndShortName(unit, this.temporaryUnits, refUnit);
         
-        if(!refUnit.HasValue() && !this.dstController.TryGetUnit(unit, refUnit))
+        if(!refUnit.HasValue() && !this.TryGetUnit(unit, refUnit))
         {
             InstanceSpecification newUnit = this.transactionService.Create(Stereotypes.Unit, unit.getName());
             refUnit.Set(newUnit);
@@ -691,19 +789,52 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
      */
     private boolean TryGetExistingProperty(Class dstElement, ParameterOrOverrideBase parameter, Ref<Property> refProperty)
     {
-        Optional<Property> optionalProperty = dstElement.getOwnedAttribute().stream()
-                .filter(x -> AreTheseEquals(x.getName(), parameter.getParameterType().getName(), true)
-                        || AreTheseEquals(x.getName(), parameter.getParameterType().getShortName(), true))
-                .findFirst();
+        Map<String, Property> properties = this.GetPropertyIndex(dstElement);
         
-        if(optionalProperty.isPresent())
+        Property property = properties.get(GetCaseFoldedName(parameter.getParameterType().getName()));
+        
+        if(property == null)
         {
-            refProperty.Set(optionalProperty.get());
+            property = properties.get(GetCaseFoldedName(parameter.getParameterType().getShortName()));
         }
         
+        refProperty.Set(property);
         return refProperty.HasValue();
     }
 
+    /**
+     * Gets the index of the {@linkplain Property}s of the provided {@linkplain Class}, building it the first time the {@linkplain Class} 
+     * is queried during the current mapping pass
+     * 
+     * @param block the {@linkplain Class}
+     * @return a {@linkplain Map} of {@linkplain Property} keyed by lower-cased property name
+     */
+    private Map<String, Property> GetPropertyIndex(Class block)
+    {
+        return this.propertiesByBlock.computeIfAbsent(block, x -> 
+        {
+            Map<String, Property> properties = new HashMap<>();
+            
+            for (Property property : x.getOwnedAttribute())
+            {
+                properties.putIfAbsent(GetCaseFoldedName(property.getName()), property);
+            }
+            
+            return properties;
+        });
+    }
+
+    /**
+     * Adds the provided {@linkplain Property} newly owned by the provided {@linkplain Class} to the index of its {@linkplain Property}s
+     * 
+     * @param block the {@linkplain Class}
+     * @param property the new {@linkplain Property}
+     */
+    private void AddToPropertyIndex(Class block, Property property)
+    {
+        this.GetPropertyIndex(block).putIfAbsent(GetCaseFoldedName(property.getName()), property);
+    }
+
     /**
      * Maps the contained element of the provided {@linkplain MappedElementDefinitionRowViewModel} dst element
      * 
@@ -714,24 +845,37 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
         for (ElementUsage containedUsage : mappedElement.GetHubElement().getContainedElement().stream()
                 .filter(x -> x.getInterfaceEnd() == InterfaceEndKind.NONE).collect(Collectors.toList()))
         {
-            MappedElementDefinitionRowViewModel usageDefinitionMappedElement = this.elements.stream()
-                    .filter(x -> AreTheseEquals(x.GetDstElement().getName(), containedUsage.getElementDefinition().getName(), true))
-                    .findFirst()
+            ElementDefinition usageDefinition = containedUsage.getElementDefinition();
+            
+            MappedElementDefinitionRowViewModel usageDefinitionMappedElement = Optional.ofNullable(usageDefinition.getIid())
+                    .map(x -> this.elementsByDefinitionIid.get(x))
+                    .orElseGet(() -> Optional.ofNullable(this.elementsByName.get(GetCaseFoldedName(usageDefinition.getName())))
                     .orElseGet(() -> 
                     {
-                        MappedElementDefinitionRowViewModel newMappedElement = new MappedElementDefinitionRowViewModel(containedUsage.getElementDefinition(),
+                        MappedElementDefinitionRowViewModel newMappedElement = new MappedElementDefinitionRowViewModel(usageDefinition,
                                 this.GetOrCreateElement(containedUsage), MappingDirection.FromHubToDst);
                         
                         this.elements.add(newMappedElement);
+                        this.AddToIndex(newMappedElement);
                         return newMappedElement;
-                    });
+                    }));
+            
+            if(usageDefinitionMappedElement.GetDstElement() == null)
+            {
+                usageDefinitionMappedElement.SetDstElement(this.GetOrCreateElement(usageDefinition));
+                this.AddToIndex(usageDefinitionMappedElement);
+            }
             
             this.MapProperties(containedUsage, usageDefinitionMappedElement.GetDstElement(), 
                     x -> usageDefinitionMappedElement.GetSelectedActualFiniteStateFor(x));
             
-            this.MapPort(usageDefinitionMappedElement);
             this.UpdateContainement(mappedElement.GetDstElement(), usageDefinitionMappedElement.GetDstElement());
-            this.MapContainedElement(usageDefinitionMappedElement);
+            
+            if(this.ShouldMapContainedElements(usageDefinition))
+            {
+                this.MapPort(usageDefinitionMappedElement);
+                this.MapContainedElement(usageDefinitionMappedElement);
+            }
         }        
     }
 
@@ -817,14 +961,14 @@ public class ElementToBlockMappingRule extends HubToDstBaseMappingRule<HubElemen
         
         Ref<Class> refElement = new Ref<>(Class.class);
         
-        if(!this.dstController.TryGetElementBy(x -> x instanceof NamedElement && 
+        if(!this.TryGetElementBy(x -> x instanceof NamedElement && 
                 AreTheseEquals(((NamedElement) x).getName(), hubElementName, true), refElement))
         {
             refElement.Set(this.transactionService.Create(Stereotypes.Block, hubElementName));
         }
         else
         {
-            refElement.Set(this.transactionService.CloneElement(refElement.Get()));
+            refElement.Set(this.CloneElement(refElement.Get()));
         }
         
         
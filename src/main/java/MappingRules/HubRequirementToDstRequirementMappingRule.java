@@ -39,6 +39,7 @@ import Enumerations.MappingDirection;
 import HubController.IHubController;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Ref;
 import Utils.Stereotypes.HubRequirementCollection;
@@ -77,11 +78,12 @@ public class HubRequirementToDstRequirementMappingRule extends HubToDstBaseMappi
      * @param mappingConfiguration the {@linkplain IMagicDrawMappingConfigurationService}
      * @param transactionService the {@linkplain IMagicDrawTransactionService}
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
     public HubRequirementToDstRequirementMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, 
-            IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService)
+            IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService, IMappingMetricsService metricsService)
     {
-        super(hubController, mappingConfiguration, transactionService, stereotypeService);
+        super(hubController, mappingConfiguration, transactionService, stereotypeService, metricsService);
     }
     
     /**
@@ -91,7 +93,7 @@ public class HubRequirementToDstRequirementMappingRule extends HubToDstBaseMappi
      * @return the {@linkplain ArrayList} of {@linkplain MappedDstRequirementRowViewModel}
      */
     @Override
-    public ArrayList<MappedRequirementRowViewModel> Transform(Object input)
+    protected ArrayList<MappedRequirementRowViewModel> TransformInput(Object input)
     {
         try
         {
@@ -197,7 +199,7 @@ public class HubRequirementToDstRequirementMappingRule extends HubToDstBaseMappi
     {
         Ref<Class> refElement = new Ref<>(Class.class);
         
-        if(!this.dstController.TryGetElementBy(x -> x instanceof NamedElement && 
+        if(!this.TryGetElementBy(x -> x instanceof NamedElement && 
                 AreTheseEquals(((NamedElement) x).getName(), hubRequirement.getName(), true), refElement))
         {        
             Class newRequirement = this.transactionService.Create(Stereotypes.Requirement, hubRequirement.getName());
@@ -205,7 +207,7 @@ public class HubRequirementToDstRequirementMappingRule extends HubToDstBaseMappi
         }
         else
         {
-            refElement.Set(this.transactionService.CloneElement(refElement.Get()));
+            refElement.Set(this.CloneElement(refElement.Get()));
         }
         
         return refElement.Get();
@@ -320,7 +322,7 @@ public class HubRequirementToDstRequirementMappingRule extends HubToDstBaseMappi
         }
         else
         {
-            if(!this.dstController.TryGetElementBy(x -> x instanceof NamedElement && 
+            if(!this.TryGetElementBy(x -> x instanceof NamedElement && 
                     AreTheseEquals(((NamedElement) x).getName(), thingContainer.getName(), true), refElement))
             {        
                 Package newRequirementsPackage = this.transactionService.Create(Package.class, thingContainer.getName());
@@ -329,7 +331,7 @@ public class HubRequirementToDstRequirementMappingRule extends HubToDstBaseMappi
             }
             else
             {
-                refElement.Set(this.transactionService.CloneElement(refElement.Get()));
+                refElement.Set(this.CloneElement(refElement.Get()));
             }
         }
         
@@ -23,11 +23,23 @@
  */
 package MappingRules;
 
+import java.util.function.Predicate;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.DataType;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.InstanceSpecification;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
+
 import DstController.IDstController;
 import HubController.IHubController;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
 import Services.Stereotype.IStereotypeService;
+import Utils.Ref;
+import cdp4common.sitedirectorydata.MeasurementScale;
+import cdp4common.sitedirectorydata.MeasurementUnit;
+import cdp4common.sitedirectorydata.ParameterType;
 
 /**
  * The HubToDstBaseMappingRule is the mapping rule for rules that maps from the HUB to DST
@@ -54,11 +66,67 @@ public abstract class HubToDstBaseMappingRule<TInput extends Object, TOutput> ex
      * @param mappingConfiguration the {@linkplain IMagicDrawMappingConfigurationService}
      * @param transactionService the {@linkplain ICapellaTransactionService}
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
     protected HubToDstBaseMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, 
-            IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService)
+            IMagicDrawTransactionService transactionService, IStereotypeService stereotypeService, IMappingMetricsService metricsService)
     {
-        super(hubController, mappingConfiguration, stereotypeService);
+        super(hubController, mappingConfiguration, stereotypeService, metricsService);
         this.transactionService = transactionService;
-    }    
+    }
+    
+    /**
+     * Tries to get an element from the MagicDraw project that matches the provided {@linkplain Predicate}, going through all the elements of the project
+     * 
+     * @param <TElement> the type of element
+     * @param predicate the {@linkplain Predicate} to verify
+     * @param refElement the {@linkplain Ref} of {@linkplain #TElement}
+     * @return a value indicating whether the element has been found
+     */
+    protected <TElement extends NamedElement> boolean TryGetElementBy(Predicate<TElement> predicate, Ref<TElement> refElement)
+    {
+        this.GetMetrics().IncrementNumberOfFullModelScans();
+        return this.dstController.TryGetElementBy(predicate, refElement);
+    }
+    
+    /**
+     * Tries to get the {@linkplain DataType} of the MagicDraw project that matches the provided {@linkplain ParameterType} and {@linkplain MeasurementScale}, 
+     * going through all the data types of the project
+     * 
+     * @param parameterType the {@linkplain ParameterType}
+     * @param scale the {@linkplain MeasurementScale}
+     * @param refDataType the {@linkplain Ref} of {@linkplain DataType}
+     * @return a value indicating whether the {@linkplain DataType} has been found
+     */
+    protected boolean TryGetDataType(ParameterType parameterType, MeasurementScale scale, Ref<DataType> refDataType)
+    {
+        this.GetMetrics().IncrementNumberOfFullModelScans();
+        return this.dstController.TryGetDataType(parameterType, scale, refDataType);
+    }
+    
+    /**
+     * Tries to get the unit of the MagicDraw project that matches the provided {@linkplain MeasurementUnit}, going through all the units of the project
+     * 
+     * @param unit the {@linkplain MeasurementUnit}
+     * @param refUnit the {@linkplain Ref} of {@linkplain InstanceSpecification}
+     * @return a value indicating whether the unit has been found
+     */
+    protected boolean TryGetUnit(MeasurementUnit unit, Ref<InstanceSpecification> refUnit)
+    {
+        this.GetMetrics().IncrementNumberOfFullModelScans();
+        return this.dstController.TryGetUnit(unit, refUnit);
+    }
+    
+    /**
+     * Clones the provided element through the {@linkplain IMagicDrawTransactionService}
+     * 
+     * @param <TElement> the type of element
+     * @param original the original element
+     * @return the clone
+     */
+    protected <TElement extends Element> TElement CloneElement(TElement original)
+    {
+        this.GetMetrics().IncrementNumberOfClones();
+        return this.transactionService.CloneElement(original);
+    }
 }
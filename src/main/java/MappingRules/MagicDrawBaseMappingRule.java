@@ -26,6 +26,10 @@ package MappingRules;
 import java.util.Collection;
 import java.util.Map.Entry;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.time.StopWatch;
+import org.apache.commons.lang3.tuple.Pair;
 
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
 
@@ -33,6 +37,8 @@ import Enumerations.MappingDirection;
 import HubController.IHubController;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
 import Services.MappingEngineService.MappingRule;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.MappingMetrics.MappingRuleMetrics;
 import Services.Stereotype.IStereotypeService;
 import ViewModels.Rows.MappedElementDefinitionRowViewModel;
 import ViewModels.Rows.MappedElementRowViewModel;
@@ -62,32 +68,122 @@ public abstract class MagicDrawBaseMappingRule<TInput extends Object, TOutput> e
      */
     protected final IMagicDrawMappingConfigurationService mappingConfiguration;
     
+    /**
+     * The {@linkplain IMappingMetricsService} where the {@linkplain MappingRuleMetrics} of each invocation are registered
+     */
+    protected final IMappingMetricsService metricsService;
+    
+    /**
+     * Backing field for {@linkplain #GetMetrics()}
+     */
+    private MappingRuleMetrics metrics = new MappingRuleMetrics(this.getClass().getSimpleName(), 0);
+    
     /**
      * Initializes a new {@linkplain DstToHubBaseMappingRule}
      * 
      * @param hubController the {@linkplain IHubController}
      * @param mappingConfiguration the {@linkplain IMagicDrawMappingConfigurationService}
      * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param metricsService the {@linkplain IMappingMetricsService}
      */
-    protected MagicDrawBaseMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, IStereotypeService stereotypeService)
+    protected MagicDrawBaseMappingRule(IHubController hubController, IMagicDrawMappingConfigurationService mappingConfiguration, IStereotypeService stereotypeService,
+            IMappingMetricsService metricsService)
     {
         this.hubController = hubController;
         this.mappingConfiguration = mappingConfiguration;
         this.stereotypeService = stereotypeService;
+        this.metricsService = metricsService;
+    }
+    
+    /**
+     * Transforms the provided input and measures the invocation, the transformation itself is implemented by {@linkplain #TransformInput(Object)}
+     * 
+     * @param input the input to transform
+     * @return the {@linkplain #TOutput} output
+     */
+    @Override
+    public TOutput Transform(Object input)
+    {
+        this.metrics = new MappingRuleMetrics(this.getClass().getSimpleName(), GetCount(input));
+        StopWatch timer = StopWatch.createStarted();
+        TOutput output = null;
+        
+        try
+        {
+            output = this.TransformInput(input);
+            return output;
+        }
+        finally
+        {
+            timer.stop();
+            this.metrics.Complete(GetCount(output), timer.getTime(TimeUnit.MILLISECONDS));
+            this.RegisterMetrics();
+        }
+    }
+    
+    /**
+     * Transforms the provided input
+     * 
+     * @param input the input to transform
+     * @return the {@linkplain #TOutput} output
+     */
+    protected abstract TOutput TransformInput(Object input);
+    
+    /**
+     * Gets the {@linkplain MappingRuleMetrics} of the current or of the last invocation of this mapping rule
+     * 
+     * @return the {@linkplain MappingRuleMetrics}
+     */
+    public MappingRuleMetrics GetMetrics()
+    {
+        return this.metrics;
+    }
+    
+    /**
+     * Registers the {@linkplain MappingRuleMetrics} of the last invocation in the {@linkplain IMappingMetricsService}
+     */
+    private void RegisterMetrics()
+    {
+        this.metricsService.Register(this.metrics);
+    }
+    
+    /**
+     * Gets the number of things held by the provided input or output
+     * 
+     * @param value the input or output of this mapping rule
+     * @return an int
+     */
+    private static int GetCount(Object value)
+    {
+        if(value instanceof Collection)
+        {
+            return ((Collection<?>)value).size();
+        }
+        
+        if(value instanceof Pair && ((Pair<?, ?>)value).getRight() instanceof Collection)
+        {
+            return ((Collection<?>)((Pair<?, ?>)value).getRight()).size();
+        }
+        
+        return value == null ? 0 : 1;
     }
     
     /**
-     * Saves the mapping configuration
+     * Saves the mapping configuration, the {@linkplain IMagicDrawMappingConfigurationService} is shared by the rules
+     * that map groups of elements concurrently hence the entries are added while holding its lock
      * 
      * @param elements the {@linkplain Collection} of {@linkplain MappedElementRowViewModel} from which the DST element extends {@linkplain Class}
      * @param mappingDirection the {@linkplain MappingDirection} that applies to the provided mapped element 
      */
     protected void SaveMappingConfiguration(Collection<? extends MappedElementRowViewModel<? extends Thing, ? extends Class>> elements, MappingDirection mappingDirection)
     {
-        for (MappedElementRowViewModel<? extends Thing, ? extends Class> element : elements)
+        synchronized(this.mappingConfiguration)
         {
-            this.mappingConfiguration.AddToExternalIdentifierMap(
-                    element.GetHubElement().getIid(), element.GetDstElement().getID(), mappingDirection);
+            for (MappedElementRowViewModel<? extends Thing, ? extends Class> element : elements)
+            {
+                this.mappingConfiguration.AddToExternalIdentifierMap(
+                        element.GetHubElement().getIid(), element.GetDstElement().getID(), mappingDirection);
+            }
         }
     }
 }
@@ -25,11 +25,16 @@ package MappingRules;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -100,6 +105,27 @@ public class StateMappingRule implements IStateMappingRule
      */
     private ArrayList<State> createdStates = new ArrayList<>();
 
+    /**
+     * The {@linkplain ActualFiniteStateList}s computed during one mapping process keyed by the ordered iids of their {@linkplain PossibleFiniteStateList}s
+     */
+    private HashMap<List<UUID>, ActualFiniteStateList> actualFiniteStateListsOfThisPass = new HashMap<>();
+
+    /**
+     * The first project {@linkplain State} of each case-folded name along with its position among the project {@linkplain State}s, 
+     * built on the first lookup of one mapping process
+     */
+    private HashMap<String, Pair<Integer, State>> projectStatesByName = new HashMap<>();
+
+    /**
+     * The first {@linkplain State} created during one mapping process of each case-folded name along with its position in {@linkplain #createdStates}
+     */
+    private HashMap<String, Pair<Integer, State>> createdStatesByName = new HashMap<>();
+
+    /**
+     * A value indicating whether the {@linkplain #projectStatesByName} has been built during the current mapping process
+     */
+    private boolean areProjectStatesIndexed;
+
     /**
      * Initializes a new {@linkplain StateMappingRule}
      * 
@@ -124,6 +150,10 @@ public class StateMappingRule implements IStateMappingRule
         this.createdActualFiniteStateLists.clear();
         this.createdPossibleFiniteStateLists.clear();
         this.createdStates.clear();
+        this.actualFiniteStateListsOfThisPass.clear();
+        this.projectStatesByName.clear();
+        this.createdStatesByName.clear();
+        this.areProjectStatesIndexed = false;
     }
 
     /**
@@ -198,6 +228,15 @@ public class StateMappingRule implements IStateMappingRule
     private ActualFiniteStateList GetOrCreateActualFiniteStateList(
             ArrayList<PossibleFiniteStateList> possibleFiniteStateListCollection)
     {
+        List<UUID> key = possibleFiniteStateListCollection.stream().map(x -> x.getIid()).collect(Collectors.toList());
+        
+        ActualFiniteStateList actualFiniteStateListOfThisPass = this.actualFiniteStateListsOfThisPass.get(key);
+        
+        if (actualFiniteStateListOfThisPass != null)
+        {
+            return actualFiniteStateListOfThisPass;
+        }
+        
         Ref<ActualFiniteStateList> refActualFiniteStateList = new Ref<>(ActualFiniteStateList.class);
 
         if (this.TryGetActualFiniteStateListFromCollection(
@@ -219,66 +258,102 @@ public class StateMappingRule implements IStateMappingRule
         }
 
         this.UpdateActualFiniteStateList(refActualFiniteStateList.Get());
+        this.actualFiniteStateListsOfThisPass.put(key, refActualFiniteStateList.Get());
         return refActualFiniteStateList.Get();
     }
 
     /**
      * Update the {@linkplain ActualFiniteStateList} to apply change on the
-     * NetChangePreview.
+     * NetChangePreview. The {@linkplain ActualFiniteState}s that already combine the same {@linkplain PossibleFiniteState}s are reused.
      * 
      * @param actualFiniteStateList The {@linkplain ActualFiniteStateList} to update
      */
     private void UpdateActualFiniteStateList(ActualFiniteStateList actualFiniteStateList)
     {
-        List<ArrayList<PossibleFiniteState>> combinations = this
-                .GetAllPossibleCombinations(actualFiniteStateList.getPossibleFiniteStateList());
+        HashMap<HashSet<UUID>, ActualFiniteState> existingActualFiniteStates = new HashMap<>();
+
+        for (ActualFiniteState actualFiniteState : actualFiniteStateList.getActualState())
+        {
+            existingActualFiniteStates.putIfAbsent(this.GetPossibleStateKey(actualFiniteState.getPossibleState()), actualFiniteState);
+        }
 
+        List<List<PossibleFiniteState>> allPossibleFiniteStates = actualFiniteStateList.getPossibleFiniteStateList().stream()
+                .map(x -> new ArrayList<PossibleFiniteState>(x.getPossibleState()))
+                .collect(Collectors.toList());
+        
         actualFiniteStateList.getActualState().clear();
 
-        for (Collection<PossibleFiniteState> combination : combinations)
+        if (allPossibleFiniteStates.isEmpty() || allPossibleFiniteStates.stream().anyMatch(x -> x.isEmpty()))
+        {
+            return;
+        }
+
+        int[] indexes = new int[allPossibleFiniteStates.size()];
+        int numberOfReusedActualFiniteStates = 0;
+
+        do
         {
-            ActualFiniteState actualFiniteState = new ActualFiniteState();
-            actualFiniteState.setIid(UUID.randomUUID());
+            ArrayList<PossibleFiniteState> combination = new ArrayList<>(indexes.length);
 
-            for (PossibleFiniteState possibleFiniteState : combination)
+            for (int listIndex = 0; listIndex < indexes.length; listIndex++)
             {
-                actualFiniteState.getPossibleState().add(possibleFiniteState);
+                combination.add(allPossibleFiniteStates.get(listIndex).get(indexes[listIndex]));
+            }
+
+            ActualFiniteState actualFiniteState = existingActualFiniteStates.remove(this.GetPossibleStateKey(combination));
+
+            if (actualFiniteState != null)
+            {
+                numberOfReusedActualFiniteStates++;
+            }
+            else
+            {
+                actualFiniteState = new ActualFiniteState();
+                actualFiniteState.setIid(UUID.randomUUID());
+                actualFiniteState.getPossibleState().addAll(combination);
             }
 
             actualFiniteStateList.getActualState().add(actualFiniteState);
         }
+        while (this.MoveToNextCombination(indexes, allPossibleFiniteStates));
+
+        this.logger.debug(String.format("%s ActualFiniteStates of %s were reused", numberOfReusedActualFiniteStates, actualFiniteStateList.getIid()));
     }
 
     /**
-     * Generates all possible combination crossing all {@linkplain PossibleFiniteState} from all {@linkplain PossibleFiniteStateList}
+     * Moves the provided indexes to the next combination of the cartesian product of the provided {@linkplain PossibleFiniteState}s,
+     * the last {@linkplain PossibleFiniteStateList} varying the fastest
      * 
-     * @param possibleFiniteStateLists A collection of {@linkplain PossibleFiniteStateList}
-     * @return A collection of {@linkplain PossibleFiniteState}
+     * @param indexes the index of the current {@linkplain PossibleFiniteState} in each {@linkplain PossibleFiniteStateList}
+     * @param allPossibleFiniteStates the {@linkplain PossibleFiniteState}s of each {@linkplain PossibleFiniteStateList}
+     * @return a value indicating whether there is a next combination
      */
-    private List<ArrayList<PossibleFiniteState>> GetAllPossibleCombinations(
-            Collection<PossibleFiniteStateList> possibleFiniteStateLists)
+    private boolean MoveToNextCombination(int[] indexes, List<List<PossibleFiniteState>> allPossibleFiniteStates)
     {
-        ArrayList<Collection<PossibleFiniteState>> allPossibleFiniteState = new ArrayList<>();
-
-        for (PossibleFiniteStateList possibleFiniteStateList : possibleFiniteStateLists)
+        for (int listIndex = indexes.length - 1; listIndex >= 0; listIndex--)
         {
-            allPossibleFiniteState.add(possibleFiniteStateList.getPossibleState());
-        }
-
-        List<ArrayList<PossibleFiniteState>> combinations = new ArrayList<>();
-        combinations.add(new ArrayList<>());
+            if (++indexes[listIndex] < allPossibleFiniteStates.get(listIndex).size())
+            {
+                return true;
+            }
 
-        for (Collection<PossibleFiniteState> possibleFiniteStates : allPossibleFiniteState)
-        {
-            combinations = combinations.stream().flatMap(x -> possibleFiniteStates.stream().map(p -> {
-                @SuppressWarnings("unchecked")
-                ArrayList<PossibleFiniteState> newList = (ArrayList<PossibleFiniteState>) x.clone();
-                newList.add(p);
-                return newList;
-            })).collect(Collectors.toList());
+            indexes[listIndex] = 0;
         }
 
-        return combinations;
+        return false;
+    }
+
+    /**
+     * Gets the key that identifies an {@linkplain ActualFiniteState} by the iids of its {@linkplain PossibleFiniteState}s
+     * 
+     * @param possibleFiniteStates the {@linkplain PossibleFiniteState}s
+     * @return a {@linkplain HashSet} of {@linkplain UUID}
+     */
+    private HashSet<UUID> GetPossibleStateKey(Collection<PossibleFiniteState> possibleFiniteStates)
+    {
+        return possibleFiniteStates.stream()
+                .map(x -> x.getIid())
+                .collect(Collectors.toCollection(HashSet::new));
     }
 
     /**
@@ -517,26 +592,80 @@ public class StateMappingRule implements IStateMappingRule
                 .findFirst();
 
         if(!optionalState.isPresent())
-        {        
-            return StreamExtensions.OfType(this.sessionService.GetProjectElements().stream(), StateMachine.class)
-                            .flatMap(x -> x.getRegion().stream())
-                            .flatMap(x -> StreamExtensions.OfType(x.getOwnedElement().stream(), State.class))
-                            .filter(x -> namePredicate.test(x))
-                            .findFirst()
-                            .orElseGet(() -> this.createdStates.stream()
-                                    .filter(x -> namePredicate.test(x))
-                                    .findFirst()
-                                    .orElseGet(() ->
-                                    {
-                                        State newState = this.transactionService.Create(State.class, possibleFiniteState.getName());                                        
-                                        this.createdStates.add(newState);
-                                        return newState;
-                                    }));
+        {
+            return this.GetFirstState(this.GetProjectStatesByName(), possibleFiniteState)
+                    .orElseGet(() -> this.GetFirstState(this.createdStatesByName, possibleFiniteState)
+                    .orElseGet(() ->
+                    {
+                        State newState = this.transactionService.Create(State.class, possibleFiniteState.getName());
+                        this.createdStates.add(newState);
+                        this.AddToStatesByName(this.createdStatesByName, newState, this.createdStates.size() - 1);
+                        return newState;
+                    }));
         }
         
         return optionalState.get();
     }
 
+    /**
+     * Gets the {@linkplain State} that comes first among the provided indexed {@linkplain State}s and that has its name equal to 
+     * the name or to the short name of the provided {@linkplain PossibleFiniteStateList}, ignoring the case
+     * 
+     * @param statesByName the indexed {@linkplain State}s
+     * @param possibleFiniteStateList the {@linkplain PossibleFiniteStateList}
+     * @return an {@linkplain Optional} of {@linkplain State}
+     */
+    private Optional<State> GetFirstState(HashMap<String, Pair<Integer, State>> statesByName, PossibleFiniteStateList possibleFiniteStateList)
+    {
+        return Stream.of(possibleFiniteStateList.getName(), possibleFiniteStateList.getShortName())
+                .filter(Objects::nonNull)
+                .map(x -> statesByName.get(StereotypeUtils.GetCaseFoldedName(x)))
+                .filter(Objects::nonNull)
+                .min(Comparator.comparing(x -> x.getLeft()))
+                .map(Pair::getRight);
+    }
+
+    /**
+     * Gets the {@linkplain State}s of the regions of the project {@linkplain StateMachine}s indexed by name, 
+     * building the index the first time it is queried during the current mapping process
+     * 
+     * @return a {@linkplain HashMap} of case-folded name and {@linkplain Pair} of position and {@linkplain State}
+     */
+    private HashMap<String, Pair<Integer, State>> GetProjectStatesByName()
+    {
+        if(!this.areProjectStatesIndexed)
+        {
+            List<State> projectStates = StreamExtensions.OfType(this.sessionService.GetProjectElements().stream(), StateMachine.class)
+                    .flatMap(x -> x.getRegion().stream())
+                    .flatMap(x -> StreamExtensions.OfType(x.getOwnedElement().stream(), State.class))
+                    .collect(Collectors.toList());
+            
+            for (int index = 0; index < projectStates.size(); index++)
+            {
+                this.AddToStatesByName(this.projectStatesByName, projectStates.get(index), index);
+            }
+            
+            this.areProjectStatesIndexed = true;
+        }
+        
+        return this.projectStatesByName;
+    }
+
+    /**
+     * Adds the provided {@linkplain State} to the provided index unless a previous {@linkplain State} has the same name
+     * 
+     * @param statesByName the indexed {@linkplain State}s
+     * @param state the {@linkplain State}
+     * @param position the position of the {@linkplain State} among the indexed ones
+     */
+    private void AddToStatesByName(HashMap<String, Pair<Integer, State>> statesByName, State state, int position)
+    {
+        if(state.getName() != null)
+        {
+            statesByName.putIfAbsent(StereotypeUtils.GetCaseFoldedName(state.getName()), Pair.of(position, state));
+        }
+    }
+
     /**
      * Update the {@linkplain State} based on the {@linkplain PossibleFiniteState}
      * 
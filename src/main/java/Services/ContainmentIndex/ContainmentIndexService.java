@@ -0,0 +1,132 @@
+/*
+ * ContainmentIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.ContainmentIndex;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import Services.MagicDrawSession.IMagicDrawSessionService;
+
+/**
+ * The {@linkplain ContainmentIndexService} indexes the ids of the ancestors of the {@linkplain Element}s of the open project, 
+ * so that an ownership check is a single lookup instead of a walk through the subtree of the owner
+ */
+public class ContainmentIndexService implements IContainmentIndexService
+{
+    /**
+     * The current class logger
+     */
+    private final Logger logger = LogManager.getLogger();
+
+    /**
+     * The ids of the ancestors of the indexed {@linkplain Element}s keyed by element id
+     */
+    private final Map<String, Set<String>> ancestorIds = new HashMap<>();
+
+    /**
+     * Initializes a new {@linkplain ContainmentIndexService}
+     * 
+     * @param sessionService the {@linkplain IMagicDrawSessionService}
+     */
+    public ContainmentIndexService(IMagicDrawSessionService sessionService)
+    {
+        sessionService.HasAnyOpenSessionObservable().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+        sessionService.SessionUpdated().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+        sessionService.ModelChanged().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+    }
+
+    /**
+     * Verifies the provided {@linkplain Element} element is directly or indirectly owned by the provided {@linkplain Element} parent
+     * 
+     * @param element the {@linkplain Element} to verify
+     * @param parent the {@linkplain Element} parent
+     * @return a value indicating whether the element is owned by the specified parent
+     */
+    @Override
+    public synchronized boolean IsOwnedBy(Element element, Element parent)
+    {
+        if(element == null || parent == null || parent.getID() == null)
+        {
+            return false;
+        }
+        
+        return this.GetAncestorIds(element).contains(parent.getID());
+    }
+
+    /**
+     * Forgets all the indexed ancestors so they get computed again on the next query
+     */
+    @Override
+    public synchronized void Invalidate()
+    {
+        this.ancestorIds.clear();
+    }
+
+    /**
+     * Gets the ids of the ancestors of the provided {@linkplain Element}, computing and indexing them along its owner chain when needed
+     * 
+     * @param element the {@linkplain Element}
+     * @return a {@linkplain Set} of ancestor ids
+     */
+    private Set<String> GetAncestorIds(Element element)
+    {
+        Set<String> ancestors = element.getID() == null ? null : this.ancestorIds.get(element.getID());
+        
+        if(ancestors != null)
+        {
+            return ancestors;
+        }
+        
+        Element owner = element.getOwner();
+        
+        if(owner == null)
+        {
+            ancestors = Collections.emptySet();
+        }
+        else
+        {
+            ancestors = new HashSet<>(this.GetAncestorIds(owner));
+            
+            if(owner.getID() != null)
+            {
+                ancestors.add(owner.getID());
+            }
+        }
+        
+        if(element.getID() != null)
+        {
+            this.ancestorIds.put(element.getID(), ancestors);
+        }
+        
+        return ancestors;
+    }
+}
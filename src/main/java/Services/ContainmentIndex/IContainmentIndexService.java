@@ -0,0 +1,46 @@
+/*
+ * IContainmentIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.ContainmentIndex;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+/**
+ * The {@linkplain IContainmentIndexService} is the interface definition for the {@linkplain ContainmentIndexService}
+ */
+public interface IContainmentIndexService
+{
+    /**
+     * Verifies the provided {@linkplain Element} element is directly or indirectly owned by the provided {@linkplain Element} parent
+     * 
+     * @param element the {@linkplain Element} to verify
+     * @param parent the {@linkplain Element} parent
+     * @return a value indicating whether the element is owned by the specified parent
+     */
+    boolean IsOwnedBy(Element element, Element parent);
+
+    /**
+     * Forgets all the indexed ancestors so they get computed again on the next query
+     */
+    void Invalidate();
+}
@@ -0,0 +1,64 @@
+/*
+ * IIncrementalMappingService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IncrementalMapping;
+
+import java.util.Collection;
+
+import Utils.Stereotypes.MagicDrawBlockCollection;
+import ViewModels.Rows.MappedElementDefinitionRowViewModel;
+
+/**
+ * The {@linkplain IIncrementalMappingService} is the interface definition for the {@linkplain IncrementalMappingService}
+ */
+public interface IIncrementalMappingService
+{
+    /**
+     * Gets the blocks from the provided {@linkplain MagicDrawBlockCollection} that have to be mapped again, 
+     * the result of the previous mapping of the other blocks is available through {@linkplain MagicDrawBlockCollection#GetReusedElements()}
+     * 
+     * @param mappedBlocks the {@linkplain MagicDrawBlockCollection} to map
+     * @return a {@linkplain MagicDrawBlockCollection}
+     */
+    MagicDrawBlockCollection GetBlocksToMap(MagicDrawBlockCollection mappedBlocks);
+
+    /**
+     * Registers the result of the mapping of the provided {@linkplain MappedElementDefinitionRowViewModel}s 
+     * so it can be reused as long as the mapped blocks do not change
+     * 
+     * @param mappedBlocks the {@linkplain Collection} of mapped {@linkplain MappedElementDefinitionRowViewModel}
+     */
+    void Register(Collection<MappedElementDefinitionRowViewModel> mappedBlocks);
+
+    /**
+     * Forgets all the registered mapping results, for instance when the hub things they refer to are outdated
+     */
+    void Invalidate();
+
+    /**
+     * Gets the number of mapped blocks that were reused by the last call to {@linkplain #GetBlocksToMap(MagicDrawBlockCollection)}
+     * 
+     * @return an int
+     */
+    int GetNumberOfReusedBlocks();
+}
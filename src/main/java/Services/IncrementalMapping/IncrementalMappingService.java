@@ -0,0 +1,373 @@
+/*
+ * IncrementalMappingService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IncrementalMapping;
+
+import static Utils.Operators.Operators.AreTheseEquals;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mddependencies.Dependency;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
+import com.nomagic.uml2.ext.magicdraw.mdprofiles.Stereotype;
+
+import Services.Stereotype.IStereotypeService;
+import Utils.Stereotypes.MagicDrawBlockCollection;
+import ViewModels.Rows.MappedElementDefinitionRowViewModel;
+
+/**
+ * The {@linkplain IncrementalMappingService} keeps the result of the mapping of the blocks towards the hub along with a structural hash of each block, 
+ * so only the blocks that changed since the last mapping, and the blocks that contain them through their part properties, are mapped again.
+ * The blocks that own ports or state dependent properties are always mapped again since their mapping result refers to things shared between blocks
+ */
+public class IncrementalMappingService implements IIncrementalMappingService
+{
+    /**
+     * The name of the system property that allows to turn the incremental mapping off
+     */
+    public static final String IsEnabledPropertyName = "DEHMDSYSML.IncrementalMapping";
+    
+    /**
+     * This current class logger
+     */
+    private Logger logger = LogManager.getLogger();
+
+    /**
+     * The {@linkplain IStereotypeService}
+     */
+    private final IStereotypeService stereotypeService;
+    
+    /**
+     * A value indicating whether the incremental mapping is enabled, defaults to true and can be set through {@linkplain #IsEnabledPropertyName}
+     */
+    private final boolean isEnabled = Boolean.parseBoolean(System.getProperty(IsEnabledPropertyName, "true"));
+    
+    /**
+     * The registered mapping results by block id, paired with the structural hash of the block at the time it was mapped
+     */
+    private final Map<String, Pair<String, MappedElementDefinitionRowViewModel>> mappedBlocks = new HashMap<>();
+    
+    /**
+     * Backing field for {@linkplain #GetNumberOfReusedBlocks()}
+     */
+    private int numberOfReusedBlocks;
+
+    /**
+     * Initializes a new {@linkplain IncrementalMappingService}
+     * 
+     * @param stereotypeService the {@linkplain IStereotypeService}
+     */
+    public IncrementalMappingService(IStereotypeService stereotypeService)
+    {
+        this.stereotypeService = stereotypeService;
+    }
+
+    /**
+     * Gets the blocks from the provided {@linkplain MagicDrawBlockCollection} that have to be mapped again, 
+     * the result of the previous mapping of the other blocks is available through {@linkplain MagicDrawBlockCollection#GetReusedElements()}
+     * 
+     * @param mappedBlocks the {@linkplain MagicDrawBlockCollection} to map
+     * @return a {@linkplain MagicDrawBlockCollection}
+     */
+    @Override
+    public synchronized MagicDrawBlockCollection GetBlocksToMap(MagicDrawBlockCollection mappedBlocks)
+    {
+        this.numberOfReusedBlocks = 0;
+        MagicDrawBlockCollection blocksToMap = new MagicDrawBlockCollection();
+        
+        if(!this.isEnabled || this.mappedBlocks.isEmpty())
+        {
+            blocksToMap.addAll(mappedBlocks);
+            return blocksToMap;
+        }
+        
+        Set<String> blocksToRemap = new HashSet<>();
+        Map<String, Set<String>> partPropertyTypeUsages = new HashMap<>();
+        
+        for (MappedElementDefinitionRowViewModel mappedBlock : mappedBlocks)
+        {
+            Class block = mappedBlock.GetDstElement();
+            
+            if(block == null || block.getID() == null)
+            {
+                continue;
+            }
+            
+            for (Property property : block.getOwnedAttribute())
+            {
+                if(property.getType() instanceof Class)
+                {
+                    partPropertyTypeUsages.computeIfAbsent(property.getType().getID(), x -> new HashSet<>()).add(block.getID());
+                }
+            }
+            
+            if(!this.CanBeReused(mappedBlock))
+            {
+                blocksToRemap.add(block.getID());
+            }
+        }
+        
+        this.AddContainingBlocks(blocksToRemap, partPropertyTypeUsages);
+        
+        for (MappedElementDefinitionRowViewModel mappedBlock : mappedBlocks)
+        {
+            String blockId = mappedBlock.GetDstElement() == null ? null : mappedBlock.GetDstElement().getID();
+            
+            if(blockId == null || blocksToRemap.contains(blockId))
+            {
+                blocksToMap.add(mappedBlock);
+            }
+            else
+            {
+                blocksToMap.GetReusedElements().add(this.mappedBlocks.get(blockId).getRight());
+            }
+        }
+        
+        this.numberOfReusedBlocks = blocksToMap.GetReusedElements().size();
+        this.logger.debug(String.format("%s blocks out of %s have to be mapped again", blocksToMap.size(), mappedBlocks.size()));
+        return blocksToMap;
+    }
+
+    /**
+     * Registers the result of the mapping of the provided {@linkplain MappedElementDefinitionRowViewModel}s 
+     * so it can be reused as long as the mapped blocks do not change
+     * 
+     * @param mappedBlocks the {@linkplain Collection} of mapped {@linkplain MappedElementDefinitionRowViewModel}
+     */
+    @Override
+    public synchronized void Register(Collection<MappedElementDefinitionRowViewModel> mappedBlocks)
+    {
+        if(!this.isEnabled)
+        {
+            return;
+        }
+        
+        for (MappedElementDefinitionRowViewModel mappedBlock : mappedBlocks)
+        {
+            Class block = mappedBlock.GetDstElement();
+            
+            if(block == null || block.getID() == null || mappedBlock.GetHubElement() == null)
+            {
+                continue;
+            }
+            
+            String hash = this.ComputeHash(block);
+            
+            if(hash != null)
+            {
+                this.mappedBlocks.put(block.getID(), Pair.of(hash, mappedBlock));
+            }
+        }
+    }
+
+    /**
+     * Forgets all the registered mapping results, for instance when the hub things they refer to are outdated
+     */
+    @Override
+    public synchronized void Invalidate()
+    {
+        this.mappedBlocks.clear();
+    }
+
+    /**
+     * Gets the number of mapped blocks that were reused by the last call to {@linkplain #GetBlocksToMap(MagicDrawBlockCollection)}
+     * 
+     * @return an int
+     */
+    @Override
+    public int GetNumberOfReusedBlocks()
+    {
+        return this.numberOfReusedBlocks;
+    }
+    
+    /**
+     * Gets a value indicating whether the registered mapping result of the block represented by the provided 
+     * {@linkplain MappedElementDefinitionRowViewModel} can be reused
+     * 
+     * @param mappedBlock the {@linkplain MappedElementDefinitionRowViewModel}
+     * @return a value indicating whether the registered mapping result can be reused
+     */
+    private boolean CanBeReused(MappedElementDefinitionRowViewModel mappedBlock)
+    {
+        Pair<String, MappedElementDefinitionRowViewModel> registeredBlock = this.mappedBlocks.get(mappedBlock.GetDstElement().getID());
+        
+        if(registeredBlock == null || !registeredBlock.getRight().GetRelationships().isEmpty() || this.IsSharingThingsWithOtherBlocks(mappedBlock.GetDstElement()))
+        {
+            return false;
+        }
+        
+        if(mappedBlock.GetHubElement() != null 
+                && !AreTheseEquals(mappedBlock.GetHubElement().getIid(), registeredBlock.getRight().GetHubElement().getIid()))
+        {
+            return false;
+        }
+        
+        return AreTheseEquals(registeredBlock.getLeft(), this.ComputeHash(mappedBlock.GetDstElement()));
+    }
+    
+    /**
+     * Gets a value indicating whether the mapping result of the provided block refers to things that are shared with the mapping result of other blocks,
+     * that is the case when the block owns ports or state dependent properties
+     * 
+     * @param block the {@linkplain Class}
+     * @return a value indicating whether the block mapping result refers to shared things
+     */
+    private boolean IsSharingThingsWithOtherBlocks(Class block)
+    {
+        if(!block.getOwnedPort().isEmpty())
+        {
+            return true;
+        }
+        
+        return block.getOwnedAttribute().stream()
+                .anyMatch(x -> x.get_directedRelationshipOfSource().stream().anyMatch(Dependency.class::isInstance));
+    }
+
+    /**
+     * Adds to the provided {@linkplain Set} of block ids the ids of the blocks that contain them through their part properties
+     * 
+     * @param blocksToRemap the {@linkplain Set} of block ids
+     * @param partPropertyTypeUsages the {@linkplain Map} of type block ids and the ids of the blocks that own at least one part property typed by them
+     */
+    private void AddContainingBlocks(Set<String> blocksToRemap, Map<String, Set<String>> partPropertyTypeUsages)
+    {
+        Deque<String> blocksToVisit = new ArrayDeque<>(blocksToRemap);
+        
+        while(!blocksToVisit.isEmpty())
+        {
+            for (String containingBlockId : partPropertyTypeUsages.getOrDefault(blocksToVisit.pop(), new HashSet<>()))
+            {
+                if(blocksToRemap.add(containingBlockId))
+                {
+                    blocksToVisit.push(containingBlockId);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Computes the structural hash of the provided block from everything the mapping towards the hub reads from it, 
+     * including the blocks that type its properties, directly or not, since they get mapped along with it
+     * 
+     * @param block the {@linkplain Class}
+     * @return the hash as an hexadecimal {@linkplain String}
+     */
+    String ComputeHash(Class block)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            Set<Class> visitedBlocks = new HashSet<>();
+            Deque<Class> blocksToVisit = new ArrayDeque<>();
+            visitedBlocks.add(block);
+            blocksToVisit.push(block);
+            
+            while(!blocksToVisit.isEmpty())
+            {
+                Class visitedBlock = blocksToVisit.pop();
+                this.Update(digest, visitedBlock);
+                
+                for (Property property : visitedBlock.getOwnedAttribute())
+                {
+                    if(property.getType() instanceof Class && visitedBlocks.add((Class)property.getType()))
+                    {
+                        blocksToVisit.push((Class)property.getType());
+                    }
+                }
+            }
+            
+            StringBuilder hash = new StringBuilder();
+
+            for (byte value : digest.digest())
+            {
+                hash.append(String.format("%02x", value));
+            }
+
+            return hash.toString();
+        }
+        catch (NoSuchAlgorithmException exception)
+        {
+            this.logger.catching(exception);
+            return null;
+        }
+    }
+    
+    /**
+     * Updates the provided {@linkplain MessageDigest} with everything the mapping towards the hub reads from the provided block
+     * 
+     * @param digest the {@linkplain MessageDigest}
+     * @param block the {@linkplain Class}
+     */
+    private void Update(MessageDigest digest, Class block)
+    {
+        this.Update(digest, block.getID(), block.getName(), block.isLeaf(), block.isAbstract(), block.isActive(), this.stereotypeService.IsEncapsulated(block));
+        
+        for (Stereotype stereotype : this.stereotypeService.GetAllStereotype(block))
+        {
+            this.Update(digest, stereotype.getName());
+        }
+        
+        for (Property property : block.getOwnedAttribute())
+        {
+            this.Update(digest, property.getID(), property.getName(), property.getType() == null ? null : property.getType().getID(),
+                    property.getType() == null ? null : property.getType().getName(), this.stereotypeService.GetValueFromProperty(property),
+                    this.stereotypeService.GetUnitRepresention(property));
+            
+            for (Stereotype stereotype : this.stereotypeService.GetAllStereotype(property))
+            {
+                this.Update(digest, stereotype.getName());
+            }
+        }
+    }
+    
+    /**
+     * Updates the provided {@linkplain MessageDigest} with the provided values
+     * 
+     * @param digest the {@linkplain MessageDigest}
+     * @param values the values
+     */
+    private void Update(MessageDigest digest, Object... values)
+    {
+        for (Object value : values)
+        {
+            digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        
+        digest.update((byte) 0);
+    }
+}
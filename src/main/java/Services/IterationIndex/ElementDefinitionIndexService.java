@@ -0,0 +1,130 @@
+/*
+ * ElementDefinitionIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IterationIndex;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import HubController.IHubController;
+import cdp4common.engineeringmodeldata.ElementDefinition;
+import cdp4common.engineeringmodeldata.Iteration;
+
+/**
+ * The {@linkplain ElementDefinitionIndexService} indexes the {@linkplain ElementDefinition}s of the open {@linkplain Iteration}
+ * by case-folded short name and name
+ */
+public class ElementDefinitionIndexService implements IElementDefinitionIndexService
+{
+    /**
+     * The current class logger
+     */
+    private final Logger logger = LogManager.getLogger();
+
+    /**
+     * The {@linkplain IHubController}
+     */
+    private final IHubController hubController;
+
+    /**
+     * The {@linkplain ElementDefinitionNameIndex} of the open {@linkplain Iteration}
+     */
+    private final ElementDefinitionNameIndex index = new ElementDefinitionNameIndex();
+
+    /**
+     * The {@linkplain UUID} of the {@linkplain Iteration} the current index has been built for
+     */
+    private UUID indexedIterationId;
+
+    /**
+     * A value indicating whether the index has to be rebuilt before the next query
+     */
+    private boolean isOutdated = true;
+
+    /**
+     * Initializes a new {@linkplain ElementDefinitionIndexService}
+     * 
+     * @param hubController the {@linkplain IHubController}
+     */
+    public ElementDefinitionIndexService(IHubController hubController)
+    {
+        this.hubController = hubController;
+        this.hubController.GetIsSessionOpenObservable().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+        this.hubController.GetSessionEventObservable().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+    }
+
+    /**
+     * Gets the {@linkplain ElementDefinition} of the open iteration that has the provided short name or, if none, the provided name, ignoring the case
+     * 
+     * @param name the name, can be null
+     * @param shortName the short name, can be null
+     * @return an {@linkplain Optional} of {@linkplain ElementDefinition}, the returned {@linkplain ElementDefinition} is the one from the cache
+     */
+    @Override
+    public synchronized Optional<ElementDefinition> Get(String name, String shortName)
+    {
+        Iteration iteration = this.hubController.GetOpenIteration();
+        
+        if(iteration == null)
+        {
+            return Optional.empty();
+        }
+        
+        if(this.isOutdated || (iteration.getIid() != null && !iteration.getIid().equals(this.indexedIterationId)))
+        {
+            this.Build(iteration);
+        }
+        
+        return this.index.Get(name, shortName);
+    }
+
+    /**
+     * Marks the index as outdated so it gets rebuilt on the next query
+     */
+    @Override
+    public synchronized void Invalidate()
+    {
+        this.isOutdated = true;
+    }
+
+    /**
+     * Builds the index from the provided {@linkplain Iteration}
+     * 
+     * @param iteration the open {@linkplain Iteration}
+     */
+    private void Build(Iteration iteration)
+    {
+        this.index.Clear();
+        
+        for (ElementDefinition elementDefinition : iteration.getElement())
+        {
+            this.index.Add(elementDefinition);
+        }
+        
+        this.indexedIterationId = iteration.getIid();
+        this.isOutdated = false;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * ElementDefinitionNameIndex.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IterationIndex;
+
+import static Utils.Stereotypes.StereotypeUtils.GetCaseFoldedName;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import cdp4common.engineeringmodeldata.ElementDefinition;
+
+/**
+ * The {@linkplain ElementDefinitionNameIndex} indexes {@linkplain ElementDefinition}s by case-folded short name and name,
+ * the first {@linkplain ElementDefinition} added for a key wins
+ */
+public class ElementDefinitionNameIndex
+{
+    /**
+     * The {@linkplain ElementDefinition}s keyed by case-folded short name
+     */
+    private final Map<String, ElementDefinition> elementDefinitionsByShortName = new HashMap<>();
+
+    /**
+     * The {@linkplain ElementDefinition}s keyed by case-folded name
+     */
+    private final Map<String, ElementDefinition> elementDefinitionsByName = new HashMap<>();
+
+    /**
+     * Adds the provided {@linkplain ElementDefinition} to the index
+     * 
+     * @param elementDefinition the {@linkplain ElementDefinition} to add
+     */
+    public void Add(ElementDefinition elementDefinition)
+    {
+        if(elementDefinition == null)
+        {
+            return;
+        }
+        
+        if(elementDefinition.getShortName() != null)
+        {
+            this.elementDefinitionsByShortName.putIfAbsent(GetCaseFoldedName(elementDefinition.getShortName()), elementDefinition);
+        }
+        
+        if(elementDefinition.getName() != null)
+        {
+            this.elementDefinitionsByName.putIfAbsent(GetCaseFoldedName(elementDefinition.getName()), elementDefinition);
+        }
+    }
+
+    /**
+     * Gets the {@linkplain ElementDefinition} that has the provided short name or, if none, the provided name, ignoring the case
+     * 
+     * @param name the name, can be null
+     * @param shortName the short name, can be null
+     * @return an {@linkplain Optional} of {@linkplain ElementDefinition}
+     */
+    public Optional<ElementDefinition> Get(String name, String shortName)
+    {
+        ElementDefinition elementDefinition = shortName != null ? this.elementDefinitionsByShortName.get(GetCaseFoldedName(shortName)) : null;
+        
+        if(elementDefinition == null && name != null)
+        {
+            elementDefinition = this.elementDefinitionsByName.get(GetCaseFoldedName(name));
+        }
+        
+        return Optional.ofNullable(elementDefinition);
+    }
+
+    /**
+     * Clears the index
+     */
+    public void Clear()
+    {
+        this.elementDefinitionsByShortName.clear();
+        this.elementDefinitionsByName.clear();
+    }
+}
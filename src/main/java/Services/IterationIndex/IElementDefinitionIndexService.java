@@ -0,0 +1,48 @@
+/*
+ * IElementDefinitionIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IterationIndex;
+
+import java.util.Optional;
+
+import cdp4common.engineeringmodeldata.ElementDefinition;
+
+/**
+ * The {@linkplain IElementDefinitionIndexService} is the interface definition for the {@linkplain ElementDefinitionIndexService}
+ */
+public interface IElementDefinitionIndexService
+{
+    /**
+     * Gets the {@linkplain ElementDefinition} of the open iteration that has the provided short name or, if none, the provided name, ignoring the case
+     * 
+     * @param name the name, can be null
+     * @param shortName the short name, can be null
+     * @return an {@linkplain Optional} of {@linkplain ElementDefinition}, the returned {@linkplain ElementDefinition} is the one from the cache
+     */
+    Optional<ElementDefinition> Get(String name, String shortName);
+
+    /**
+     * Marks the index as outdated so it gets rebuilt on the next query
+     */
+    void Invalidate();
+}
@@ -0,0 +1,51 @@
+/*
+ * IRelationshipIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IterationIndex;
+
+import java.util.Collection;
+import java.util.UUID;
+
+import cdp4common.engineeringmodeldata.BinaryRelationship;
+
+/**
+ * The {@linkplain IRelationshipIndexService} is the interface definition for the {@linkplain RelationshipIndexService}
+ */
+public interface IRelationshipIndexService
+{
+    /**
+     * Gets the {@linkplain BinaryRelationship}s of the open iteration that go from the specified source to the specified target
+     * and that are categorized by a category with the specified name
+     * 
+     * @param sourceIid the {@linkplain UUID} of the source
+     * @param targetIid the {@linkplain UUID} of the target
+     * @param categoryName the name of the category
+     * @return a {@linkplain Collection} of {@linkplain BinaryRelationship}, the returned relationships are the ones from the cache
+     */
+    Collection<BinaryRelationship> GetBinaryRelationships(UUID sourceIid, UUID targetIid, String categoryName);
+
+    /**
+     * Marks the index as outdated so it gets rebuilt on the next query
+     */
+    void Invalidate();
+}
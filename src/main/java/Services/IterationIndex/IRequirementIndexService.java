@@ -0,0 +1,68 @@
+/*
+ * IRequirementIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package Services.IterationIndex;
+
+import java.util.Optional;
+
+import cdp4common.engineeringmodeldata.Requirement;
+import cdp4common.engineeringmodeldata.RequirementsGroup;
+import cdp4common.engineeringmodeldata.RequirementsSpecification;
+
+/**
+ * The {@linkplain IRequirementIndexService} is the interface definition for the {@linkplain RequirementIndexService}
+ */
+public interface IRequirementIndexService
+{
+    /**
+     * Gets the first non-deprecated {@linkplain RequirementsSpecification} of the open iteration that has the provided short name, ignoring the case
+     * 
+     * @param shortName the short name
+     * @return an {@linkplain Optional} of {@linkplain RequirementsSpecification}, the returned {@linkplain RequirementsSpecification} is the one from the cache
+     */
+    Optional<RequirementsSpecification> GetRequirementsSpecification(String shortName);
+
+    /**
+     * Gets the first {@linkplain RequirementsGroup} of the non-deprecated {@linkplain RequirementsSpecification}s of the open iteration 
+     * that has the provided short name, ignoring the case
+     * 
+     * @param shortName the short name
+     * @return an {@linkplain Optional} of {@linkplain RequirementsGroup}, the returned {@linkplain RequirementsGroup} is the one from the cache
+     */
+    Optional<RequirementsGroup> GetRequirementsGroup(String shortName);
+
+    /**
+     * Gets the first non-deprecated {@linkplain Requirement} of the non-deprecated {@linkplain RequirementsSpecification}s of the open iteration 
+     * that has the provided short name, ignoring the case
+     * 
+     * @param shortName the short name
+     * @return an {@linkplain Optional} of {@linkplain Requirement}, the returned {@linkplain Requirement} is the one from the cache
+     */
+    Optional<Requirement> GetRequirement(String shortName);
+
+    /**
+     * Marks the index as outdated so it gets rebuilt on the next query
+     */
+    void Invalidate();
+}
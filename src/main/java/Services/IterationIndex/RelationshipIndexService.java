@@ -0,0 +1,177 @@
+/*
+ * RelationshipIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IterationIndex;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.commons.lang3.tuple.Triple;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import HubController.IHubController;
+import cdp4common.engineeringmodeldata.BinaryRelationship;
+import cdp4common.engineeringmodeldata.Iteration;
+import cdp4common.engineeringmodeldata.Relationship;
+import cdp4common.sitedirectorydata.Category;
+
+/**
+ * The {@linkplain RelationshipIndexService} indexes the {@linkplain BinaryRelationship}s of the open {@linkplain Iteration}
+ * by source, target and category name, and by related thing
+ */
+public class RelationshipIndexService implements IRelationshipIndexService
+{
+    /**
+     * The current class logger
+     */
+    private final Logger logger = LogManager.getLogger();
+
+    /**
+     * The {@linkplain IHubController}
+     */
+    private final IHubController hubController;
+
+    /**
+     * The {@linkplain BinaryRelationship}s keyed by source iid, target iid and category name
+     */
+    private final Map<Triple<UUID, UUID, String>, List<BinaryRelationship>> relationshipsBySourceTargetAndCategory = new HashMap<>();
+
+    /**
+     * The {@linkplain UUID} of the {@linkplain Iteration} the current index has been built for
+     */
+    private UUID indexedIterationId;
+
+    /**
+     * A value indicating whether the index has to be rebuilt before the next query
+     */
+    private boolean isOutdated = true;
+
+    /**
+     * Initializes a new {@linkplain RelationshipIndexService}
+     * 
+     * @param hubController the {@linkplain IHubController}
+     */
+    public RelationshipIndexService(IHubController hubController)
+    {
+        this.hubController = hubController;
+        this.hubController.GetIsSessionOpenObservable().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+        this.hubController.GetSessionEventObservable().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+    }
+
+    /**
+     * Gets the {@linkplain BinaryRelationship}s of the open iteration that go from the specified source to the specified target
+     * and that are categorized by a category with the specified name
+     * 
+     * @param sourceIid the {@linkplain UUID} of the source
+     * @param targetIid the {@linkplain UUID} of the target
+     * @param categoryName the name of the category
+     * @return a {@linkplain Collection} of {@linkplain BinaryRelationship}, the returned relationships are the ones from the cache
+     */
+    @Override
+    public synchronized Collection<BinaryRelationship> GetBinaryRelationships(UUID sourceIid, UUID targetIid, String categoryName)
+    {
+        this.BuildIfOutdated();
+        return Collections.unmodifiableList(
+                this.relationshipsBySourceTargetAndCategory.getOrDefault(Triple.of(sourceIid, targetIid, categoryName), Collections.emptyList()));
+    }
+
+    /**
+     * Marks the index as outdated so it gets rebuilt on the next query
+     */
+    @Override
+    public synchronized void Invalidate()
+    {
+        this.isOutdated = true;
+    }
+
+    /**
+     * Builds the index from the open {@linkplain Iteration} if it is outdated or if it has been built for another {@linkplain Iteration}
+     */
+    private void BuildIfOutdated()
+    {
+        Iteration iteration = this.hubController.GetOpenIteration();
+        
+        if(iteration == null)
+        {
+            this.Clear();
+            return;
+        }
+        
+        if(!this.isOutdated && (iteration.getIid() == null || iteration.getIid().equals(this.indexedIterationId)))
+        {
+            return;
+        }
+        
+        this.Clear();
+        
+        for (Relationship relationship : iteration.getRelationship())
+        {
+            if(relationship instanceof BinaryRelationship)
+            {
+                this.Add((BinaryRelationship)relationship);
+            }
+        }
+        
+        this.indexedIterationId = iteration.getIid();
+        this.isOutdated = false;
+    }
+
+    /**
+     * Adds the provided {@linkplain BinaryRelationship} to the index
+     * 
+     * @param relationship the {@linkplain BinaryRelationship}
+     */
+    private void Add(BinaryRelationship relationship)
+    {
+        if(relationship.getSource() == null || relationship.getTarget() == null)
+        {
+            return;
+        }
+        
+        UUID sourceIid = relationship.getSource().getIid();
+        UUID targetIid = relationship.getTarget().getIid();
+        
+        for (Category category : relationship.getCategory())
+        {
+            this.relationshipsBySourceTargetAndCategory
+                .computeIfAbsent(Triple.of(sourceIid, targetIid, category.getName()), x -> new ArrayList<>())
+                .add(relationship);
+        }
+    }
+
+    /**
+     * Clears the index
+     */
+    private void Clear()
+    {
+        this.relationshipsBySourceTargetAndCategory.clear();
+        this.indexedIterationId = null;
+        this.isOutdated = true;
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * RequirementIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+
+package Services.IterationIndex;
+
+import static Utils.Stereotypes.StereotypeUtils.GetCaseFoldedName;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import HubController.IHubController;
+import cdp4common.engineeringmodeldata.Iteration;
+import cdp4common.engineeringmodeldata.Requirement;
+import cdp4common.engineeringmodeldata.RequirementsContainer;
+import cdp4common.engineeringmodeldata.RequirementsGroup;
+import cdp4common.engineeringmodeldata.RequirementsSpecification;
+
+/**
+ * The {@linkplain RequirementIndexService} indexes, per {@linkplain RequirementsSpecification}, the {@linkplain Requirement}s 
+ * and the {@linkplain RequirementsGroup}s of the open {@linkplain Iteration} by case-folded short name
+ */
+public class RequirementIndexService implements IRequirementIndexService
+{
+    /**
+     * The current class logger
+     */
+    private final Logger logger = LogManager.getLogger();
+
+    /**
+     * The {@linkplain IHubController}
+     */
+    private final IHubController hubController;
+
+    /**
+     * The non-deprecated {@linkplain RequirementsSpecification}s of the open {@linkplain Iteration}, in the order of the {@linkplain Iteration}
+     */
+    private final List<RequirementsSpecification> requirementsSpecifications = new ArrayList<>();
+
+    /**
+     * The {@linkplain RequirementsSpecification}s keyed by case-folded short name
+     */
+    private final Map<String, RequirementsSpecification> requirementsSpecificationsByShortName = new HashMap<>();
+
+    /**
+     * The {@linkplain RequirementsGroup}s of each {@linkplain RequirementsSpecification}, keyed by case-folded short name
+     */
+    private final Map<RequirementsSpecification, Map<String, RequirementsGroup>> requirementsGroupsBySpecification = new IdentityHashMap<>();
+
+    /**
+     * The non-deprecated {@linkplain Requirement}s of each {@linkplain RequirementsSpecification}, keyed by case-folded short name
+     */
+    private final Map<RequirementsSpecification, Map<String, Requirement>> requirementsBySpecification = new IdentityHashMap<>();
+
+    /**
+     * The {@linkplain UUID} of the {@linkplain Iteration} the current index has been built for
+     */
+    private UUID indexedIterationId;
+
+    /**
+     * A value indicating whether the index has to be rebuilt before the next query
+     */
+    private boolean isOutdated = true;
+
+    /**
+     * Initializes a new {@linkplain RequirementIndexService}
+     * 
+     * @param hubController the {@linkplain IHubController}
+     */
+    public RequirementIndexService(IHubController hubController)
+    {
+        this.hubController = hubController;
+        this.hubController.GetIsSessionOpenObservable().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+        this.hubController.GetSessionEventObservable().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+    }
+
+    /**
+     * Gets the first non-deprecated {@linkplain RequirementsSpecification} of the open iteration that has the provided short name, ignoring the case
+     * 
+     * @param shortName the short name
+     * @return an {@linkplain Optional} of {@linkplain RequirementsSpecification}, the returned {@linkplain RequirementsSpecification} is the one from the cache
+     */
+    @Override
+    public synchronized Optional<RequirementsSpecification> GetRequirementsSpecification(String shortName)
+    {
+        if(!this.EnsureIndexIsUpToDate())
+        {
+            return Optional.empty();
+        }
+        
+        return Optional.ofNullable(this.requirementsSpecificationsByShortName.get(GetCaseFoldedName(shortName)));
+    }
+
+    /**
+     * Gets the first {@linkplain RequirementsGroup} of the non-deprecated {@linkplain RequirementsSpecification}s of the open iteration 
+     * that has the provided short name, ignoring the case
+     * 
+     * @param shortName the short name
+     * @return an {@linkplain Optional} of {@linkplain RequirementsGroup}, the returned {@linkplain RequirementsGroup} is the one from the cache
+     */
+    @Override
+    public synchronized Optional<RequirementsGroup> GetRequirementsGroup(String shortName)
+    {
+        return this.GetFromAnySpecification(x -> this.requirementsGroupsBySpecification.get(x).get(GetCaseFoldedName(shortName)));
+    }
+
+    /**
+     * Gets the first non-deprecated {@linkplain Requirement} of the non-deprecated {@linkplain RequirementsSpecification}s of the open iteration 
+     * that has the provided short name, ignoring the case
+     * 
+     * @param shortName the short name
+     * @return an {@linkplain Optional} of {@linkplain Requirement}, the returned {@linkplain Requirement} is the one from the cache
+     */
+    @Override
+    public synchronized Optional<Requirement> GetRequirement(String shortName)
+    {
+        return this.GetFromAnySpecification(x -> this.requirementsBySpecification.get(x).get(GetCaseFoldedName(shortName)));
+    }
+
+    /**
+     * Marks the index as outdated so it gets rebuilt on the next query
+     */
+    @Override
+    public synchronized void Invalidate()
+    {
+        this.isOutdated = true;
+    }
+
+    /**
+     * Queries the index of each {@linkplain RequirementsSpecification}, in the order of the open {@linkplain Iteration}, until one returns a value
+     * 
+     * @param <TThing> the type of thing to get
+     * @param query the {@linkplain Function} that queries the index of one {@linkplain RequirementsSpecification}
+     * @return an {@linkplain Optional} of {@linkplain #TThing}
+     */
+    private <TThing> Optional<TThing> GetFromAnySpecification(Function<RequirementsSpecification, TThing> query)
+    {
+        if(!this.EnsureIndexIsUpToDate())
+        {
+            return Optional.empty();
+        }
+        
+        for (RequirementsSpecification requirementsSpecification : this.requirementsSpecifications)
+        {
+            TThing thing = query.apply(requirementsSpecification);
+            
+            if(thing != null)
+            {
+                return Optional.of(thing);
+            }
+        }
+        
+        return Optional.empty();
+    }
+
+    /**
+     * Rebuilds the index if it is outdated or if it was built for another {@linkplain Iteration}
+     * 
+     * @return a value indicating whether there is an open {@linkplain Iteration} to query
+     */
+    private boolean EnsureIndexIsUpToDate()
+    {
+        Iteration iteration = this.hubController.GetOpenIteration();
+        
+        if(iteration == null)
+        {
+            return false;
+        }
+        
+        if(this.isOutdated || (iteration.getIid() != null && !iteration.getIid().equals(this.indexedIterationId)))
+        {
+            this.Build(iteration);
+        }
+        
+        return true;
+    }
+
+    /**
+     * Builds the index from the provided {@linkplain Iteration}
+     * 
+     * @param iteration the open {@linkplain Iteration}
+     */
+    private void Build(Iteration iteration)
+    {
+        this.requirementsSpecifications.clear();
+        this.requirementsSpecificationsByShortName.clear();
+        this.requirementsGroupsBySpecification.clear();
+        this.requirementsBySpecification.clear();
+        
+        for (RequirementsSpecification requirementsSpecification : iteration.getRequirementsSpecification())
+        {
+            if(requirementsSpecification.isDeprecated())
+            {
+                continue;
+            }
+            
+            this.requirementsSpecifications.add(requirementsSpecification);
+            this.requirementsSpecificationsByShortName.putIfAbsent(GetCaseFoldedName(requirementsSpecification.getShortName()), requirementsSpecification);
+            
+            Map<String, Requirement> requirements = new HashMap<>();
+            
+            for (Requirement requirement : requirementsSpecification.getRequirement())
+            {
+                if(!requirement.isDeprecated())
+                {
+                    requirements.putIfAbsent(GetCaseFoldedName(requirement.getShortName()), requirement);
+                }
+            }
+            
+            Map<String, RequirementsGroup> requirementsGroups = new HashMap<>();
+            this.AddGroups(requirementsSpecification, requirementsGroups);
+            
+            this.requirementsBySpecification.put(requirementsSpecification, requirements);
+            this.requirementsGroupsBySpecification.put(requirementsSpecification, requirementsGroups);
+        }
+        
+        this.indexedIterationId = iteration.getIid();
+        this.isOutdated = false;
+    }
+
+    /**
+     * Adds the {@linkplain RequirementsGroup}s of the provided {@linkplain RequirementsContainer} and of its sub-groups to the provided {@linkplain Map}
+     * 
+     * @param container the {@linkplain RequirementsContainer}
+     * @param requirementsGroups the {@linkplain Map} of {@linkplain RequirementsGroup} keyed by case-folded short name
+     */
+    private void AddGroups(RequirementsContainer container, Map<String, RequirementsGroup> requirementsGroups)
+    {
+        for (RequirementsGroup requirementsGroup : container.getGroup())
+        {
+            requirementsGroups.putIfAbsent(GetCaseFoldedName(requirementsGroup.getShortName()), requirementsGroup);
+        }
+        
+        for (RequirementsGroup requirementsGroup : container.getGroup())
+        {
+            this.AddGroups(requirementsGroup, requirementsGroups);
+        }
+    }
+}
@@ -23,6 +23,9 @@
  */
 package Services.MagicDrawSession;
 
+import java.beans.PropertyChangeEvent;
+import java.util.Collection;
+
 import com.nomagic.magicdraw.core.Project;
 
 import Reactive.ObservableValue;
@@ -47,4 +50,9 @@ public interface IMagicDrawProjectEventListener
      * Gets an {@linkplain ObservableValue} of type {@linkplain Project}
      */
     ObservableValue<Project> OpenDocument();
+
+    /**
+     * Gets a reactive value that emits the {@linkplain PropertyChangeEvent}s of each committed model transaction
+     */
+    Observable<Collection<PropertyChangeEvent>> ModelChanged();
 }
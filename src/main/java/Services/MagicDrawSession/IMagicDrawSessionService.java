@@ -23,6 +23,7 @@
  */
 package Services.MagicDrawSession;
 
+import java.beans.PropertyChangeEvent;
 import java.util.Collection;
 
 import com.nomagic.magicdraw.core.Project;
@@ -109,4 +110,11 @@ public interface IMagicDrawSessionService
      * @return an {@linkplain Observable} of {@linkplain Boolean}
      */
     Observable<Boolean> ProjectSaved();
+
+    /**
+     * Gets an {@linkplain Observable} of {@linkplain Collection} of {@linkplain PropertyChangeEvent} that emits the changes of each committed model transaction
+     * 
+     * @return an {@linkplain Observable} of {@linkplain Collection} of {@linkplain PropertyChangeEvent}
+     */
+    Observable<Collection<PropertyChangeEvent>> ModelChanged();
 }
@@ -23,9 +23,14 @@
  */
 package Services.MagicDrawSession;
 
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.Collection;
+
 import com.nomagic.magicdraw.core.Application;
 import com.nomagic.magicdraw.core.Project;
 import com.nomagic.magicdraw.core.project.ProjectEventListener;
+import com.nomagic.uml2.transaction.TransactionCommitListener;
 
 import Reactive.ObservableValue;
 import io.reactivex.Observable;
@@ -83,6 +88,29 @@ public final class MagicDrawProjectEventListener implements ProjectEventListener
         return this.openDocument;
     }
     
+    /**
+     * Backing field for {@linkplain ModelChanged}
+     */
+    private final ObservableValue<Collection<PropertyChangeEvent>> modelChanged = new ObservableValue<>();
+
+    /**
+     * Gets a reactive value that emits the {@linkplain PropertyChangeEvent}s of each committed model transaction
+     */
+    @Override
+    public Observable<Collection<PropertyChangeEvent>> ModelChanged()
+    {
+        return this.modelChanged.Observable();
+    }
+    
+    /**
+     * The {@linkplain TransactionCommitListener} that forwards the committed model changes to {@linkplain #modelChanged}
+     */
+    private final TransactionCommitListener transactionCommitListener = events -> 
+    {
+        this.modelChanged.Value(new ArrayList<>(events));
+        return null;
+    };
+    
     /**
      * Initializes a new {@linkplain MagicDrawProjectEventListener}
      */
@@ -111,6 +139,7 @@ public final class MagicDrawProjectEventListener implements ProjectEventListener
     @Override
     public void projectClosed(Project project)
     {
+        this.StopListeningToModelChanges(project);
         this.hasOneDocumentOpen.Value(false);
         this.openDocument.Value(null);
     }
@@ -122,6 +151,7 @@ public final class MagicDrawProjectEventListener implements ProjectEventListener
     @Override
     public void projectCreated(Project project)
     {
+        this.StartListeningToModelChanges(project);
         this.hasOneDocumentOpen.Value(true);
         this.openDocument.Value(project);
     }
@@ -133,6 +163,7 @@ public final class MagicDrawProjectEventListener implements ProjectEventListener
     @Override
     public void projectOpened(Project project)
     {
+        this.StartListeningToModelChanges(project);
         this.openDocument.Value(project);
         this.hasOneDocumentOpen.Value(true);
     }
@@ -154,6 +185,8 @@ public final class MagicDrawProjectEventListener implements ProjectEventListener
     @Override
     public void projectReplaced(Project project, Project project2)
     {
+        this.StopListeningToModelChanges(project);
+        this.StartListeningToModelChanges(project2);
         this.openDocument.Value(project2);
         this.hasOneDocumentOpen.Value(true);
     }
@@ -247,4 +280,30 @@ public final class MagicDrawProjectEventListener implements ProjectEventListener
     	// Added comment to satisfy the code smell raised by the rule 1186.
     	// This method is empty because nothing has to be done there.
     }
+
+    /**
+     * Registers the {@linkplain #transactionCommitListener} on the provided {@linkplain Project}
+     * 
+     * @param project the {@linkplain Project}
+     */
+    private void StartListeningToModelChanges(Project project)
+    {
+        if(project != null)
+        {
+            project.getRepository().getTransactionManager().addTransactionCommitListener(this.transactionCommitListener);
+        }
+    }
+
+    /**
+     * Unregisters the {@linkplain #transactionCommitListener} from the provided {@linkplain Project}
+     * 
+     * @param project the {@linkplain Project}
+     */
+    private void StopListeningToModelChanges(Project project)
+    {
+        if(project != null)
+        {
+            project.getRepository().getTransactionManager().removeTransactionCommitListener(this.transactionCommitListener);
+        }
+    }
 }
@@ -23,6 +23,7 @@
  */
 package Services.MagicDrawSession;
 
+import java.beans.PropertyChangeEvent;
 import java.util.Collection;
 import java.util.stream.Collectors;
 
@@ -77,6 +78,17 @@ public class MagicDrawSessionService implements IMagicDrawSessionService
         return this.projectEventListener.ProjectSaved();
     }
     
+    /**
+     * Gets an {@linkplain Observable} of {@linkplain Collection} of {@linkplain PropertyChangeEvent} that emits the changes of each committed model transaction
+     * 
+     * @return an {@linkplain Observable} of {@linkplain Collection} of {@linkplain PropertyChangeEvent}
+     */
+    @Override
+    public Observable<Collection<PropertyChangeEvent>> ModelChanged()
+    {
+        return this.projectEventListener.ModelChanged();
+    }
+    
     /**
      * Backing field for {@linkplain #GetSessionEvent()}
      */
@@ -23,12 +23,18 @@
  */
 package Services.Mapping;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.time.StopWatch;
+import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -42,6 +48,8 @@ import Reactive.ObservableValue;
 import Services.MagicDrawSelection.IMagicDrawSelectionService;
 import Services.MagicDrawSession.IMagicDrawSessionService;
 import Services.MagicDrawUILog.IMagicDrawUILogService;
+import Services.MappingEngineService.IMappableThingCollection;
+import Services.MappingMetrics.IMappingMetricsService;
 import Services.NavigationService.INavigationService;
 import Utils.Ref;
 import Utils.Stereotypes.HubElementCollection;
@@ -58,6 +66,7 @@ import ViewModels.Rows.MappedElementRowViewModel;
 import ViewModels.Rows.MappedRequirementRowViewModel;
 import Views.Dialogs.MagicDrawDstToHubMappingConfigurationDialog;
 import Views.Dialogs.MagicDrawHubToDstMappingConfigurationDialog;
+import cdp4common.commondata.DefinedThing;
 import cdp4common.commondata.Thing;
 import cdp4common.engineeringmodeldata.ElementDefinition;
 import io.reactivex.Observable;
@@ -113,6 +122,27 @@ public class MapCommandService implements IMapCommandService
      */
     private final IHubToDstMappingConfigurationDialogViewModel hubMappingDialogViewModel;
     
+    /**
+     * The {@linkplain IMappingMetricsService} instance
+     */
+    private final IMappingMetricsService metricsService;
+    
+    /**
+     * The name of the system property that allows to configure {@linkplain #parallelism}
+     */
+    public static final String ParallelismPropertyName = "DEHMDSYSML.Mapping.Parallelism";
+    
+    /**
+     * The maximum number of groups of elements mapped concurrently towards the HUB, 
+     * defaults to the number of available processors and can be set to 1 through {@linkplain #ParallelismPropertyName} to map the groups sequentially
+     */
+    private final int parallelism = Math.max(1, Integer.getInteger(ParallelismPropertyName, Runtime.getRuntime().availableProcessors()));
+    
+    /**
+     * The {@linkplain ForkJoinPool} that runs the mapping rule of each group of elements
+     */
+    private ForkJoinPool mappingPool;
+    
     /**
      * Backing field for {@linkplain CanExecuteObservable}
      */
@@ -129,11 +159,13 @@ public class MapCommandService implements IMapCommandService
      * @param sessionService the {@linkplain ICapellaSessionService} instance
      * @param hubMappingDialog the {@linkplain IHubToDstMappingConfigurationDialogViewModel} instance
      * @param selectionService the {@linkplain IMagicDrawSelectionService} instance
+     * @param metricsService the {@linkplain IMappingMetricsService} instance
      */
     public MapCommandService(IDstController dstController,
             INavigationService navigationService, IDstToHubMappingConfigurationDialogViewModel dstMappingDialog,
             IMagicDrawUILogService logService, IHubController hubController, IMagicDrawSessionService sessionService,
-            IHubToDstMappingConfigurationDialogViewModel hubMappingDialog, IMagicDrawSelectionService selectionService)
+            IHubToDstMappingConfigurationDialogViewModel hubMappingDialog, IMagicDrawSelectionService selectionService,
+            IMappingMetricsService metricsService)
     {
         this.dstController = dstController;
         this.navigationService = navigationService;
@@ -143,6 +175,7 @@ public class MapCommandService implements IMapCommandService
         this.sessionService = sessionService;
         this.hubMappingDialogViewModel = hubMappingDialog;
         this.selectionService = selectionService;
+        this.metricsService = metricsService;
         this.Initialize();
     }
     
@@ -156,7 +189,15 @@ public class MapCommandService implements IMapCommandService
         Observable.combineLatest(this.sessionService.HasAnyOpenSessionObservable().startWith(this.sessionService.HasAnyOpenSession()), 
                     this.hubController.GetIsSessionOpenObservable().startWith(this.hubController.GetIsSessionOpen()),
                 (hasAnyOpenSession, isHubSessionOpen) -> hasAnyOpenSession && isHubSessionOpen)
-        .subscribe(x -> this.canExecute.Value(x), x -> this.logger.catching(x));
+        .subscribe(x -> 
+        {
+            if(Boolean.FALSE.equals(x))
+            {
+                this.ShutdownMappingPool();
+            }
+            
+            this.canExecute.Value(x);
+        }, x -> this.logger.catching(x));
     }
     
     /**
@@ -292,6 +333,7 @@ public class MapCommandService implements IMapCommandService
                 .filter(m -> m.GetIsValid())
                 .collect(Collectors.toList());
 
+        this.metricsService.Clear();
         StopWatch timer = StopWatch.createStarted();
         
         Task.Run(() -> this.MapSelectedElements(validMappedElements, mappingDirection), boolean.class)
@@ -309,6 +351,7 @@ public class MapCommandService implements IMapCommandService
                 }
                 
                 this.logService.Append(String.format("Mapping action is done in %s ms", timer.getTime(TimeUnit.MILLISECONDS)), Boolean.TRUE.equals(t.GetResult()));
+                this.logService.Append(this.metricsService.GetSummary());
                 
             }, t -> this.logger.catching(t));
     }
@@ -395,18 +438,103 @@ public class MapCommandService implements IMapCommandService
                 .map(x -> (MappedElementDefinitionRowViewModel)x)
                 .collect(Collectors.toList()));
         
+        List<Pair<String, IMappableThingCollection>> groups = new ArrayList<>();
+        
         if(!mappedDstRequirements.getRight().isEmpty())
         {
             this.logService.Append("Mapping of %s Requirements in progress...", mappedDstRequirements.getRight().size());
-            result &= this.dstController.Map(mappedDstRequirements, MappingDirection.FromDstToHub);
+            groups.add(Pair.of("Requirements", mappedDstRequirements));
         }
         
         if(!mappedComponents.isEmpty())
         {
             this.logService.Append("Mapping of %s Blocks in progress...", mappedComponents.size());
-            result &= this.dstController.Map(mappedComponents, MappingDirection.FromDstToHub);
+            groups.add(Pair.of("Blocks", mappedComponents));
+        }
+        
+        return this.MapGroups(groups, MappingDirection.FromDstToHub);
+    }
+
+    /**
+     * Calls the {@linkplain IDstController} to map each of the provided groups of elements. The groups map to disjoint outputs, 
+     * so unless {@linkplain #parallelism} is 1, their mapping rules run concurrently on the {@linkplain #mappingPool}
+     * and their results are then assigned one group at a time in the order of the groups
+     * 
+     * @param groups the {@linkplain List} of group name and {@linkplain IMappableThingCollection} to be mapped
+     * @param mappingDirection the applicable {@linkplain MappingDirection}
+     * @return a value indicating whether the mapping operation went ok for all the groups
+     */
+    boolean MapGroups(List<Pair<String, IMappableThingCollection>> groups, MappingDirection mappingDirection)
+    {
+        boolean result = true;
+        
+        if(this.parallelism < 2 || groups.size() < 2)
+        {
+            for (Pair<String, IMappableThingCollection> group : groups)
+            {
+                result &= this.dstController.Map(group.getRight(), mappingDirection);
+            }
+            
+            return result;
+        }
+        
+        List<ForkJoinTask<Collection<MappedElementRowViewModel<DefinedThing, Class>>>> tasks = new ArrayList<>();
+        
+        for (Pair<String, IMappableThingCollection> group : groups)
+        {
+            tasks.add(this.GetMappingPool().submit(() -> this.dstController.PreMap(group.getRight())));
+        }
+        
+        for (int index = 0; index < groups.size(); index++)
+        {
+            Pair<String, IMappableThingCollection> group = groups.get(index);
+            
+            try
+            {
+                result &= this.dstController.Map(group.getRight(), tasks.get(index).get(), mappingDirection);
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+                this.logService.Append(String.format("The mapping of the %s has been interrupted", group.getLeft()), false);
+                result = false;
+            }
+            catch (ExecutionException exception)
+            {
+                this.logService.Append(String.format("The mapping of the %s has failed because %s", group.getLeft(), exception.getCause()), false);
+                this.logger.catching(exception.getCause());
+                result = false;
+            }
         }
         
         return result;
     }
+
+    /**
+     * Gets the {@linkplain ForkJoinPool} bounded to {@linkplain #parallelism} that runs the mapping rule of each group of elements
+     * 
+     * @return a {@linkplain ForkJoinPool}
+     */
+    private synchronized ForkJoinPool GetMappingPool()
+    {
+        if(this.mappingPool == null)
+        {
+            this.mappingPool = new ForkJoinPool(this.parallelism);
+        }
+        
+        return this.mappingPool;
+    }
+    
+    /**
+     * Shuts down the {@linkplain #mappingPool} once either session is closed, the groups being mapped complete 
+     * and the next mapping creates a new one
+     */
+    private synchronized void ShutdownMappingPool()
+    {
+        if(this.mappingPool != null)
+        {
+            this.mappingPool.shutdown();
+            this.mappingPool = null;
+        }
+    }
 }
@@ -215,7 +215,7 @@ public class MagicDrawMappingConfigurationService extends MappingConfigurationSe
 
             if(this.hubController.TryGetThingById(internalId, refHubRequirement))
             {
-                mappedElement.SetHubElement(refHubRequirement.Get().clone(true));
+                mappedElement.SetHubElement(refHubRequirement.Get().clone(false));
             }
             
             refMappedElementRowViewModel.Set(mappedElement);
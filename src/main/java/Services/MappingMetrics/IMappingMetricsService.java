@@ -0,0 +1,66 @@
+/*
+ * IMappingMetricsService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.MappingMetrics;
+
+import java.util.List;
+
+/**
+ * The {@linkplain IMappingMetricsService} is the interface definition for the {@linkplain MappingMetricsService}
+ */
+public interface IMappingMetricsService
+{
+    /**
+     * Registers the provided {@linkplain MappingRuleMetrics} measured during one invocation of a mapping rule
+     * 
+     * @param metrics the {@linkplain MappingRuleMetrics}
+     */
+    void Register(MappingRuleMetrics metrics);
+
+    /**
+     * Gets the registered {@linkplain MappingRuleMetrics} in the order the mapping rules were invoked
+     * 
+     * @return a {@linkplain List} of {@linkplain MappingRuleMetrics}
+     */
+    List<MappingRuleMetrics> GetMetrics();
+
+    /**
+     * Gets the registered {@linkplain MappingRuleMetrics} of the mapping rule that has the provided name
+     * 
+     * @param ruleName the name of the mapping rule
+     * @return a {@linkplain List} of {@linkplain MappingRuleMetrics}
+     */
+    List<MappingRuleMetrics> GetMetrics(String ruleName);
+
+    /**
+     * Clears the registered {@linkplain MappingRuleMetrics}
+     */
+    void Clear();
+
+    /**
+     * Gets a summary table of the registered {@linkplain MappingRuleMetrics}, one line per mapping rule invocation
+     * 
+     * @return a {@linkplain String}
+     */
+    String GetSummary();
+}
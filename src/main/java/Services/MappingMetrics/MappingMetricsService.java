@@ -0,0 +1,124 @@
+/*
+ * MappingMetricsService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.MappingMetrics;
+
+import static Utils.Operators.Operators.AreTheseEquals;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The {@linkplain MappingMetricsService} collects the {@linkplain MappingRuleMetrics} measured by the mapping rules
+ */
+public class MappingMetricsService implements IMappingMetricsService
+{
+    /**
+     * The maximum number of {@linkplain MappingRuleMetrics} kept, the oldest ones are dropped first
+     */
+    private static final int MaximumNumberOfMetrics = 1000;
+    
+    /**
+     * The format of one line of the summary table
+     */
+    private static final String SummaryLineFormat = "%-55s %8s %8s %10s %16s %17s %8s";
+    
+    /**
+     * The registered {@linkplain MappingRuleMetrics}
+     */
+    private final Deque<MappingRuleMetrics> metrics = new ArrayDeque<>();
+
+    /**
+     * Registers the provided {@linkplain MappingRuleMetrics} measured during one invocation of a mapping rule
+     * 
+     * @param metrics the {@linkplain MappingRuleMetrics}
+     */
+    @Override
+    public synchronized void Register(MappingRuleMetrics metrics)
+    {
+        if(this.metrics.size() >= MaximumNumberOfMetrics)
+        {
+            this.metrics.removeFirst();
+        }
+        
+        this.metrics.addLast(metrics);
+    }
+
+    /**
+     * Gets the registered {@linkplain MappingRuleMetrics} in the order the mapping rules were invoked
+     * 
+     * @return a {@linkplain List} of {@linkplain MappingRuleMetrics}
+     */
+    @Override
+    public synchronized List<MappingRuleMetrics> GetMetrics()
+    {
+        return new ArrayList<>(this.metrics);
+    }
+
+    /**
+     * Gets the registered {@linkplain MappingRuleMetrics} of the mapping rule that has the provided name
+     * 
+     * @param ruleName the name of the mapping rule
+     * @return a {@linkplain List} of {@linkplain MappingRuleMetrics}
+     */
+    @Override
+    public synchronized List<MappingRuleMetrics> GetMetrics(String ruleName)
+    {
+        return this.metrics.stream()
+                .filter(x -> AreTheseEquals(x.GetRuleName(), ruleName))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Clears the registered {@linkplain MappingRuleMetrics}
+     */
+    @Override
+    public synchronized void Clear()
+    {
+        this.metrics.clear();
+    }
+
+    /**
+     * Gets a summary table of the registered {@linkplain MappingRuleMetrics}, one line per mapping rule invocation
+     * 
+     * @return a {@linkplain String}
+     */
+    @Override
+    public synchronized String GetSummary()
+    {
+        StringBuilder summary = new StringBuilder(String.format(SummaryLineFormat, 
+                "Mapping rule", "Inputs", "Outputs", "Time (ms)", "Hub round trips", "Full model scans", "Clones"));
+        
+        for (MappingRuleMetrics ruleMetrics : this.metrics)
+        {
+            summary.append(System.lineSeparator()).append(String.format(SummaryLineFormat, ruleMetrics.GetRuleName(), 
+                    ruleMetrics.GetInputCount(), ruleMetrics.GetOutputCount(), ruleMetrics.GetElapsedMilliseconds(), 
+                    ruleMetrics.GetNumberOfHubRoundTrips(), ruleMetrics.GetNumberOfFullModelScans(), ruleMetrics.GetNumberOfClones()));
+        }
+        
+        return summary.toString();
+    }
+}
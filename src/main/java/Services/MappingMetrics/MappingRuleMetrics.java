@@ -0,0 +1,183 @@
+/*
+ * MappingRuleMetrics.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.MappingMetrics;
+
+/**
+ * The {@linkplain MappingRuleMetrics} holds the figures measured during one invocation of a mapping rule
+ */
+public class MappingRuleMetrics
+{
+    /**
+     * Backing field for {@linkplain #GetRuleName()}
+     */
+    private final String ruleName;
+
+    /**
+     * Backing field for {@linkplain #GetInputCount()}
+     */
+    private final int inputCount;
+
+    /**
+     * Backing field for {@linkplain #GetOutputCount()}
+     */
+    private int outputCount;
+
+    /**
+     * Backing field for {@linkplain #GetElapsedMilliseconds()}
+     */
+    private long elapsedMilliseconds;
+
+    /**
+     * Backing field for {@linkplain #GetNumberOfHubRoundTrips()}
+     */
+    private int numberOfHubRoundTrips;
+
+    /**
+     * Backing field for {@linkplain #GetNumberOfFullModelScans()}
+     */
+    private int numberOfFullModelScans;
+
+    /**
+     * Backing field for {@linkplain #GetNumberOfClones()}
+     */
+    private int numberOfClones;
+
+    /**
+     * Initializes a new {@linkplain MappingRuleMetrics}
+     * 
+     * @param ruleName the name of the measured mapping rule
+     * @param inputCount the number of things the mapping rule received
+     */
+    public MappingRuleMetrics(String ruleName, int inputCount)
+    {
+        this.ruleName = ruleName;
+        this.inputCount = inputCount;
+    }
+
+    /**
+     * Gets the name of the measured mapping rule
+     * 
+     * @return a {@linkplain String}
+     */
+    public String GetRuleName()
+    {
+        return this.ruleName;
+    }
+
+    /**
+     * Gets the number of things the mapping rule received
+     * 
+     * @return an int
+     */
+    public int GetInputCount()
+    {
+        return this.inputCount;
+    }
+
+    /**
+     * Gets the number of things the mapping rule returned
+     * 
+     * @return an int
+     */
+    public int GetOutputCount()
+    {
+        return this.outputCount;
+    }
+
+    /**
+     * Gets the wall time the mapping rule took in milliseconds
+     * 
+     * @return a long
+     */
+    public long GetElapsedMilliseconds()
+    {
+        return this.elapsedMilliseconds;
+    }
+
+    /**
+     * Gets the number of round trips to the hub the mapping rule made
+     * 
+     * @return an int
+     */
+    public int GetNumberOfHubRoundTrips()
+    {
+        return this.numberOfHubRoundTrips;
+    }
+
+    /**
+     * Gets the number of times the mapping rule went through all the elements of the MagicDraw project or of the hub iteration
+     * 
+     * @return an int
+     */
+    public int GetNumberOfFullModelScans()
+    {
+        return this.numberOfFullModelScans;
+    }
+
+    /**
+     * Gets the number of things the mapping rule cloned
+     * 
+     * @return an int
+     */
+    public int GetNumberOfClones()
+    {
+        return this.numberOfClones;
+    }
+
+    /**
+     * Counts one round trip to the hub
+     */
+    public void IncrementNumberOfHubRoundTrips()
+    {
+        this.numberOfHubRoundTrips++;
+    }
+
+    /**
+     * Counts one scan of all the elements of the MagicDraw project or of the hub iteration
+     */
+    public void IncrementNumberOfFullModelScans()
+    {
+        this.numberOfFullModelScans++;
+    }
+
+    /**
+     * Counts one cloned thing
+     */
+    public void IncrementNumberOfClones()
+    {
+        this.numberOfClones++;
+    }
+
+    /**
+     * Completes these {@linkplain MappingRuleMetrics} once the mapping rule has returned
+     * 
+     * @param outputCount the number of things the mapping rule returned
+     * @param elapsedMilliseconds the wall time the mapping rule took in milliseconds
+     */
+    public void Complete(int outputCount, long elapsedMilliseconds)
+    {
+        this.outputCount = outputCount;
+        this.elapsedMilliseconds = elapsedMilliseconds;
+    }
+}
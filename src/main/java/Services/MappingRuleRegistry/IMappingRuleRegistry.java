@@ -0,0 +1,52 @@
+/*
+ * IMappingRuleRegistry.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.MappingRuleRegistry;
+
+import java.util.Map;
+import java.util.Optional;
+
+import Services.MappingEngineService.IMappableThingCollection;
+import Services.MappingEngineService.MappingRule;
+
+/**
+ * The {@linkplain IMappingRuleRegistry} is the interface definition for the {@linkplain MappingRuleRegistry}
+ */
+public interface IMappingRuleRegistry
+{
+    /**
+     * Gets the type of the {@linkplain MappingRule} that transforms the provided type of {@linkplain IMappableThingCollection}, 
+     * that is the rule registered for the closest type the provided type is assignable to
+     * 
+     * @param inputType the type of {@linkplain IMappableThingCollection} to map
+     * @return an {@linkplain Optional} type of {@linkplain MappingRule}
+     */
+    Optional<Class<? extends MappingRule<?, ?>>> GetRuleType(Class<?> inputType);
+
+    /**
+     * Gets all the registered {@linkplain MappingRule} types keyed by the type of {@linkplain IMappableThingCollection} they transform
+     * 
+     * @return a read only {@linkplain Map} of input type and {@linkplain MappingRule} type
+     */
+    Map<Class<?>, Class<? extends MappingRule<?, ?>>> GetRuleTypes();
+}
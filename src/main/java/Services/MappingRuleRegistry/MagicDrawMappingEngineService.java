@@ -0,0 +1,104 @@
+/*
+ * MagicDrawMappingEngineService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.MappingRuleRegistry;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import App.AppContainer;
+import Services.MappingEngineService.IMappableThingCollection;
+import Services.MappingEngineService.IMappingEngineService;
+import Services.MappingEngineService.MappingRule;
+
+/**
+ * The {@linkplain MagicDrawMappingEngineService} dispatches the {@linkplain IMappableThingCollection} to map 
+ * to the {@linkplain MappingRule} declared in the {@linkplain IMappingRuleRegistry}
+ */
+public class MagicDrawMappingEngineService implements IMappingEngineService
+{
+    /**
+     * The current class logger
+     */
+    private Logger logger = LogManager.getLogger();
+
+    /**
+     * The {@linkplain IMappingRuleRegistry}
+     */
+    private final IMappingRuleRegistry ruleRegistry;
+
+    /**
+     * Initializes a new {@linkplain MagicDrawMappingEngineService}
+     * 
+     * @param ruleRegistry the {@linkplain IMappingRuleRegistry}
+     */
+    public MagicDrawMappingEngineService(IMappingRuleRegistry ruleRegistry)
+    {
+        this.ruleRegistry = ruleRegistry;
+    }
+
+    /**
+     * Maps the provided {@linkplain IMappableThingCollection} with the {@linkplain MappingRule} registered for its type
+     * 
+     * @param input the {@linkplain IMappableThingCollection} to map
+     * @return the output of the {@linkplain MappingRule}, or null when no rule is registered for the input
+     */
+    @Override
+    public Object Map(IMappableThingCollection input)
+    {
+        if(input == null)
+        {
+            return null;
+        }
+        
+        Class<? extends MappingRule<?, ?>> ruleType = this.ruleRegistry.GetRuleType(input.getClass()).orElse(null);
+        
+        if(ruleType == null)
+        {
+            this.logger.error(String.format("No mapping rule is registered for %s", input.getClass().getSimpleName()));
+            return null;
+        }
+        
+        MappingRule<?, ?> rule = this.GetRule(ruleType);
+        
+        if(rule == null)
+        {
+            this.logger.error(String.format("The mapping rule %s could not be resolved", ruleType.getSimpleName()));
+            return null;
+        }
+        
+        return rule.Transform(input);
+    }
+
+    /**
+     * Resolves an instance of the provided {@linkplain MappingRule} type
+     * 
+     * @param ruleType the type of {@linkplain MappingRule}
+     * @return a {@linkplain MappingRule} instance
+     */
+    protected MappingRule<?, ?> GetRule(Class<? extends MappingRule<?, ?>> ruleType)
+    {
+        Object rule = AppContainer.Container.getComponent(ruleType.getName());
+        return ruleType.isInstance(rule) ? ruleType.cast(rule) : null;
+    }
+}
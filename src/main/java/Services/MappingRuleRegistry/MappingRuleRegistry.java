@@ -0,0 +1,115 @@
+/*
+ * MappingRuleRegistry.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.MappingRuleRegistry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import MappingRules.BinaryRelationshipsToDirectedRelationshipsMappingRule;
+import MappingRules.BlockToElementMappingRule;
+import MappingRules.DirectedRelationshipsToBinaryRelationshipsMappingRule;
+import MappingRules.DstRequirementToHubRequirementMappingRule;
+import MappingRules.ElementToBlockMappingRule;
+import MappingRules.HubRequirementToDstRequirementMappingRule;
+import Services.MappingEngineService.IMappableThingCollection;
+import Services.MappingEngineService.MappingRule;
+import Utils.Stereotypes.HubElementCollection;
+import Utils.Stereotypes.HubRelationshipElementsCollection;
+import Utils.Stereotypes.HubRequirementCollection;
+import Utils.Stereotypes.MagicDrawBlockCollection;
+import Utils.Stereotypes.MagicDrawRelatedElementCollection;
+import Utils.Stereotypes.MagicDrawRequirementCollection;
+
+/**
+ * The {@linkplain MappingRuleRegistry} declares which {@linkplain MappingRule} transforms which type of {@linkplain IMappableThingCollection}.
+ * The rules are declared explicitly so that no package has to be scanned at plugin start, a rule lookup walks up the type hierarchy of the input
+ * until it reaches a registered input type, so that a rule also transforms the subtypes of the type it is registered for
+ */
+public class MappingRuleRegistry implements IMappingRuleRegistry
+{
+    /**
+     * The {@linkplain MappingRule} types keyed by the type of {@linkplain IMappableThingCollection} they transform
+     */
+    private final Map<Class<?>, Class<? extends MappingRule<?, ?>>> ruleTypes = new HashMap<>();
+
+    /**
+     * Initializes a new {@linkplain MappingRuleRegistry}
+     */
+    public MappingRuleRegistry()
+    {
+        this.Register(MagicDrawBlockCollection.class, BlockToElementMappingRule.class);
+        this.Register(MagicDrawRequirementCollection.class, DstRequirementToHubRequirementMappingRule.class);
+        this.Register(MagicDrawRelatedElementCollection.class, DirectedRelationshipsToBinaryRelationshipsMappingRule.class);
+        this.Register(HubElementCollection.class, ElementToBlockMappingRule.class);
+        this.Register(HubRequirementCollection.class, HubRequirementToDstRequirementMappingRule.class);
+        this.Register(HubRelationshipElementsCollection.class, BinaryRelationshipsToDirectedRelationshipsMappingRule.class);
+    }
+
+    /**
+     * Registers the provided {@linkplain MappingRule} type as the one that transforms the provided input type
+     * 
+     * @param inputType the type of {@linkplain IMappableThingCollection} the rule transforms
+     * @param ruleType the type of {@linkplain MappingRule}
+     */
+    private void Register(Class<? extends IMappableThingCollection> inputType, Class<? extends MappingRule<?, ?>> ruleType)
+    {
+        this.ruleTypes.put(inputType, ruleType);
+    }
+
+    /**
+     * Gets the type of the {@linkplain MappingRule} that transforms the provided type of {@linkplain IMappableThingCollection}, 
+     * that is the rule registered for the closest type the provided type is assignable to
+     * 
+     * @param inputType the type of {@linkplain IMappableThingCollection} to map
+     * @return an {@linkplain Optional} type of {@linkplain MappingRule}
+     */
+    @Override
+    public Optional<Class<? extends MappingRule<?, ?>>> GetRuleType(Class<?> inputType)
+    {
+        for (Class<?> type = inputType; type != null; type = type.getSuperclass())
+        {
+            Class<? extends MappingRule<?, ?>> ruleType = this.ruleTypes.get(type);
+            
+            if(ruleType != null)
+            {
+                return Optional.of(ruleType);
+            }
+        }
+        
+        return Optional.empty();
+    }
+
+    /**
+     * Gets all the registered {@linkplain MappingRule} types keyed by the type of {@linkplain IMappableThingCollection} they transform
+     * 
+     * @return a read only {@linkplain Map} of input type and {@linkplain MappingRule} type
+     */
+    @Override
+    public Map<Class<?>, Class<? extends MappingRule<?, ?>>> GetRuleTypes()
+    {
+        return Collections.unmodifiableMap(this.ruleTypes);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * CircularDependencyValidationCache.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.ModelConsistency;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The {@linkplain CircularDependencyValidationCache} persists the result of the circular dependency validation
+ * in the adapter local data directory, keyed by a structural fingerprint of the block/part property graph
+ */
+public class CircularDependencyValidationCache
+{
+    /**
+     * The default directory where the validation results are stored
+     */
+    public static final Path DefaultDirectory = Paths.get(System.getProperty("user.home"), ".DEH-MDSYSML", "CircularDependencyValidation");
+
+    /**
+     * The maximum number of cached results that are kept in the {@linkplain #directory}
+     */
+    private static final int MaximumNumberOfCachedResults = 16;
+
+    /**
+     * The extension of the files holding one cached result
+     */
+    private static final String FileExtension = ".cache";
+
+    /**
+     * The separator between the ids of the elements of one invalid path
+     */
+    private static final String Separator = "\t";
+
+    /**
+     * This current class logger
+     */
+    private Logger logger = LogManager.getLogger();
+
+    /**
+     * The {@linkplain Path} of the directory where the validation results are stored
+     */
+    private final Path directory;
+
+    /**
+     * Initializes a new {@linkplain CircularDependencyValidationCache}
+     *
+     * @param directory the {@linkplain Path} of the directory where the validation results are stored
+     */
+    public CircularDependencyValidationCache(Path directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Computes the fingerprint of the provided structural entries
+     *
+     * @param entries the ordered {@linkplain Collection} of {@linkplain String} that describes the block/part property graph
+     * @return the fingerprint as an hexadecimal {@linkplain String}
+     */
+    public String ComputeFingerprint(Collection<String> entries)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+
+            for (String entry : entries)
+            {
+                digest.update(entry.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+
+            StringBuilder fingerprint = new StringBuilder();
+
+            for (byte value : digest.digest())
+            {
+                fingerprint.append(String.format("%02x", value));
+            }
+
+            return fingerprint.toString();
+        }
+        catch (NoSuchAlgorithmException exception)
+        {
+            this.logger.catching(exception);
+            return null;
+        }
+    }
+
+    /**
+     * Loads the invalid paths stored under the provided fingerprint and marks them as the most recently used result
+     *
+     * @param fingerprint the fingerprint of the block/part property graph
+     * @return an {@linkplain Optional} {@linkplain List} of invalid path where each path is represented by the ids of its elements,
+     * the first one being the id of the top block
+     */
+    public Optional<List<List<String>>> Load(String fingerprint)
+    {
+        if(fingerprint == null)
+        {
+            return Optional.empty();
+        }
+
+        Path file = this.directory.resolve(fingerprint + FileExtension);
+
+        if(!Files.isRegularFile(file))
+        {
+            return Optional.empty();
+        }
+
+        try
+        {
+            List<List<String>> invalidPaths = new ArrayList<>();
+
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8))
+            {
+                if(!line.isEmpty())
+                {
+                    invalidPaths.add(Arrays.asList(line.split(Separator)));
+                }
+            }
+            
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+
+            return Optional.of(invalidPaths);
+        }
+        catch (IOException exception)
+        {
+            this.logger.catching(exception);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Stores the provided invalid paths under the provided fingerprint
+     *
+     * @param fingerprint the fingerprint of the block/part property graph
+     * @param invalidPaths the {@linkplain Collection} of invalid path where each path is represented by the ids of its elements,
+     * the first one being the id of the top block
+     */
+    public void Save(String fingerprint, Collection<List<String>> invalidPaths)
+    {
+        if(fingerprint == null)
+        {
+            return;
+        }
+
+        try
+        {
+            Files.createDirectories(this.directory);
+
+            Files.write(this.directory.resolve(fingerprint + FileExtension),
+                    invalidPaths.stream().map(x -> String.join(Separator, x)).collect(Collectors.toList()), StandardCharsets.UTF_8);
+
+            this.DeleteLeastRecentlyUsedResults();
+        }
+        catch (IOException exception)
+        {
+            this.logger.catching(exception);
+        }
+    }
+
+    /**
+     * Deletes the least recently used cached results so that no more than {@linkplain #MaximumNumberOfCachedResults} are kept
+     *
+     * @throws IOException
+     */
+    private void DeleteLeastRecentlyUsedResults() throws IOException
+    {
+        try(Stream<Path> files = Files.list(this.directory))
+        {
+            List<Path> cachedResults = files
+                    .filter(x -> x.getFileName().toString().endsWith(FileExtension))
+                    .sorted(Comparator.comparing((Path x) -> x.toFile().lastModified()).reversed())
+                    .collect(Collectors.toList());
+
+            for (Path file : cachedResults.stream().skip(MaximumNumberOfCachedResults).collect(Collectors.toList()))
+            {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+}
@@ -23,16 +23,25 @@
  */
 package Services.ModelConsistency;
 
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.time.StopWatch;
@@ -48,8 +57,8 @@ import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
+import com.nomagic.uml2.impl.PropertyNames;
 
-import Reactive.ObservableCollection;
 import Services.MagicDrawSession.IMagicDrawSessionService;
 import Services.MagicDrawUILog.IMagicDrawUILogService;
 import Services.Stereotype.IStereotypeService;
@@ -57,9 +66,6 @@ import Utils.Stereotypes.Stereotypes;
 import Utils.Tasks.ObservableTask;
 import Utils.Tasks.Task;
 import Utils.Tasks.TaskStatus;
-import ViewModels.MagicDrawObjectBrowser.Interfaces.IElementRowViewModel;
-import ViewModels.MagicDrawObjectBrowser.Rows.RootRowViewModel;
-import ViewModels.ObjectBrowser.Interfaces.IHaveContainedRows;
 
 /**
  * The {@linkplain CircularDependencyValidationService} verify model consistency in terms of circular dependency between Parts in a given {@linkplain Package}
@@ -89,7 +95,7 @@ public class CircularDependencyValidationService implements ICircularDependencyV
     /**
      * A value indicating whether the validation process is in progress
      */
-    private boolean isValidationInProgress;
+    private volatile boolean isValidationInProgress;
 
     /**
      * The reference to the {@linkplain ObservableTask} that is responsible for the validation
@@ -97,9 +103,57 @@ public class CircularDependencyValidationService implements ICircularDependencyV
     private ObservableTask<Boolean> validationTask;
     
     /**
-     * Backing field for {@linkplain #GetInvalidPaths()}
+     * A value indicating whether {@linkplain #invalidPaths} holds the result of a validation that ran to completion,
+     * in which case it can be revalidated incrementally
      */
-    private ArrayListMultimap<Class, Collection<NamedElement>> invalidPaths = ArrayListMultimap.create();
+    private volatile boolean hasCompleteResult;
+    
+    /**
+     * The {@linkplain Set} of blocks that have changed since the last validation
+     */
+    private final Set<Class> changedBlocks = Collections.synchronizedSet(new HashSet<>());
+    
+    /**
+     * The {@linkplain CircularDependencyValidationState} of the last validation that ran to completion
+     */
+    private volatile CircularDependencyValidationState validatedState = new CircularDependencyValidationState();
+    
+    /**
+     * The identifier of the last started validation, only the result of that one gets published
+     */
+    private final AtomicLong lastValidationIdentifier = new AtomicLong();
+    
+    /**
+     * The name of the system property that allows to configure {@linkplain #parallelism}
+     */
+    public static final String ParallelismPropertyName = "DEHMDSYSML.CircularDependencyValidation.Parallelism";
+    
+    /**
+     * The maximum number of components of the block graph validated concurrently, 
+     * defaults to the number of available processors and can be set through {@linkplain #ParallelismPropertyName}
+     */
+    private final int parallelism = Math.max(1, Integer.getInteger(ParallelismPropertyName, Runtime.getRuntime().availableProcessors()));
+    
+    /**
+     * The {@linkplain ForkJoinPool} that runs the validation of each component of the block graph
+     */
+    private ForkJoinPool validationPool;
+    
+    /**
+     * The {@linkplain CircularDependencyValidationCache} that persists the validation results
+     */
+    private final CircularDependencyValidationCache validationCache;
+    
+    /**
+     * Backing field for {@linkplain #GetInvalidPaths()}, it is only replaced as a whole once a validation completes
+     */
+    private volatile ArrayListMultimap<Class, Collection<NamedElement>> invalidPaths = ArrayListMultimap.create();
+
+    /**
+     * The index of the Part {@linkplain Property} ids closing any of the {@linkplain #invalidPaths} and their owning chain keys,
+     * it is only replaced as a whole once a validation completes
+     */
+    private volatile Map<String, Set<String>> invalidPartProperties = null;
 
     /**
      * Gets the {@linkplain Map} of all invalid path found when {@linkplain #Validate()}.
@@ -119,13 +173,67 @@ public class CircularDependencyValidationService implements ICircularDependencyV
      * @param logService the {@linkplain IMagicDrawUILogService}
      */
     public CircularDependencyValidationService(IMagicDrawSessionService sessionService, IStereotypeService stereotypeService, IMagicDrawUILogService logService)
+    {
+        this(sessionService, stereotypeService, logService, new CircularDependencyValidationCache(CircularDependencyValidationCache.DefaultDirectory));
+    }
+    
+    /**
+     * Initializes a new {@linkplain CircularDependencyValidationService}
+     * 
+     * @param sessionService the {@linkplain IMagicDrawSessionService}
+     * @param stereotypeService the {@linkplain IStereotypeService}
+     * @param logService the {@linkplain IMagicDrawUILogService}
+     * @param validationCache the {@linkplain CircularDependencyValidationCache}
+     */
+    CircularDependencyValidationService(IMagicDrawSessionService sessionService, IStereotypeService stereotypeService, 
+            IMagicDrawUILogService logService, CircularDependencyValidationCache validationCache)
     {
         this.sessionService = sessionService;
         this.stereotypeService = stereotypeService;
         this.logService = logService;
+        this.validationCache = validationCache;
+        
+        this.sessionService.HasAnyOpenSessionObservable().subscribe(x -> 
+        {
+            if(Boolean.FALSE.equals(x))
+            {
+                this.ShutdownValidationPool();
+            }
+            
+            this.InitializeValidation(false);
+        });
         
-        this.sessionService.HasAnyOpenSessionObservable().subscribe(x -> this.InitializeValidation(false));        
         this.sessionService.ProjectSaved().subscribe(x -> this.InitializeValidation(true));
+        this.sessionService.ModelChanged().subscribe(this::RegisterChanges);
+    }
+
+    /**
+     * Registers the blocks affected by the provided {@linkplain PropertyChangeEvent}s so they get revalidated on the next save.
+     * Renaming a {@linkplain Property} has no effect on the part hierarchy, hence it is ignored
+     * 
+     * @param events the {@linkplain Collection} of {@linkplain PropertyChangeEvent}
+     */
+    void RegisterChanges(Collection<PropertyChangeEvent> events)
+    {
+        for (PropertyChangeEvent event : events)
+        {
+            if(!(event.getSource() instanceof Element) 
+                    || (event.getSource() instanceof Property && PropertyNames.NAME.equals(event.getPropertyName())))
+            {
+                continue;
+            }
+            
+            Element element = (Element)event.getSource();
+            
+            if(element instanceof Class)
+            {
+                this.changedBlocks.add((Class)element);
+            }
+            else if(element.getOwner() instanceof Class)
+            {
+                this.changedBlocks.add((Class)element.getOwner());
+            }
+        }
     }
 
     /**
@@ -143,6 +251,7 @@ public class CircularDependencyValidationService implements ICircularDependencyV
         if(this.isValidationInProgress && cancellationRequested && this.validationTask != null)
         {
             this.validationTask.Cancel();
+            this.hasCompleteResult = false;
         }
         else if (this.isValidationInProgress || (!cancellationRequested && this.validationTask != null))
         {
@@ -153,7 +262,23 @@ public class CircularDependencyValidationService implements ICircularDependencyV
 
         StopWatch timer = StopWatch.createStarted();
         
-        this.validationTask = Task.Create(() -> this.Validate(), Boolean.class);
+        if(cancellationRequested && this.hasCompleteResult)
+        {
+            Set<Class> blocksToRevalidate;
+            
+            synchronized (this.changedBlocks)
+            {
+                blocksToRevalidate = new HashSet<>(this.changedBlocks);
+                this.changedBlocks.clear();
+            }
+            
+            this.validationTask = Task.Create(() -> this.Validate(blocksToRevalidate), Boolean.class);
+        }
+        else
+        {
+            this.changedBlocks.clear();
+            this.validationTask = Task.Create(() -> this.Validate(), Boolean.class);
+        }
         
         this.validationTask.Observable()
             .subscribe(task -> WhenValidationIsFinished(timer, task));
@@ -213,22 +338,521 @@ public class CircularDependencyValidationService implements ICircularDependencyV
      */
     Boolean Validate()
     {
-        this.invalidPaths.clear();
+        long validationIdentifier = this.lastValidationIdentifier.incrementAndGet();
+        this.hasCompleteResult = false;
+        CircularDependencyValidationState state = new CircularDependencyValidationState();
+        
+        List<Property> allPartProperties = this.IndexPartProperties(state, this.sessionService.GetAllProjectElements().stream()
+                .filter(x -> this.IsBlockToValidate(x))
+                .map(Class.class::cast)
+                .collect(Collectors.toList()));
+        
+        this.IndexReachableBlocks(state);
+        Map<String, NamedElement> elementsById = new HashMap<>();
+        String fingerprint = this.ComputeFingerprint(state, elementsById);
+        
+        if(!this.TryLoadCachedResult(state, fingerprint, elementsById))
+        {
+            this.WalkThroughPartProperties(state, allPartProperties);
+            this.SaveResult(state, fingerprint);
+        }
+        
+        return this.PublishResult(validationIdentifier, state);
+    }
+    
+    /**
+     * Revalidates only the blocks that have changed and the blocks that contain them through their part hierarchy,
+     * the previous result is kept for all the other blocks
+     * 
+     * @param changedBlocks the {@linkplain Collection} of block that have changed since the last validation
+     * @return an assert
+     */
+    Boolean Validate(Collection<Class> changedBlocks)
+    {
+        long validationIdentifier = this.lastValidationIdentifier.incrementAndGet();
+        this.hasCompleteResult = false;
+        CircularDependencyValidationState state = new CircularDependencyValidationState(this.validatedState);
+        
+        Set<Class> affectedBlocks = this.GetAffectedBlocks(state, changedBlocks);
+        
+        for (Class block : affectedBlocks)
+        {
+            state.GetInvalidPaths().removeAll(block);
+            
+            for (Class type : state.GetPartPropertyTypes().getOrDefault(block, Collections.emptySet()))
+            {
+                state.GetPartPropertyTypeUsages().getOrDefault(type, Collections.emptySet()).remove(block);
+            }
+            
+            state.GetPartPropertyTypes().remove(block);
+            state.GetPartProperties().remove(block);
+        }
+        
+        this.WalkThroughPartProperties(state, this.IndexPartProperties(state, affectedBlocks.stream()
+                .filter(x -> !x.isInvalid() && this.IsBlockToValidate(x))
+                .collect(Collectors.toList())));
+        
+        this.IndexReachableBlocks(state);
+        
+        if(!affectedBlocks.isEmpty())
+        {
+            this.SaveResult(state, this.ComputeFingerprint(state, new HashMap<>()));
+        }
+        
+        return this.PublishResult(validationIdentifier, state);
+    }
+
+    /**
+     * Gets the provided blocks along with all the blocks that contain any of them, directly or not, through a Part {@linkplain Property}
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} of the running validation
+     * @param changedBlocks the {@linkplain Collection} of changed blocks
+     * @return a {@linkplain Set} of {@linkplain Class}
+     */
+    private Set<Class> GetAffectedBlocks(CircularDependencyValidationState state, Collection<Class> changedBlocks)
+    {
+        Set<Class> affectedBlocks = new HashSet<>(changedBlocks);
+        Deque<Class> blocksToVisit = new ArrayDeque<>(changedBlocks);
+        
+        while(!blocksToVisit.isEmpty())
+        {
+            for (Class owner : state.GetPartPropertyTypeUsages().getOrDefault(blocksToVisit.pop(), Collections.emptySet()))
+            {
+                if(affectedBlocks.add(owner))
+                {
+                    blocksToVisit.push(owner);
+                }
+            }
+        }
+        
+        return affectedBlocks;
+    }
+
+    /**
+     * Publishes the invalid paths of the provided {@linkplain CircularDependencyValidationState} along with their index so that queries never observe a partial result.
+     * Nothing is published when another validation has been started in the meantime, as it is the case when a validation gets cancelled
+     * 
+     * @param validationIdentifier the identifier of the validation that computed the provided {@linkplain CircularDependencyValidationState}
+     * @param state the {@linkplain CircularDependencyValidationState}
+     * @return a value indicating whether the model is free of circular dependency
+     */
+    private synchronized boolean PublishResult(long validationIdentifier, CircularDependencyValidationState state)
+    {
+        ArrayListMultimap<Class, Collection<NamedElement>> result = state.GetInvalidPaths();
+        
+        if(validationIdentifier != this.lastValidationIdentifier.get())
+        {
+            return result.isEmpty();
+        }
+        
+        this.invalidPartProperties = this.BuildInvalidPartPropertiesIndex(result);
+        this.invalidPaths = result;
+        this.validatedState = state;
+        this.hasCompleteResult = true;
+        return result.isEmpty();
+    }
+    
+    /**
+     * Builds the index of the Part {@linkplain Property} that close an invalid path. 
+     * Each one is mapped to the owning chain keys, made of the id of the top block followed by the id of each type block met along the path, 
+     * under which it cannot be expanded
+     * 
+     * @param paths the invalid paths
+     * @return a {@linkplain Map} of Part {@linkplain Property} id and owning chain keys
+     */
+    private Map<String, Set<String>> BuildInvalidPartPropertiesIndex(ArrayListMultimap<Class, Collection<NamedElement>> paths)
+    {
+        Map<String, Set<String>> index = new HashMap<>();
+        
+        for (Map.Entry<Class, Collection<NamedElement>> path : paths.entries())
+        {
+            StringBuilder owningChainKey = new StringBuilder(String.valueOf(path.getKey().getID()));
+            String closingPropertyOwningChainKey = null;
+            Property closingProperty = null;
+            int numberOfProperties = 0;
+            
+            for (NamedElement element : path.getValue())
+            {
+                if(element instanceof Property)
+                {
+                    closingProperty = (Property)element;
+                    closingPropertyOwningChainKey = owningChainKey.toString();
+                    numberOfProperties++;
+                }
+                else
+                {
+                    owningChainKey.append(OwningChainKeySeparator).append(element.getID());
+                }
+            }
+            
+            if(closingProperty == null)
+            {
+                continue;
+            }
+            
+            Set<String> owningChainKeys = index.computeIfAbsent(closingProperty.getID(), x -> new HashSet<>());
+            owningChainKeys.add(closingPropertyOwningChainKey);
+            
+            if(numberOfProperties == 1)
+            {
+                owningChainKeys.add(closingPropertyOwningChainKey + OwningChainKeySeparator + path.getKey().getID());
+            }
+        }
         
+        return Collections.unmodifiableMap(index);
+    }
+    
+    /**
+     * Verifies that the provided {@linkplain Element} is a block that takes part in the validation
+     * 
+     * @param element the {@linkplain Element}
+     * @return a value indicating whether the {@linkplain Element} has to be validated
+     */
+    private boolean IsBlockToValidate(Element element)
+    {
+        return this.stereotypeService.DoesItHaveTheStereotype(element, Stereotypes.Block) 
+                && !((Class)element).getName().contains("RollUp");
+    }
+    
+    /**
+     * Records the Part {@linkplain Property} of each provided block along with their type blocks
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} of the running validation
+     * @param blocks the {@linkplain Collection} of block to validate
+     * @return a {@linkplain List} of all the Part {@linkplain Property} owned by the provided blocks
+     */
+    private List<Property> IndexPartProperties(CircularDependencyValidationState state, Collection<Class> blocks)
+    {
         final Set<Property> allPartProperties = new HashSet<>();
 
-        for(Class element : this.sessionService.GetAllProjectElements().stream()
-                .filter(x -> this.stereotypeService.DoesItHaveTheStereotype(x, Stereotypes.Block) 
-                        && !((Class)x).getName().contains("RollUp"))
-                .map(Class.class::cast)
+        for(Class element : blocks)
+        {
+            List<Property> ownedPartProperties = this.GetOwnedPartProperties(element);
+            allPartProperties.addAll(ownedPartProperties);
+            state.GetPartProperties().put(element, ownedPartProperties);
+            
+            for (Property partProperty : ownedPartProperties)
+            {
+                if(partProperty.getType() instanceof Class)
+                {
+                    Class type = (Class)partProperty.getType();
+                    state.GetPartPropertyTypes().computeIfAbsent(element, x -> new HashSet<>()).add(type);
+                    state.GetPartPropertyTypeUsages().computeIfAbsent(type, x -> new HashSet<>()).add(element);
+                }
+            }
+        }
+        
+        return new ArrayList<>(allPartProperties);
+    }
+    
+    /**
+     * Records the type blocks of the Part {@linkplain Property} of every block the walk can reach from the recorded blocks, 
+     * such as the RollUp blocks that are not validated on their own, so that a change below them invalidates the blocks that contain them
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} of the running validation
+     */
+    private void IndexReachableBlocks(CircularDependencyValidationState state)
+    {
+        Set<Class> visitedBlocks = new HashSet<>(state.GetPartProperties().keySet());
+        Deque<Class> blocksToVisit = new ArrayDeque<>(visitedBlocks);
+        
+        while(!blocksToVisit.isEmpty())
+        {
+            Class block = blocksToVisit.pop();
+            
+            if(!state.GetPartProperties().containsKey(block))
+            {
+                for (Property partProperty : this.GetOwnedPartProperties(block))
+                {
+                    if(partProperty.getType() instanceof Class)
+                    {
+                        Class type = (Class)partProperty.getType();
+                        state.GetPartPropertyTypes().computeIfAbsent(block, x -> new HashSet<>()).add(type);
+                        state.GetPartPropertyTypeUsages().computeIfAbsent(type, x -> new HashSet<>()).add(block);
+                    }
+                }
+            }
+            
+            for (Class type : state.GetPartPropertyTypes().getOrDefault(block, Collections.emptySet()))
+            {
+                if(!visitedBlocks.contains(type) && this.stereotypeService.DoesItHaveTheStereotype(type, Stereotypes.Block))
+                {
+                    visitedBlocks.add(type);
+                    blocksToVisit.push(type);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Gets the Part {@linkplain Property} owned by the provided block
+     * 
+     * @param block the {@linkplain Class} block
+     * @return a {@linkplain List} of {@linkplain Property}
+     */
+    private List<Property> GetOwnedPartProperties(Class block)
+    {
+        return block.getOwnedAttribute().stream().filter(x -> this.stereotypeService.IsPartProperty(x)).collect(Collectors.toList());
+    }
+    
+    /**
+     * Computes the fingerprint of the recorded block/part property graph, extended to every block the walk can reach through the Part {@linkplain Property}
+     * of the recorded blocks, such as the RollUp blocks that are not validated on their own
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} of the running validation
+     * @param elementsById the {@linkplain Map} of id and {@linkplain NamedElement} to fill with the elements of the graph
+     * @return the fingerprint {@linkplain String}
+     */
+    private String ComputeFingerprint(CircularDependencyValidationState state, Map<String, NamedElement> elementsById)
+    {
+        Map<Class, List<Property>> partProperties = new HashMap<>(state.GetPartProperties());
+        Deque<Class> blocksToVisit = new ArrayDeque<>(partProperties.keySet());
+        
+        while(!blocksToVisit.isEmpty())
+        {
+            for (Property partProperty : partProperties.get(blocksToVisit.pop()))
+            {
+                if(partProperty.getType() instanceof Class && !partProperties.containsKey(partProperty.getType())
+                        && this.stereotypeService.DoesItHaveTheStereotype(partProperty.getType(), Stereotypes.Block))
+                {
+                    Class type = (Class)partProperty.getType();
+                    partProperties.put(type, this.GetOwnedPartProperties(type));
+                    blocksToVisit.push(type);
+                }
+            }
+        }
+        
+        List<String> entries = new ArrayList<>();
+        
+        for (Class block : partProperties.keySet().stream()
+                .sorted((x, y) -> String.valueOf(x.getID()).compareTo(String.valueOf(y.getID())))
                 .collect(Collectors.toList()))
         {
-            allPartProperties.addAll(element.getOwnedAttribute().stream().filter(x -> this.stereotypeService.IsPartProperty(x)).collect(Collectors.toList()));
+            entries.add(String.valueOf(block.getID()));
+            elementsById.put(block.getID(), block);
+            
+            for (Property partProperty : partProperties.get(block))
+            {
+                elementsById.put(partProperty.getID(), partProperty);
+                
+                String typeId = "";
+                
+                if(partProperty.getType() instanceof Class)
+                {
+                    Class type = (Class)partProperty.getType();
+                    elementsById.put(type.getID(), type);
+                    typeId = String.format("%s %s", type.getID(), this.stereotypeService.DoesItHaveTheStereotype(type, Stereotypes.Block));
+                }
+                
+                entries.add(String.format("%s %s %s", partProperty.getID(), 
+                        partProperty.getObjectParent() instanceof Class ? ((Class)partProperty.getObjectParent()).getID() : "", typeId));
+            }
+        }
+        
+        return this.validationCache.ComputeFingerprint(entries);
+    }
+    
+    /**
+     * Tries to load the invalid paths cached for the provided fingerprint 
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} of the running validation
+     * @param fingerprint the fingerprint of the block/part property graph
+     * @param elementsById the {@linkplain Map} of id and {@linkplain NamedElement} of the graph
+     * @return a value indicating whether the cached invalid paths have been loaded
+     */
+    private boolean TryLoadCachedResult(CircularDependencyValidationState state, String fingerprint, Map<String, NamedElement> elementsById)
+    {
+        Optional<List<List<String>>> cachedResult = this.validationCache.Load(fingerprint);
+        
+        if(!cachedResult.isPresent())
+        {
+            return false;
         }
         
-        ArrayList<MutablePair<Boolean, LinkedHashMap<String, NamedElement>>> nodes = new ArrayList<>();
+        ArrayListMultimap<Class, Collection<NamedElement>> cachedInvalidPaths = ArrayListMultimap.create();
+        
+        for (List<String> path : cachedResult.get())
+        {
+            NamedElement parentBlock = elementsById.get(path.get(0));
+            List<NamedElement> pathElements = path.stream().skip(1).map(elementsById::get).collect(Collectors.toList());
+            
+            if(!(parentBlock instanceof Class) || pathElements.contains(null))
+            {
+                return false;
+            }
+            
+            cachedInvalidPaths.put((Class)parentBlock, pathElements);
+        }
+        
+        state.GetInvalidPaths().putAll(cachedInvalidPaths);
+        this.logger.info(String.format("Circular dependency validation result loaded from the cache [%s]", fingerprint));
+        return true;
+    }
+    
+    /**
+     * Saves the invalid paths of the provided {@linkplain CircularDependencyValidationState} under the provided fingerprint
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} of the running validation
+     * @param fingerprint the fingerprint of the block/part property graph
+     */
+    private void SaveResult(CircularDependencyValidationState state, String fingerprint)
+    {
+        List<List<String>> invalidPathsIds = new ArrayList<>();
+        
+        for (Map.Entry<Class, Collection<NamedElement>> invalidPath : state.GetInvalidPaths().entries())
+        {
+            List<String> ids = new ArrayList<>();
+            ids.add(invalidPath.getKey().getID());
+            invalidPath.getValue().forEach(x -> ids.add(x.getID()));
+            invalidPathsIds.add(ids);
+        }
+        
+        this.validationCache.Save(fingerprint, invalidPathsIds);
+    }
+    
+    /**
+     * Walks through the part hierarchy from each provided Part {@linkplain Property} and records the invalid paths found.
+     * The Part {@linkplain Property} are grouped by weakly connected component of the block graph, each component is validated 
+     * concurrently on the {@linkplain #validationPool} and the results are merged in a deterministic order
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} of the running validation
+     * @param allPartProperties the {@linkplain Collection} of Part {@linkplain Property} to walk through
+     */
+    private void WalkThroughPartProperties(CircularDependencyValidationState state, Collection<Property> allPartProperties)
+    {
+        List<List<Property>> components = this.SplitIntoComponents(state, allPartProperties);
+        
+        if(this.parallelism < 2 || components.size() < 2)
+        {
+            components.forEach(x -> state.GetInvalidPaths().putAll(this.WalkThroughComponent(x)));
+            return;
+        }
+        
+        List<ForkJoinTask<ArrayListMultimap<Class, Collection<NamedElement>>>> tasks = new ArrayList<>();
+        
+        for (List<Property> component : components)
+        {
+            tasks.add(this.GetValidationPool().submit(() -> this.WalkThroughComponent(component)));
+        }
+        
+        for (ForkJoinTask<ArrayListMultimap<Class, Collection<NamedElement>>> task : tasks)
+        {
+            state.GetInvalidPaths().putAll(task.join());
+        }
+    }
+
+    /**
+     * Gets the {@linkplain ForkJoinPool} bounded to {@linkplain #parallelism} that runs the validation of each component
+     * 
+     * @return a {@linkplain ForkJoinPool}
+     */
+    private synchronized ForkJoinPool GetValidationPool()
+    {
+        if(this.validationPool == null)
+        {
+            this.validationPool = new ForkJoinPool(this.parallelism);
+        }
+        
+        return this.validationPool;
+    }
+    
+    /**
+     * Shuts down the {@linkplain #validationPool} once no project is open anymore, the components being validated complete 
+     * and the next validation creates a new one
+     */
+    private synchronized void ShutdownValidationPool()
+    {
+        if(this.validationPool != null)
+        {
+            this.validationPool.shutdown();
+            this.validationPool = null;
+        }
+    }
+    
+    /**
+     * Splits the provided Part {@linkplain Property} by weakly connected component of the recorded block graph. 
+     * Components are sorted by their smallest block id and the Part {@linkplain Property} of each component are sorted by id
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} of the running validation
+     * @param allPartProperties the {@linkplain Collection} of Part {@linkplain Property}
+     * @return a {@linkplain List} of component
+     */
+    private List<List<Property>> SplitIntoComponents(CircularDependencyValidationState state, Collection<Property> allPartProperties)
+    {
+        Map<Class, Class> roots = new HashMap<>();
+        
+        for (Map.Entry<Class, Set<Class>> blockTypes : state.GetPartPropertyTypes().entrySet())
+        {
+            for (Class type : blockTypes.getValue())
+            {
+                Class blockRoot = this.FindRoot(roots, blockTypes.getKey());
+                Class typeRoot = this.FindRoot(roots, type);
+                
+                if(blockRoot != typeRoot)
+                {
+                    roots.put(typeRoot, blockRoot);
+                }
+            }
+        }
+        
+        Map<Class, List<Property>> components = new HashMap<>();
+        Map<Class, String> componentIds = new HashMap<>();
         
         for (Property property : allPartProperties)
+        {
+            Class owner = property.getObjectParent() instanceof Class ? (Class)property.getObjectParent() : null;
+            Class root = owner != null ? this.FindRoot(roots, owner) : null;
+            components.computeIfAbsent(root, x -> new ArrayList<>()).add(property);
+            
+            String ownerId = owner != null ? String.valueOf(owner.getID()) : "";
+            componentIds.merge(root, ownerId, (x, y) -> x.compareTo(y) <= 0 ? x : y);
+        }
+        
+        Comparator<Property> propertyComparator = Comparator.comparing(x -> String.valueOf(x.getID()));
+        components.values().forEach(x -> x.sort(propertyComparator));
+        
+        return components.entrySet().stream()
+                .sorted(Comparator.comparing((Map.Entry<Class, List<Property>> x) -> componentIds.get(x.getKey())))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Finds the representative block of the component the provided block belongs to
+     * 
+     * @param roots the {@linkplain Map} of block and their parent in the component tree
+     * @param block the {@linkplain Class} block
+     * @return the representative {@linkplain Class}
+     */
+    private Class FindRoot(Map<Class, Class> roots, Class block)
+    {
+        Class root = block;
+        
+        while(roots.containsKey(root))
+        {
+            root = roots.get(root);
+        }
+        
+        if(root != block)
+        {
+            roots.put(block, root);
+        }
+        
+        return root;
+    }
+    
+    /**
+     * Walks through the part hierarchy from each Part {@linkplain Property} of one component
+     * 
+     * @param partProperties the {@linkplain Collection} of Part {@linkplain Property} of the component
+     * @return the invalid paths found in the component
+     */
+    private ArrayListMultimap<Class, Collection<NamedElement>> WalkThroughComponent(Collection<Property> partProperties)
+    {
+        ArrayListMultimap<Class, Collection<NamedElement>> result = ArrayListMultimap.create();
+        ArrayList<MutablePair<Boolean, LinkedHashMap<String, NamedElement>>> nodes = new ArrayList<>();
+        
+        for (Property property : partProperties)
         {            
             nodes.clear();
             
@@ -246,12 +870,11 @@ public class CircularDependencyValidationService implements ICircularDependencyV
             
             for(LinkedHashMap<String, NamedElement> path : nodes.stream().filter(x -> x.getKey()).map(x -> x.getRight()).collect(Collectors.toList()))
             {
-                this.invalidPaths.put(parentBlock, path.values().stream().skip(1).collect(Collectors.toList()));
+                result.put(parentBlock, path.values().stream().skip(1).collect(Collectors.toList()));
             }
-            
         }
         
-        return this.invalidPaths.isEmpty();
+        return result;
     }
 
     /**
@@ -306,6 +929,7 @@ public class CircularDependencyValidationService implements ICircularDependencyV
     public Pair<ArrayListMultimap<Class, Collection<NamedElement>>, Collection<Element>> FiltersInvalidElements(Collection<Element> elements)
     {
         ArrayListMultimap<Class, Collection<NamedElement>> invalidElements = ArrayListMultimap.create();
+        ArrayListMultimap<Class, Collection<NamedElement>> paths = this.invalidPaths;
         
         for (Class block : elements.stream()
                 .filter(x -> x instanceof Class)
@@ -313,9 +937,9 @@ public class CircularDependencyValidationService implements ICircularDependencyV
                 .collect(Collectors.toList()))
         {
 
-            if(this.invalidPaths.keySet().contains(block))
+            if(paths.keySet().contains(block))
             {
-                for(Collection<NamedElement> path : this.invalidPaths.get(block))
+                for(Collection<NamedElement> path : paths.get(block))
                 {
                     invalidElements.put(block, path);
                 }
@@ -328,50 +952,30 @@ public class CircularDependencyValidationService implements ICircularDependencyV
     }
     
     /**
-     * Verifies that the Part {@linkplain Property} is not involved in any recursion, if so verifies that the provided {@linkplain RootRowViewModel} 
-     * does not contains a row representing the {@linkplain Property}
+     * Verifies whether the provided Part {@linkplain Property} type is already present in the provided owning chain, 
+     * meaning that representing it under that owning chain would introduce a recursion.
+     * When the model has not changed since the last validation, this is a constant time lookup in the validation index.
      * 
-     * @param rootRowViewModel the Part {@linkplain RootRowViewModel}
-     * @param property the {@linkplain Property}
-     * @returns an assert
+     * @param property the Part {@linkplain Property}
+     * @param owningChainKey the owning chain key, made of the id of the top block followed by the id of each type block along the chain, 
+     * separated by {@linkplain #OwningChainKeySeparator}
+     * @return an assert
      */
     @Override
-    public boolean IsAlreadyPresent(RootRowViewModel rootRowViewModel, Property property)
+    public boolean IsAlreadyPresent(Property property, String owningChainKey)
     {
-        if(!this.invalidPaths.isEmpty() && !this.invalidPaths.containsKey(property.getObjectParent()))
+        Map<String, Set<String>> index = this.invalidPartProperties;
+        
+        if(index != null && !this.isValidationInProgress && this.changedBlocks.isEmpty())
         {
-            return false;
+            return index.getOrDefault(property.getID(), Collections.emptySet()).contains(owningChainKey);
         }
         
-        return this.IsAlreadyPresent(property, rootRowViewModel.GetContainedRows());
-    }
-
-    /**
-     * 
-     * Verifies that the Part {@linkplain Property} is not present in the provided {@linkplain ObservableCollection} of {@linkplain IElementRowViewModel}
-     * does not contains a row representing the {@linkplain Property}
-     * 
-     * @param property the {@linkplain Property}
-     * @param containedRows an {@linkplain ObservableCollection} of {@linkplain IElementRowViewModel}
-     * @return an assert
-     */
-    @SuppressWarnings("unchecked")
-    private boolean IsAlreadyPresent(Property property, ObservableCollection<IElementRowViewModel<?>> containedRows)
-    {
-        for (IElementRowViewModel<?> element : containedRows)
+        if(!(property.getType() instanceof Class) || owningChainKey == null)
         {
-            if(element.GetClassKind() == Stereotypes.PartProperty && 
-                    Utils.Operators.Operators.AreTheseEquals(element.GetElement().getID(), property.getID()))
-            {
-                return true;
-            }
-            
-            if(element instanceof IHaveContainedRows)
-            {
-                return this.IsAlreadyPresent(property, ((IHaveContainedRows<IElementRowViewModel<?>>) element).GetContainedRows());
-            }
+            return false;
         }
         
-        return false;
+        return Arrays.asList(owningChainKey.split(OwningChainKeySeparator)).contains(property.getType().getID());
     }
 }
@@ -0,0 +1,125 @@
+/*
+ * CircularDependencyValidationState.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.ModelConsistency;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
+
+/**
+ * The {@linkplain CircularDependencyValidationState} holds the block/part property graph recorded by one circular dependency validation
+ * along with the invalid paths it found. Each validation works on its own instance so that a cancelled validation never alters the one that replaces it
+ */
+class CircularDependencyValidationState
+{
+    /**
+     * The {@linkplain Map} of type blocks and the blocks that own at least one Part {@linkplain Property} typed by them
+     */
+    private final Map<Class, Set<Class>> partPropertyTypeUsages = new HashMap<>();
+
+    /**
+     * The {@linkplain Map} of blocks and the type blocks of their Part {@linkplain Property}
+     */
+    private final Map<Class, Set<Class>> partPropertyTypes = new HashMap<>();
+
+    /**
+     * The {@linkplain Map} of validated blocks and their Part {@linkplain Property}
+     */
+    private final Map<Class, List<Property>> partProperties = new HashMap<>();
+    
+    /**
+     * The invalid paths found by the validation
+     */
+    private final ArrayListMultimap<Class, Collection<NamedElement>> invalidPaths = ArrayListMultimap.create();
+
+    /**
+     * Gets the {@linkplain Map} of type blocks and the blocks that own at least one Part {@linkplain Property} typed by them
+     * 
+     * @return a {@linkplain Map} of {@linkplain Class} and {@linkplain Set} of {@linkplain Class}
+     */
+    Map<Class, Set<Class>> GetPartPropertyTypeUsages()
+    {
+        return this.partPropertyTypeUsages;
+    }
+
+    /**
+     * Gets the {@linkplain Map} of blocks and the type blocks of their Part {@linkplain Property}
+     * 
+     * @return a {@linkplain Map} of {@linkplain Class} and {@linkplain Set} of {@linkplain Class}
+     */
+    Map<Class, Set<Class>> GetPartPropertyTypes()
+    {
+        return this.partPropertyTypes;
+    }
+
+    /**
+     * Gets the {@linkplain Map} of validated blocks and their Part {@linkplain Property}
+     * 
+     * @return a {@linkplain Map} of {@linkplain Class} and {@linkplain List} of {@linkplain Property}
+     */
+    Map<Class, List<Property>> GetPartProperties()
+    {
+        return this.partProperties;
+    }
+
+    /**
+     * Gets the invalid paths found by the validation
+     * 
+     * @return an {@linkplain ArrayListMultimap} of {@linkplain Class} and {@linkplain Collection} of {@linkplain NamedElement}
+     */
+    ArrayListMultimap<Class, Collection<NamedElement>> GetInvalidPaths()
+    {
+        return this.invalidPaths;
+    }
+    
+    /**
+     * Initializes a new empty {@linkplain CircularDependencyValidationState}
+     */
+    CircularDependencyValidationState()
+    {
+    }
+
+    /**
+     * Initializes a new {@linkplain CircularDependencyValidationState} as a copy of the provided one, 
+     * so that it can be revalidated incrementally without altering the provided one
+     * 
+     * @param state the {@linkplain CircularDependencyValidationState} to copy
+     */
+    CircularDependencyValidationState(CircularDependencyValidationState state)
+    {
+        state.partPropertyTypeUsages.forEach((type, owners) -> this.partPropertyTypeUsages.put(type, new HashSet<>(owners)));
+        state.partPropertyTypes.forEach((block, types) -> this.partPropertyTypes.put(block, new HashSet<>(types)));
+        state.partProperties.forEach((block, properties) -> this.partProperties.put(block, new ArrayList<>(properties)));
+        this.invalidPaths.putAll(state.invalidPaths);
+    }
+}
@@ -34,23 +34,25 @@ import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
 
-import ViewModels.MagicDrawObjectBrowser.Rows.RootRowViewModel;
-
 /**
  * The {@linkplain ICircularDependencyValidationService} is the interface definition for the {@linkplain CircularDependencyValidationService}
  */
 public interface ICircularDependencyValidationService
 {
+    /**
+     * The separator between the ids that compose an owning chain key
+     */
+    String OwningChainKeySeparator = "/";
 
     /**
-     * Verifies that the Part {@linkplain Property} is not involved in any recursion, if so verifies that the provided {@linkplain RootRowViewModel} 
-     * does not contains a row representing the {@linkplain Property}
+     * Verifies whether the provided Part {@linkplain Property} type is already present in the provided owning chain, 
+     * meaning that representing it under that owning chain would introduce a recursion.
      * 
-     * @param rootRowViewModel the Part {@linkplain RootRowViewModel}
-     * @param property the {@linkplain Property}
-     * @returns an assert
+     * @param property the Part {@linkplain Property}
+     * @param owningChainKey the owning chain key, made of the id of the top block followed by the id of each type block along the chain
+     * @return an assert
      */
-    boolean IsAlreadyPresent(RootRowViewModel rootRowViewModel, Property property);
+    boolean IsAlreadyPresent(Property property, String owningChainKey);
 
     /**
      * Filters out the provided {@linkplain Collection} of {@linkplain Element}
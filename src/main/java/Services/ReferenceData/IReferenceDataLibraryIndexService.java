@@ -0,0 +1,48 @@
+/*
+ * IReferenceDataLibraryIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.ReferenceData;
+
+import Utils.Ref;
+import cdp4common.commondata.Thing;
+
+/**
+ * The {@linkplain IReferenceDataLibraryIndexService} is the interface definition for the {@linkplain ReferenceDataLibraryIndexService}
+ */
+public interface IReferenceDataLibraryIndexService
+{
+    /**
+     * Tries to get the {@linkplain Thing} of the type of the provided {@linkplain Ref} that has its name or short name equal to one of the provided names, ignoring the case
+     * 
+     * @param <TThing> the type of {@linkplain Thing} to look for
+     * @param refThing the {@linkplain Ref} acting as an out parameter here
+     * @param names the names to look for, in order of preference
+     * @return a value indicating whether the {@linkplain Thing} has been found
+     */
+    <TThing extends Thing> boolean TryGet(Ref<TThing> refThing, String... names);
+
+    /**
+     * Marks the index as outdated so it gets rebuilt on the next query, typically after reference data has been written to the hub
+     */
+    void Invalidate();
+}
@@ -0,0 +1,257 @@
+/*
+ * ReferenceDataLibraryIndexService.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.ReferenceData;
+
+import static Utils.Stereotypes.StereotypeUtils.GetCaseFoldedName;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import HubController.IHubController;
+import Utils.Ref;
+import cdp4common.commondata.Thing;
+import cdp4common.engineeringmodeldata.EngineeringModel;
+import cdp4common.engineeringmodeldata.Iteration;
+import cdp4common.sitedirectorydata.DefinedThing;
+import cdp4common.sitedirectorydata.ReferenceDataLibrary;
+
+/**
+ * The {@linkplain ReferenceDataLibraryIndexService} indexes the categories, parameter types, scales and units of the chain of rdls
+ * of the open {@linkplain Iteration} by {@linkplain Thing} class and by case-folded name and short name
+ */
+public class ReferenceDataLibraryIndexService implements IReferenceDataLibraryIndexService
+{
+    /**
+     * The current class logger
+     */
+    private final Logger logger = LogManager.getLogger();
+
+    /**
+     * The {@linkplain IHubController}
+     */
+    private final IHubController hubController;
+
+    /**
+     * The index of the reference data, keyed by each {@linkplain Thing} class of the indexed {@linkplain Thing}s and their case-folded name and short name.
+     * The first {@linkplain Thing} found along the chain of rdls is kept when several of them share the same key
+     */
+    private final Map<Pair<java.lang.Class<?>, String>, Thing> index = new HashMap<>();
+
+    /**
+     * The {@linkplain UUID} of the {@linkplain Iteration} the current index has been built for
+     */
+    private UUID indexedIterationId;
+
+    /**
+     * A value indicating whether the index has to be rebuilt before the next query
+     */
+    private boolean isOutdated = true;
+
+    /**
+     * Initializes a new {@linkplain ReferenceDataLibraryIndexService}
+     * 
+     * @param hubController the {@linkplain IHubController}
+     */
+    public ReferenceDataLibraryIndexService(IHubController hubController)
+    {
+        this.hubController = hubController;
+
+        this.hubController.GetIsSessionOpenObservable()
+        .subscribe(x -> 
+        {
+            if(Boolean.TRUE.equals(x))
+            {
+                this.Build();
+            }
+            else
+            {
+                this.Clear();
+            }
+        }, x -> this.logger.catching(x));
+
+        this.hubController.GetSessionEventObservable().subscribe(x -> this.Invalidate(), x -> this.logger.catching(x));
+    }
+
+    /**
+     * Tries to get the {@linkplain Thing} of the type of the provided {@linkplain Ref} that has its name or short name equal to one of the provided names, ignoring the case
+     * 
+     * @param <TThing> the type of {@linkplain Thing} to look for
+     * @param refThing the {@linkplain Ref} acting as an out parameter here
+     * @param names the names to look for, in order of preference
+     * @return a value indicating whether the {@linkplain Thing} has been found
+     */
+    @Override
+    public synchronized <TThing extends Thing> boolean TryGet(Ref<TThing> refThing, String... names)
+    {
+        if(this.isOutdated || !this.IsBuiltForOpenIteration())
+        {
+            this.Build();
+        }
+
+        for (String name : names)
+        {
+            if(name == null)
+            {
+                continue;
+            }
+            
+            Thing thing = this.index.get(Pair.of(refThing.GetType(), GetCaseFoldedName(name)));
+            
+            if(thing != null)
+            {
+                refThing.Set(refThing.GetType().cast(thing));
+                return true;
+            }
+        }
+        
+        return false;
+    }
+
+    /**
+     * Marks the index as outdated so it gets rebuilt on the next query, typically after reference data has been written to the hub
+     */
+    @Override
+    public synchronized void Invalidate()
+    {
+        this.isOutdated = true;
+    }
+
+    /**
+     * Builds the index from the chain of rdls of the open {@linkplain Iteration}
+     */
+    private synchronized void Build()
+    {
+        this.Clear();
+
+        try
+        {
+            for (ReferenceDataLibrary referenceDataLibrary : this.GetChainOfReferenceDataLibraries())
+            {
+                this.Add(referenceDataLibrary.getDefinedCategory());
+                this.Add(referenceDataLibrary.getParameterType());
+                this.Add(referenceDataLibrary.getScale());
+                this.Add(referenceDataLibrary.getUnit());
+            }
+
+            Iteration iteration = this.hubController.GetOpenIteration();
+            this.indexedIterationId = iteration != null ? iteration.getIid() : null;
+            this.isOutdated = false;
+        }
+        catch(Exception exception)
+        {
+            this.logger.catching(exception);
+        }
+    }
+
+    /**
+     * Clears the index
+     */
+    private synchronized void Clear()
+    {
+        this.index.clear();
+        this.indexedIterationId = null;
+        this.isOutdated = true;
+    }
+
+    /**
+     * Gets a value indicating whether the current index has been built for the open {@linkplain Iteration}
+     * 
+     * @return a value indicating whether the index matches the open {@linkplain Iteration}
+     */
+    private boolean IsBuiltForOpenIteration()
+    {
+        Iteration iteration = this.hubController.GetOpenIteration();
+        return iteration == null || iteration.getIid() == null || iteration.getIid().equals(this.indexedIterationId);
+    }
+
+    /**
+     * Adds the provided {@linkplain DefinedThing}s to the index under their class and each of their super classes up to {@linkplain Thing}, 
+     * the first {@linkplain DefinedThing} found for a name wins
+     * 
+     * @param things the {@linkplain Collection} of {@linkplain DefinedThing} to index
+     */
+    private void Add(Collection<? extends DefinedThing> things)
+    {
+        for (DefinedThing thing : things)
+        {
+            for (java.lang.Class<?> thingClass = thing.getClass(); thingClass != null && Thing.class.isAssignableFrom(thingClass); thingClass = thingClass.getSuperclass())
+            {
+                for (String name : Arrays.asList(thing.getName(), thing.getShortName()))
+                {
+                    if(name != null)
+                    {
+                        this.index.putIfAbsent(Pair.of(thingClass, GetCaseFoldedName(name)), thing);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the chain of rdls of the open {@linkplain Iteration} starting with the DEHP or model reference data library
+     * 
+     * @return a {@linkplain List} of {@linkplain ReferenceDataLibrary}
+     */
+    private List<ReferenceDataLibrary> GetChainOfReferenceDataLibraries()
+    {
+        List<ReferenceDataLibrary> chain = new ArrayList<>();
+        Set<ReferenceDataLibrary> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ReferenceDataLibrary> roots = new ArrayList<>();
+
+        roots.add(this.hubController.GetDehpOrModelReferenceDataLibrary());
+        
+        Iteration iteration = this.hubController.GetOpenIteration();
+        
+        if(iteration != null && iteration.getContainer() instanceof EngineeringModel
+                && ((EngineeringModel)iteration.getContainer()).getEngineeringModelSetup() != null)
+        {
+            roots.addAll(((EngineeringModel)iteration.getContainer()).getEngineeringModelSetup().getRequiredRdl());
+        }
+        
+        for (ReferenceDataLibrary root : roots)
+        {
+            ReferenceDataLibrary referenceDataLibrary = root;
+            
+            while(referenceDataLibrary != null && visited.add(referenceDataLibrary))
+            {
+                chain.add(referenceDataLibrary);
+                referenceDataLibrary = referenceDataLibrary.getRequiredRdl();
+            }
+        }
+        
+        return chain;
+    }
+}
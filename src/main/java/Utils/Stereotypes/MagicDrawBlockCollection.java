@@ -44,4 +44,21 @@ import ViewModels.Rows.MappedElementDefinitionRowViewModel;
  * Meaning that defining a rule that takes as input a {@linkplain ArrayList} of any type isn't supported because of the java generic implementation.
  */
 @SuppressWarnings("serial")
-public class MagicDrawBlockCollection extends ArrayList<MappedElementDefinitionRowViewModel> implements IMappableThingCollection { }
+public class MagicDrawBlockCollection extends ArrayList<MappedElementDefinitionRowViewModel> implements IMappableThingCollection 
+{
+    /**
+     * Backing field for {@linkplain #GetReusedElements()}
+     */
+    private final ArrayList<MappedElementDefinitionRowViewModel> reusedElements = new ArrayList<>();
+    
+    /**
+     * Gets the {@linkplain MappedElementDefinitionRowViewModel}s mapped by a previous mapping that are reused as they are, 
+     * they are not mapped again but the blocks of this collection can refer to them
+     * 
+     * @return an {@linkplain ArrayList} of {@linkplain MappedElementDefinitionRowViewModel}
+     */
+    public ArrayList<MappedElementDefinitionRowViewModel> GetReusedElements()
+    {
+        return this.reusedElements;
+    }
+}
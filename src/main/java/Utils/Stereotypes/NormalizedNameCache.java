@@ -0,0 +1,98 @@
+/*
+ * NormalizedNameCache.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Utils.Stereotypes;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+/**
+ * The {@linkplain NormalizedNameCache} keeps the normalized version of the most recently used names,
+ * once it holds its maximum number of names the least recently used one is evicted
+ */
+final class NormalizedNameCache
+{
+    /**
+     * The normalized names keyed by name, in access order from the least to the most recently used
+     */
+    private final LinkedHashMap<String, String> normalizedNames = new LinkedHashMap<>(16, 0.75f, true);
+    
+    /**
+     * The maximum number of names kept in this cache
+     */
+    private final int maximumNumberOfNames;
+    
+    /**
+     * The {@linkplain Function} that normalizes the names
+     */
+    private final Function<String, String> normalizer;
+
+    /**
+     * Initializes a new {@linkplain NormalizedNameCache}
+     * 
+     * @param maximumNumberOfNames the maximum number of names kept in this cache
+     * @param normalizer the {@linkplain Function} that normalizes the names
+     */
+    NormalizedNameCache(int maximumNumberOfNames, Function<String, String> normalizer)
+    {
+        this.maximumNumberOfNames = maximumNumberOfNames;
+        this.normalizer = normalizer;
+    }
+    
+    /**
+     * Gets the normalized version of the provided name from this cache or computes it
+     * 
+     * @param name the {@linkplain String} name to normalize
+     * @return the normalized {@linkplain String}
+     */
+    synchronized String Get(String name)
+    {
+        String normalizedName = this.normalizedNames.get(name);
+        
+        if(normalizedName == null)
+        {
+            normalizedName = this.normalizer.apply(name);
+            this.normalizedNames.put(name, normalizedName);
+            
+            if(this.normalizedNames.size() > this.maximumNumberOfNames)
+            {
+                Iterator<String> leastRecentlyUsedName = this.normalizedNames.keySet().iterator();
+                leastRecentlyUsedName.next();
+                leastRecentlyUsedName.remove();
+            }
+        }
+        
+        return normalizedName;
+    }
+    
+    /**
+     * Gets the number of names kept in this cache
+     * 
+     * @return an int
+     */
+    synchronized int Size()
+    {
+        return this.normalizedNames.size();
+    }
+}
@@ -23,9 +23,9 @@
  */
 package Utils.Stereotypes;
 
-import static Utils.Operators.Operators.AreTheseEquals;
+import java.util.Locale;
+import java.util.regex.Pattern;
 
-import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
 
 /**
@@ -33,6 +33,22 @@ import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.NamedElement;
  */
 public final class StereotypeUtils
 {    
+    /**
+     * The {@linkplain Pattern} that matches the characters removed from a name to get its short name
+     */
+    private static final Pattern NonAlphanumericCharacters = Pattern.compile("[^a-zA-Z0-9]");
+    
+    /**
+     * The maximum number of names kept in the short name cache, a full cache evicts its least recently used name
+     */
+    static final int MaximumNumberOfCachedNames = 8192;
+    
+    /**
+     * The cache of the short names computed by {@linkplain #GetShortName(String)} keyed by name
+     */
+    static final NormalizedNameCache ShortNames = 
+            new NormalizedNameCache(MaximumNumberOfCachedNames, x -> NonAlphanumericCharacters.matcher(x).replaceAll(""));
+    
     /**
      * Initializes a new {@linkplain StereotypeUtils} and
      * Prevents the {@linkplain StereotypeUtils} to initialized because static classes don't exist out of the box in java
@@ -40,54 +56,66 @@ public final class StereotypeUtils
     private StereotypeUtils() { }
     
     /**
-     * Verifies the provided {@linkplain Element} element is owned by the provided {@linkplain Element} parent
+     * Gets a 10-25 compliant short name from the provided stereotype name
      * 
-     * @param element the {@linkplain Element} to verify
-     * @param parent the {@linkplain Element} parent
-     * @return a value indicating whether the element is owned by the specified parent
+     * @param name the {@linkplain String} name to base the short name on
+     * @return a {@linkplain string}
      */
-    public static boolean IsOwnedBy(Element element, Element parent)
+    public static String GetShortName(String name)
     {
-        if(!parent.hasOwnedElement())
+        if(IsAlphanumeric(name))
         {
-            return false;
+            return name;
         }
         
-        for (Element child : parent.getOwnedElement())
-        {
-            if(AreTheseEquals(child.getID(), element.getID()))
-            {
-                return true;
-            }
-            
-            if(child.hasOwnedElement() && IsOwnedBy(element, child))
-            {
-                return true;
-            }
-        }
-        
-        return false;
+        return ShortNames.Get(name);
     }
-    
+
     /**
      * Gets a 10-25 compliant short name from the provided stereotype name
      * 
-     * @param name the {@linkplain String} name to base the short name on
+     * @param name the {@linkplain NamedElement} to base the short name on its name
      * @return a {@linkplain string}
      */
-    public static String GetShortName(String name)
+    public static String GetShortName(NamedElement name)
     {
-        return name.replaceAll("[^a-zA-Z0-9]", "");
+        return GetShortName(name.getName());
     }
 
     /**
-     * Gets a 10-25 compliant short name from the provided stereotype name
+     * Gets the case folded version of the provided name, used to compare or index names regardless of their case
      * 
-     * @param name the {@linkplain NamedElement} to base the short name on its name
-     * @return a {@linkplain string}
+     * @param name the {@linkplain String} name
+     * @return a {@linkplain String}, null when the provided name is null
      */
-    public static String GetShortName(NamedElement name)
+    public static String GetCaseFoldedName(String name)
     {
-        return name.getName().replaceAll("[^a-zA-Z0-9]", "");
+        if(name == null)
+        {
+            return null;
+        }
+        
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Verifies that the provided name only contains ASCII letters and digits, in which case it is its own short name
+     * 
+     * @param name the {@linkplain String} name
+     * @return a value indicating whether the name only contains ASCII letters and digits
+     */
+    private static boolean IsAlphanumeric(String name)
+    {
+        for (int index = 0; index < name.length(); index++)
+        {
+            char character = name.charAt(index);
+            
+            if(!((character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') || (character >= '0' && character <= '9')))
+            {
+                return false;
+            }
+        }
+        
+        return true;
     }
 }
@@ -47,6 +47,7 @@ import DstController.IDstController;
 import Enumerations.MappedElementRowStatus;
 import Enumerations.MappingDirection;
 import HubController.IHubController;
+import Services.IterationIndex.IElementDefinitionIndexService;
 import Services.ModelConsistency.ICircularDependencyValidationService;
 import Services.NavigationService.INavigationService;
 import Services.Stereotype.IStereotypeService;
@@ -108,6 +109,11 @@ public class DstToHubMappingConfigurationDialogViewModel
 	 */
 	private final IStereotypeService stereotypeService;
 
+	/**
+	 * The {@linkplain IElementDefinitionIndexService}
+	 */
+	private final IElementDefinitionIndexService elementDefinitionIndex;
+
 	/**
 	 * Gets the DST {@linkplain IObjectBrowserBaseViewModel}
 	 * 
@@ -131,6 +137,7 @@ public class DstToHubMappingConfigurationDialogViewModel
 	 * @param stereotypeService the {@linkplain IStereotypeService}
 	 * @param circularDependencyService the {@linkplain ICircularDependencyValidationService}
 	 * @param navigationService the {@linkplain INavigationService}
+	 * @param elementDefinitionIndex the {@linkplain IElementDefinitionIndexService}
 	 */
 	public DstToHubMappingConfigurationDialogViewModel(IDstController dstController, IHubController hubController,
 			IElementDefinitionBrowserViewModel elementDefinitionBrowserViewModel,
@@ -139,7 +146,8 @@ public class DstToHubMappingConfigurationDialogViewModel
 			IMappedElementListViewViewModel<Class> mappedElementListViewViewModel, 
 			IStereotypeService stereotypeService,
 			ICircularDependencyValidationService circularDependencyService,
-			INavigationService navigationService)
+			INavigationService navigationService,
+			IElementDefinitionIndexService elementDefinitionIndex)
 	{
 		super(dstController, hubController, elementDefinitionBrowserViewModel, requirementBrowserViewModel,
 				mappedElementListViewViewModel);
@@ -149,6 +157,7 @@ public class DstToHubMappingConfigurationDialogViewModel
 		this.stereotypeService = stereotypeService;
 		this.circularDependencyService = circularDependencyService;
 		this.navigationService = navigationService;
+		this.elementDefinitionIndex = elementDefinitionIndex;
 
 		this.InitializeObservables();
 		this.UpdateProperties();
@@ -391,8 +400,7 @@ public class DstToHubMappingConfigurationDialogViewModel
 		if (this.mappedElements.stream()
 				.noneMatch(x -> AreTheseEquals(x.GetDstElement().getID(), classElement.getID())))
 		{
-			Optional<ElementDefinition> optionalElementDefinition = this.hubController.GetOpenIteration().getElement()
-					.stream().filter(x -> AreTheseEquals(x.getName(), classElement.getName())).findFirst();
+			Optional<ElementDefinition> optionalElementDefinition = this.elementDefinitionIndex.Get(classElement.getName(), null);
 
 			if (optionalElementDefinition.isPresent())
 			{
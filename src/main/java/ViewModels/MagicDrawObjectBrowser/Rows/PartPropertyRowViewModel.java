@@ -29,7 +29,6 @@ import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Type;
 
 import App.AppContainer;
 import Reactive.ObservableCollection;
-import Services.ModelConsistency.CircularDependencyValidationService;
 import Services.ModelConsistency.ICircularDependencyValidationService;
 import Services.Stereotype.StereotypeService;
 import Utils.Stereotypes.Stereotypes;
@@ -56,6 +55,21 @@ public class PartPropertyRowViewModel extends PropertyRowViewModel implements IH
 		return this.containedRows;
 	}
 
+	/**
+	 * The owning chain key of the rows contained by this row, made of the id of the top block followed by the id of each type block down to this row
+	 */
+	private final String owningChainKey;
+
+	/**
+	 * Gets the owning chain key of the rows contained by this row
+	 * 
+	 * @return a {@linkplain String}
+	 */
+	public String GetOwningChainKey()
+	{
+		return this.owningChainKey;
+	}
+
 	/**
 	 * Initializes a new {@linkplain ReferencePropertyRowViewModel}
 	 * 
@@ -65,6 +79,14 @@ public class PartPropertyRowViewModel extends PropertyRowViewModel implements IH
 	public PartPropertyRowViewModel(IElementRowViewModel<?> parent, Property property)
 	{
 		super(parent, property);
+		
+		String parentOwningChainKey = parent instanceof PartPropertyRowViewModel 
+				? ((PartPropertyRowViewModel) parent).GetOwningChainKey()
+				: parent != null && parent.GetElement() != null ? parent.GetElement().getID() : null;
+		
+		this.owningChainKey = String.format("%s%s%s", parentOwningChainKey, 
+				ICircularDependencyValidationService.OwningChainKeySeparator, property.getType() != null ? property.getType().getID() : null);
+		
 		this.ComputeContainedRows();
 	}
 
@@ -106,7 +128,7 @@ public class PartPropertyRowViewModel extends PropertyRowViewModel implements IH
 			} 
 			else if (StereotypeService.Current().IsPartProperty(property)
 					&& !property.getID().equals(this.GetElement().getID())
-					&& AppContainer.Container.getComponent(ICircularDependencyValidationService.class).IsAlreadyPresent(this.GetRootRowViewModel(), property))
+					&& !AppContainer.Container.getComponent(ICircularDependencyValidationService.class).IsAlreadyPresent(property, this.owningChainKey))
 			{
 				this.containedRows.add(new PartPropertyRowViewModel(this, property));
 			} 
@@ -26,7 +26,11 @@ package DstController;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.Field;
@@ -65,6 +69,7 @@ import HubController.HubController;
 import HubController.IHubController;
 import MappingRules.BlockToElementMappingRule;
 import Services.HistoryService.IMagicDrawLocalExchangeHistoryService;
+import Services.IncrementalMapping.IIncrementalMappingService;
 import Services.MagicDrawSession.IMagicDrawSessionService;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MagicDrawTransaction.Clones.ClonedReferenceElement;
@@ -116,6 +121,7 @@ import cdp4dal.Session;
 import cdp4dal.exceptions.TransactionException;
 import cdp4dal.operations.ThingTransaction;
 import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
 
 class DstControllerTest
 {
@@ -140,6 +146,7 @@ class DstControllerTest
     private IMagicDrawSessionService sessionService;
     private IMagicDrawTransactionService transactionService;
     private IStereotypeService stereotypeService;
+    private IIncrementalMappingService incrementalMappingService;
     private Requirement requirement2;
     private Requirement requirement1;
     private Requirement requirement0;
@@ -164,6 +171,14 @@ class DstControllerTest
         this.sessionService = mock(IMagicDrawSessionService.class);
         this.transactionService = mock(IMagicDrawTransactionService.class);
         this.stereotypeService = mock(IStereotypeService.class);
+        this.incrementalMappingService = mock(IIncrementalMappingService.class);
+        
+        when(this.incrementalMappingService.GetBlocksToMap(any())).thenAnswer(x -> 
+        {
+            MagicDrawBlockCollection blocksToMap = new MagicDrawBlockCollection();
+            blocksToMap.addAll(x.getArgument(0, MagicDrawBlockCollection.class));
+            return blocksToMap;
+        });
 
         when(this.sessionService.SessionUpdated()).thenReturn(Observable.fromArray(false, false));
         
@@ -195,7 +210,7 @@ class DstControllerTest
         when(this.sessionService.HasAnyOpenSessionObservable()).thenReturn(Observable.fromArray(false, false));
 
         this.controller = new DstController(this.mappingEngine, this.hubController, this.logService, 
-                this.mappingConfigurationService, this.sessionService, this.historyService, this.transactionService, this.stereotypeService);
+                this.mappingConfigurationService, this.sessionService, this.historyService, this.transactionService, this.stereotypeService, this.incrementalMappingService);
     }
 
     private void SetSession() throws Exception
@@ -261,6 +276,74 @@ class DstControllerTest
         assertEquals(5, this.controller.GetHubMapResult().size());
     }
 
+    @Test
+    void VerifyMapReusesTheUnchangedBlocksUntilTheIterationChanges()
+    {
+        PublishSubject<Boolean> sessionEvents = PublishSubject.create();
+        when(this.hubController.GetSessionEventObservable()).thenReturn(sessionEvents);
+        
+        this.controller = new DstController(this.mappingEngine, this.hubController, this.logService, 
+                this.mappingConfigurationService, this.sessionService, this.historyService, this.transactionService, this.stereotypeService, this.incrementalMappingService);
+        
+        this.SetupHubElements();
+        this.SetupDstElements();
+        
+        MappedElementDefinitionRowViewModel reusedElement = new MappedElementDefinitionRowViewModel(this.elementDefinition0, this.block0, MappingDirection.FromDstToHub);
+        MappedElementDefinitionRowViewModel mappedElement = new MappedElementDefinitionRowViewModel(this.elementDefinition1, this.block1, MappingDirection.FromDstToHub);
+        
+        when(this.incrementalMappingService.GetBlocksToMap(any())).thenAnswer(x -> 
+        {
+            MagicDrawBlockCollection blocksToMap = new MagicDrawBlockCollection();
+            blocksToMap.add(mappedElement);
+            blocksToMap.GetReusedElements().add(reusedElement);
+            return blocksToMap;
+        });
+        
+        when(this.mappingEngine.Map(any(MagicDrawBlockCollection.class))).thenReturn(new ArrayList<>(Arrays.asList(mappedElement)));
+        
+        MagicDrawBlockCollection mappedBlocks = new MagicDrawBlockCollection();
+        mappedBlocks.addAll(Arrays.asList(reusedElement, mappedElement));
+        
+        assertTrue(this.controller.Map(mappedBlocks, MappingDirection.FromDstToHub));
+        assertEquals(2, this.controller.GetDstMapResult().size());
+        verify(this.incrementalMappingService).GetBlocksToMap(mappedBlocks);
+        verify(this.incrementalMappingService).Register(any());
+        
+        clearInvocations(this.incrementalMappingService);
+        sessionEvents.onNext(true);
+        verify(this.incrementalMappingService, never()).Invalidate();
+        
+        this.iteration.setRevisionNumber(13);
+        sessionEvents.onNext(true);
+        verify(this.incrementalMappingService, times(1)).Invalidate();
+    }
+
+    @Test
+    void VerifyMapIgnoresTheSessionEventsRaisedByTheMappingRules()
+    {
+        PublishSubject<Boolean> sessionEvents = PublishSubject.create();
+        when(this.hubController.GetSessionEventObservable()).thenReturn(sessionEvents);
+        
+        this.controller = new DstController(this.mappingEngine, this.hubController, this.logService, 
+                this.mappingConfigurationService, this.sessionService, this.historyService, this.transactionService, this.stereotypeService, this.incrementalMappingService);
+        
+        this.SetupHubRequirements();
+        
+        when(this.mappingEngine.Map(any(MagicDrawRequirementCollection.class))).thenAnswer(x -> 
+        {
+            sessionEvents.onNext(true);
+            return new ArrayList<>(Arrays.asList(new MappedRequirementRowViewModel(this.requirement0, null, MappingDirection.FromDstToHub)));
+        });
+        
+        clearInvocations(this.incrementalMappingService, this.mappingConfigurationService);
+        assertTrue(this.controller.Map(new MagicDrawRequirementCollection(), MappingDirection.FromDstToHub));
+        verify(this.incrementalMappingService, never()).Invalidate();
+        verify(this.mappingConfigurationService, never()).LoadMapping(any());
+        
+        sessionEvents.onNext(true);
+        verify(this.mappingConfigurationService, times(1)).LoadMapping(any());
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     void VerifyTransferToHub() throws ExecutionException, TransactionException
@@ -25,12 +25,14 @@ package MappingRules;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -44,6 +46,7 @@ import HubController.IHubController;
 import Reactive.ObservableCollection;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Stereotypes.DirectedRelationshipType;
 import Utils.Stereotypes.HubRelationshipElementsCollection;
@@ -81,7 +84,7 @@ class BinaryRelationshipsToDirectedRelationshipsMappingRuleTest
         when(this.transactionService.IsCloned(any())).thenReturn(false);
         
         this.rule = new BinaryRelationshipsToDirectedRelationshipsMappingRule(this.hubController, this.configurationService, 
-                this.transactionService, this.stereotypeService);
+                this.transactionService, this.stereotypeService, mock(IMappingMetricsService.class));
         
         this.dstController = mock(IDstController.class);
         this.rule.dstController = dstController;
@@ -164,4 +167,71 @@ class BinaryRelationshipsToDirectedRelationshipsMappingRuleTest
         ArrayList<Abstraction> result = this.rule.Transform(input);
         assertEquals(2, result.size());
     }
+
+    @Test
+    void VerifyTransformScalesWithTheNumberOfRelationships()
+    {
+        int numberOfRows = 10_000;
+        int numberOfRelationships = 100_000;
+        
+        IDstController dstController = mock(IDstController.class, withSettings().stubOnly());
+        when(dstController.GetMappedBinaryRelationshipsToDirectedRelationships()).thenReturn(new ObservableCollection<Abstraction>());
+        
+        BinaryRelationshipsToDirectedRelationshipsMappingRule rule = new BinaryRelationshipsToDirectedRelationshipsMappingRule(this.hubController, 
+                this.configurationService, mock(IMagicDrawTransactionService.class, withSettings().stubOnly()), this.stereotypeService, 
+                mock(IMappingMetricsService.class));
+        
+        rule.dstController = dstController;
+        
+        ArrayList<ElementDefinition> elementDefinitions = new ArrayList<>();
+        ArrayList<Class> blocks = new ArrayList<>();
+        ArrayList<ArrayList<Class>> existingTargets = new ArrayList<>();
+        HubRelationshipElementsCollection input = new HubRelationshipElementsCollection();
+        AtomicInteger numberOfHubElementLookups = new AtomicInteger();
+        
+        for (int index = 0; index < numberOfRows; index++)
+        {
+            ElementDefinition elementDefinition = new ElementDefinition(UUID.randomUUID(), null, null);
+            elementDefinitions.add(elementDefinition);
+            
+            Class block = mock(Class.class, withSettings().stubOnly());
+            when(block.getID()).thenReturn(UUID.randomUUID().toString());
+            blocks.add(block);
+            existingTargets.add(new ArrayList<>());
+            input.add(new MappedElementDefinitionRowViewModel(elementDefinition, block, MappingDirection.FromHubToDst)
+            {
+                @Override
+                public ElementDefinition GetHubElement()
+                {
+                    numberOfHubElementLookups.incrementAndGet();
+                    return super.GetHubElement();
+                }
+            });
+        }
+        
+        for (int index = 0; index < numberOfRelationships; index++)
+        {
+            int sourceIndex = index % numberOfRows;
+            int targetIndex = (index * 7 + 1) % numberOfRows;
+            
+            BinaryRelationship relationship = new BinaryRelationship();
+            relationship.setIid(UUID.randomUUID());
+            relationship.setSource(elementDefinitions.get(sourceIndex));
+            relationship.setTarget(elementDefinitions.get(targetIndex));
+            elementDefinitions.get(sourceIndex).getRelationships().add(relationship);
+            elementDefinitions.get(targetIndex).getRelationships().add(relationship);
+            existingTargets.get(sourceIndex).add(blocks.get(targetIndex));
+        }
+        
+        for (int index = 0; index < numberOfRows; index++)
+        {
+            Abstraction existingTrace = mock(Abstraction.class, withSettings().stubOnly());
+            when(existingTrace.getTarget()).thenReturn(existingTargets.get(index));
+            when(blocks.get(index).get_directedRelationshipOfSource()).thenReturn(new ArrayList<>(Arrays.asList(existingTrace)));
+        }
+        
+        ArrayList<Abstraction> result = rule.Transform(input);
+        assertTrue(result.isEmpty());
+        assertTrue(numberOfHubElementLookups.get() <= 2 * (numberOfRows + numberOfRelationships));
+    }
 }
@@ -24,14 +24,21 @@
 package MappingRules;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.UUID;
-import java.util.function.Predicate;
 
 import org.eclipse.emf.common.util.BasicEList;
 import org.eclipse.emf.ecore.EObject;
@@ -54,14 +61,23 @@ import com.nomagic.uml2.ext.magicdraw.compositestructures.mdports.Port;
 import Enumerations.MappingDirection;
 import HubController.IHubController;
 import MappingRules.Interfaces.IStateMappingRule;
+import Services.ContainmentIndex.ContainmentIndexService;
+import Services.IterationIndex.ElementDefinitionIndexService;
+import Services.IterationIndex.RelationshipIndexService;
+import Services.MagicDrawSession.IMagicDrawSessionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.ReferenceData.IReferenceDataLibraryIndexService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Ref;
 import Utils.Stereotypes.MagicDrawBlockCollection;
 import ViewModels.Rows.MappedElementDefinitionRowViewModel;
 import cdp4common.engineeringmodeldata.ElementDefinition;
+import cdp4common.engineeringmodeldata.ElementUsage;
 import cdp4common.engineeringmodeldata.EngineeringModel;
 import cdp4common.engineeringmodeldata.Iteration;
+import cdp4common.engineeringmodeldata.Parameter;
+import cdp4common.engineeringmodeldata.ParameterValueSet;
 import cdp4common.sitedirectorydata.Category;
 import cdp4common.sitedirectorydata.DomainOfExpertise;
 import cdp4common.sitedirectorydata.EngineeringModelSetup;
@@ -75,6 +91,9 @@ import cdp4common.sitedirectorydata.SimpleQuantityKind;
 import cdp4common.sitedirectorydata.SimpleUnit;
 import cdp4common.sitedirectorydata.SiteDirectory;
 import cdp4common.sitedirectorydata.SiteReferenceDataLibrary;
+import cdp4common.sitedirectorydata.TextParameterType;
+import cdp4common.types.ValueArray;
+import io.reactivex.Observable;
 
 class BlockToElementMappingRuleTest
 {
@@ -92,6 +111,8 @@ class BlockToElementMappingRuleTest
     private ElementDefinition elementDefinition2;
     private IStateMappingRule stateMappingRule;
     private IStereotypeService stereotypeService;
+    private IMagicDrawSessionService sessionService;
+    private IReferenceDataLibraryIndexService referenceDataLibraryIndex;
 
     /**
      * @throws java.lang.Exception
@@ -104,6 +125,11 @@ class BlockToElementMappingRuleTest
         this.mappingConfigurationService = mock(IMagicDrawMappingConfigurationService.class);
         this.stateMappingRule = mock(IStateMappingRule.class);
         this.stereotypeService = mock(IStereotypeService.class);
+        this.sessionService = mock(IMagicDrawSessionService.class);
+        when(this.sessionService.HasAnyOpenSessionObservable()).thenReturn(Observable.empty());
+        when(this.sessionService.SessionUpdated()).thenReturn(Observable.empty());
+        when(this.sessionService.ModelChanged()).thenReturn(Observable.empty());
+        this.referenceDataLibraryIndex = mock(IReferenceDataLibraryIndexService.class);
         
         when(this.stereotypeService.IsValueProperty(any(Property.class))).thenAnswer(x -> 
         {
@@ -135,6 +161,8 @@ class BlockToElementMappingRuleTest
         this.SetupElements();
         
         when(this.hubController.GetOpenIteration()).thenReturn(this.iteration);
+        when(this.hubController.GetIsSessionOpenObservable()).thenReturn(Observable.empty());
+        when(this.hubController.GetSessionEventObservable()).thenReturn(Observable.empty());
         ModelReferenceDataLibrary modelReferenceDataLibrary = new ModelReferenceDataLibrary();
         SiteReferenceDataLibrary siteReferenceDataLibrary = new SiteReferenceDataLibrary();
         SiteDirectory siteDirectory = new SiteDirectory();
@@ -151,9 +179,11 @@ class BlockToElementMappingRuleTest
         engineeringModel.getIteration().add(this.iteration);
         
         when(this.hubController.GetDehpOrModelReferenceDataLibrary()).thenReturn(modelReferenceDataLibrary);
-        when(this.hubController.TryGetThingFromChainOfRdlBy(any(Predicate.class), any(Ref.class))).thenReturn(false);
+        when(this.referenceDataLibraryIndex.TryGet(any(Ref.class), any())).thenReturn(false);
 
-        this.mappingRule = new BlockToElementMappingRule(this.hubController, this.mappingConfigurationService, this.stateMappingRule, this.stereotypeService);
+        this.mappingRule = new BlockToElementMappingRule(this.hubController, this.mappingConfigurationService, this.stateMappingRule, this.stereotypeService, this.referenceDataLibraryIndex, new ElementDefinitionIndexService(this.hubController),
+                new RelationshipIndexService(this.hubController), new ContainmentIndexService(this.sessionService),
+                mock(IMappingMetricsService.class));
     }
 
     @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -297,7 +327,7 @@ class BlockToElementMappingRuleTest
         this.elements.add(new MappedElementDefinitionRowViewModel(this.elementDefinition1, this.component1, MappingDirection.FromDstToHub));
         this.elements.add(new MappedElementDefinitionRowViewModel(this.component2, MappingDirection.FromDstToHub));
         
-        when(this.hubController.TryGetThingFromChainOfRdlBy(any(Predicate.class), any(Ref.class)))
+        when(this.referenceDataLibraryIndex.TryGet(any(Ref.class), any()))
         .thenAnswer(new Answer<Boolean>() 
         {
             @Override
@@ -305,7 +335,7 @@ class BlockToElementMappingRuleTest
             {
                 Object[] arguments = invocation.getArguments();
                 
-                Ref<?> ref = ((Ref<?>)arguments[1]);
+                Ref<?> ref = ((Ref<?>)arguments[0]);
                 
                 if(ref.GetType().isAssignableFrom(MeasurementScale.class))
                 {
@@ -333,4 +363,112 @@ class BlockToElementMappingRuleTest
         
         assertDoesNotThrow(() -> this.mappingRule.Transform(this.elements));
     }
+    
+    @Test
+    void VerifyTransformWritesStagedReferenceDataOnce() throws Exception
+    {
+        assertDoesNotThrow(() -> this.mappingRule.Transform(this.elements));
+        verify(this.hubController, times(1)).Write(any());
+        verify(this.hubController, times(1)).RefreshReferenceDataLibrary(any());
+    }
+    
+    @Test
+    void VerifyTransformFailsWhenTheStagedReferenceDataCannotBeWritten() throws Exception
+    {
+        doThrow(new RuntimeException()).when(this.hubController).Write(any());
+        assertTrue(this.mappingRule.Transform(this.elements).isEmpty());
+        verify(this.hubController, never()).RefreshReferenceDataLibrary(any());
+    }
+    
+    @Test
+    void VerifyTransformMapsSharedBlocksOnce()
+    {
+        Class sharedBlock = mock(Class.class);
+        when(sharedBlock.getName()).thenReturn("sharedBlock");
+        when(sharedBlock.getID()).thenReturn(UUID.randomUUID().toString());
+        when(sharedBlock.eContents()).thenReturn(new BasicEList<EObject>());
+        when(sharedBlock.getOwnedAttribute()).thenReturn(new BasicEList<Property>());
+        when(sharedBlock.getOwnedPort()).thenReturn(new ArrayList<Port>());
+        
+        BasicEList<Property> partProperties = new BasicEList<Property>();
+        
+        for (int index = 0; index < 3; index++)
+        {
+            Property partProperty = mock(Property.class);
+            when(partProperty.getName()).thenReturn(String.format("usage%s", index));
+            when(partProperty.getID()).thenReturn(UUID.randomUUID().toString());
+            when(partProperty.getType()).thenReturn(sharedBlock);
+            partProperties.add(partProperty);
+        }
+        
+        Class productBlock = mock(Class.class);
+        when(productBlock.getName()).thenReturn("productBlock");
+        when(productBlock.getID()).thenReturn(UUID.randomUUID().toString());
+        when(productBlock.eContents()).thenReturn(new BasicEList<EObject>());
+        when(productBlock.getOwnedAttribute()).thenReturn(partProperties);
+        when(productBlock.getOwnedPort()).thenReturn(new ArrayList<Port>());
+        
+        this.elements.clear();
+        this.elements.add(new MappedElementDefinitionRowViewModel(productBlock, MappingDirection.FromDstToHub));
+        this.elements.add(new MappedElementDefinitionRowViewModel(sharedBlock, MappingDirection.FromDstToHub));
+        
+        assertEquals(2, this.mappingRule.Transform(this.elements).size());
+        assertEquals(3, this.mappingRule.GetNumberOfAvoidedBlockMappings());
+        verify(sharedBlock, times(1)).getOwnedAttribute();
+    }
+    
+    @Test
+    void VerifyTransformClonesOnlyTheUpdatedParameters()
+    {
+        TextParameterType parameterType = new TextParameterType(UUID.randomUUID(), null, null);
+        parameterType.setName("Property0");
+        parameterType.setShortName("Property0");
+        
+        ValueArray<String> manualValue = new ValueArray<>(Arrays.asList("old"), String.class);
+        ParameterValueSet valueSet = new ParameterValueSet(UUID.randomUUID(), null, null);
+        valueSet.setManual(manualValue);
+        
+        Parameter parameter = new Parameter(UUID.randomUUID(), null, null);
+        parameter.setParameterType(parameterType);
+        parameter.getValueSet().add(valueSet);
+        this.elementDefinition1.getParameter().add(parameter);
+        
+        assertDoesNotThrow(() -> this.mappingRule.Transform(this.elements));
+        
+        assertSame(manualValue, valueSet.getManual());
+        
+        Parameter mappedParameter = this.elementDefinition1.getParameter().stream()
+                .filter(x -> x.getIid().equals(parameter.getIid()))
+                .findFirst().orElse(null);
+        
+        assertNotSame(parameter, mappedParameter);
+        assertNotSame(valueSet, mappedParameter.getValueSet().get(0));
+        assertTrue(this.mappingRule.GetNumberOfClones() >= 2);
+    }
+    
+    @Test
+    void VerifyTransformClonesTheElementUsagesOfTheReusedElementDefinitions()
+    {
+        ElementUsage elementUsage = new ElementUsage(UUID.randomUUID(), null, null);
+        elementUsage.setName("usage");
+        elementUsage.setShortName("usage");
+        elementUsage.setOwner(this.domain);
+        elementUsage.setElementDefinition(this.elementDefinition0);
+        this.elementDefinition2.getContainedElement().add(elementUsage);
+        
+        assertDoesNotThrow(() -> this.mappingRule.Transform(this.elements));
+        
+        assertEquals(1, this.elementDefinition2.getContainedElement().size());
+        assertSame(elementUsage, this.elementDefinition2.getContainedElement().get(0));
+        
+        ElementDefinition mappedElementDefinition = this.elements.get(2).GetHubElement();
+        assertNotSame(this.elementDefinition2, mappedElementDefinition);
+        
+        ElementUsage mappedElementUsage = mappedElementDefinition.getContainedElement().stream()
+                .filter(x -> x.getIid().equals(elementUsage.getIid()))
+                .findFirst().orElse(null);
+        
+        assertNotSame(elementUsage, mappedElementUsage);
+        assertSame(mappedElementDefinition, mappedElementUsage.getContainer());
+    }
 }
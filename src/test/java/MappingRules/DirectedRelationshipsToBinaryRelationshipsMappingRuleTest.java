@@ -42,7 +42,10 @@ import DstController.IDstController;
 import Enumerations.MappingDirection;
 import HubController.IHubController;
 import Reactive.ObservableCollection;
+import Services.IterationIndex.RelationshipIndexService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.ReferenceData.IReferenceDataLibraryIndexService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Ref;
 import Utils.Stereotypes.MagicDrawRelatedElementCollection;
@@ -58,12 +61,14 @@ import cdp4common.sitedirectorydata.Category;
 import cdp4common.sitedirectorydata.EngineeringModelSetup;
 import cdp4common.sitedirectorydata.ModelReferenceDataLibrary;
 import cdp4common.sitedirectorydata.SiteDirectory;
+import io.reactivex.Observable;
 
 class DirectedRelationshipsToBinaryRelationshipsMappingRuleTest
 {
     private DirectedRelationshipsToBinaryRelationshipsMappingRule rule;
     private IHubController hubController;
     private IStereotypeService stereotypeService;
+    private IReferenceDataLibraryIndexService referenceDataLibraryIndex;
     private IMagicDrawMappingConfigurationService configurationService;
     private ArrayList<MappedElementRowViewModel<? extends Thing, ? extends Class>> mappedElements;
     private IDstController dstController;
@@ -81,8 +86,12 @@ class DirectedRelationshipsToBinaryRelationshipsMappingRuleTest
         this.hubController = mock(IHubController.class);
         this.configurationService = mock(IMagicDrawMappingConfigurationService.class);
         this.stereotypeService = mock(IStereotypeService.class);
+        this.referenceDataLibraryIndex = mock(IReferenceDataLibraryIndexService.class);
+        when(this.hubController.GetIsSessionOpenObservable()).thenReturn(Observable.empty());
+        when(this.hubController.GetSessionEventObservable()).thenReturn(Observable.empty());
         
-        this.rule = new DirectedRelationshipsToBinaryRelationshipsMappingRule(this.hubController, this.configurationService, this.stereotypeService);
+        this.rule = new DirectedRelationshipsToBinaryRelationshipsMappingRule(this.hubController, this.configurationService, this.stereotypeService, this.referenceDataLibraryIndex,
+                new RelationshipIndexService(this.hubController), mock(IMappingMetricsService.class));
         
         this.dstController = mock(IDstController.class);
         when(this.dstController.GetMappedDirectedRelationshipToBinaryRelationships()).thenReturn(new ObservableCollection<BinaryRelationship>());
@@ -94,7 +103,7 @@ class DirectedRelationshipsToBinaryRelationshipsMappingRuleTest
         Iteration iteration = new Iteration();
         iteration.getRelationship().add(element0ToRequirement0);
         when(this.hubController.GetOpenIteration()).thenReturn(iteration);
-        when(this.hubController.TryGetThingFromChainOfRdlBy(any(), any())).thenReturn(false);
+        when(this.referenceDataLibraryIndex.TryGet(any(), any())).thenReturn(false);
     }
 
     private void SetupElements()
@@ -175,10 +184,10 @@ class DirectedRelationshipsToBinaryRelationshipsMappingRuleTest
         SiteDirectory siteDirectory = new SiteDirectory();
         siteDirectory.getModel().add(engineeringModelSetup);
         
-        when(this.hubController.TryGetThingFromChainOfRdlBy(any(), any())).thenAnswer(x -> 
+        when(this.referenceDataLibraryIndex.TryGet(any(), any())).thenAnswer(x -> 
         {
             @SuppressWarnings("unchecked")
-            Ref<Category> refCategory = (Ref<Category>)x.getArgument(1, Ref.class);
+            Ref<Category> refCategory = (Ref<Category>)x.getArgument(0, Ref.class);
             refCategory.Set(this.category);
             return true;
         });
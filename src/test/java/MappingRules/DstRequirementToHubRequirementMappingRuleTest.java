@@ -44,14 +44,18 @@ import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Package;
 
 import Enumerations.MappingDirection;
 import HubController.IHubController;
+import Services.IterationIndex.RequirementIndexService;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
+import Services.ReferenceData.IReferenceDataLibraryIndexService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Stereotypes.MagicDrawRequirementCollection;
 import Utils.Stereotypes.Stereotypes;
 import ViewModels.Rows.MappedRequirementRowViewModel;
 import cdp4common.engineeringmodeldata.Iteration;
 import cdp4common.engineeringmodeldata.RequirementsSpecification;
+import io.reactivex.Observable;
 
 class DstRequirementToHubRequirementMappingRuleTest
 {
@@ -71,6 +75,7 @@ class DstRequirementToHubRequirementMappingRuleTest
     private cdp4common.engineeringmodeldata.Requirement requirement1;
     private IMagicDrawTransactionService transactionService;
     private IStereotypeService stereotypeService;
+    private IReferenceDataLibraryIndexService referenceDataLibraryIndex;
 
     /**
      * @throws java.lang.Exception
@@ -82,11 +87,15 @@ class DstRequirementToHubRequirementMappingRuleTest
         this.mappingConfigurationService = mock(IMagicDrawMappingConfigurationService.class);
         this.transactionService = mock(IMagicDrawTransactionService.class);
         this.stereotypeService = mock(IStereotypeService.class);
+        this.referenceDataLibraryIndex = mock(IReferenceDataLibraryIndexService.class);
         when(this.stereotypeService.DoesItHaveTheStereotype(any(Element.class), any(Stereotypes.class))).thenReturn(false);
         this.SetupElements();
         when(this.hubController.GetOpenIteration()).thenReturn(this.iteration);
+        when(this.hubController.GetIsSessionOpenObservable()).thenReturn(Observable.empty());
+        when(this.hubController.GetSessionEventObservable()).thenReturn(Observable.empty());
         
-        this.mappingRule = new DstRequirementToHubRequirementMappingRule(this.hubController, this.mappingConfigurationService, this.transactionService, this.stereotypeService);
+        this.mappingRule = new DstRequirementToHubRequirementMappingRule(this.hubController, this.mappingConfigurationService, this.transactionService, this.stereotypeService, 
+                this.referenceDataLibraryIndex, new RequirementIndexService(this.hubController), mock(IMappingMetricsService.class));
     }
 
     @Test
@@ -99,6 +108,22 @@ class DstRequirementToHubRequirementMappingRuleTest
         assertNotNull(result.get(0).GetHubElement());
     }
 
+    @Test
+    void VerifyTransformClonesOnlyTheTouchedRequirementsSpecifications()
+    {
+        RequirementsSpecification untouchedRequirementsSpecification = new RequirementsSpecification();
+        untouchedRequirementsSpecification.setShortName("untouched");
+        untouchedRequirementsSpecification.getRequirement().add(new cdp4common.engineeringmodeldata.Requirement());
+        this.iteration.getRequirementsSpecification().add(untouchedRequirementsSpecification);
+        
+        RequirementsSpecification requirementsSpecification = this.iteration.getRequirementsSpecification().get(0);
+        
+        assertEquals(3, this.mappingRule.Transform(this.elements).size());
+        assertEquals(1, this.mappingRule.GetNumberOfClonedRequirementsSpecifications());
+        assertEquals(2, requirementsSpecification.getRequirement().size());
+        assertEquals(1, untouchedRequirementsSpecification.getRequirement().size());
+    }
+
     private void SetupElements()
     {
         this.elements = new MagicDrawRequirementCollection();
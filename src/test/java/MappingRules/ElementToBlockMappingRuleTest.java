@@ -25,7 +25,9 @@ package MappingRules;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
@@ -56,6 +58,7 @@ import HubController.IHubController;
 import MappingRules.Interfaces.IStateMappingRule;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.MappingMetricsService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Ref;
 import Utils.Stereotypes.HubElementCollection;
@@ -89,6 +92,7 @@ class ElementToBlockMappingRuleTest
     private IMagicDrawMappingConfigurationService mappingConfiguration;
     private IMagicDrawTransactionService transactionService;
     private ElementToBlockMappingRule mappingRule;
+    private MappingMetricsService metricsService;
     private HubElementCollection elements;
     private IDstController dstController;
     private DomainOfExpertise domain;
@@ -131,7 +135,9 @@ class ElementToBlockMappingRuleTest
             .thenReturn(mock(Stereotype.class));
         
         
-        this.mappingRule = new ElementToBlockMappingRule(this.hubController, this.mappingConfiguration, this.transactionService, this.stateMappingRule, this.stereotypeService);
+        this.metricsService = new MappingMetricsService();
+        this.mappingRule = new ElementToBlockMappingRule(this.hubController, this.mappingConfiguration, this.transactionService, this.stateMappingRule, this.stereotypeService, 
+                this.metricsService);
         this.SetupElements();
         this.mappingRule.dstController = this.dstController;
     }
@@ -202,6 +208,68 @@ class ElementToBlockMappingRuleTest
         verify(this.transactionService, times(5)).AddReferenceDataToDataPackage(any(DataType.class));
     }
     
+    @Test
+    void VerifyTransformMeasuresTheInvocation()
+    {
+        assertEquals(3, this.mappingRule.Transform(this.elements).size());
+        assertEquals(1, this.metricsService.GetMetrics(ElementToBlockMappingRule.class.getSimpleName()).size());
+        assertEquals(3, this.mappingRule.GetMetrics().GetInputCount());
+        assertEquals(3, this.mappingRule.GetMetrics().GetOutputCount());
+        assertTrue(this.mappingRule.GetMetrics().GetNumberOfFullModelScans() > 0);
+    }
+    
+    @Test
+    void VerifyTransformMapsReusedDefinitionsOnce()
+    {
+        ElementDefinition leaf = new ElementDefinition(UUID.randomUUID(), null, null);
+        leaf.setName("leaf");
+        ElementDefinition assembly = new ElementDefinition(UUID.randomUUID(), null, null);
+        assembly.setName("assembly");
+        ElementDefinition product = new ElementDefinition(UUID.randomUUID(), null, null);
+        product.setName("product");
+        
+        for (int index = 0; index < 3; index++)
+        {
+            ElementUsage leafUsage = new ElementUsage(UUID.randomUUID(), null, null);
+            leafUsage.setName(String.format("leaf%s", index));
+            leafUsage.setElementDefinition(leaf);
+            leafUsage.setInterfaceEnd(InterfaceEndKind.NONE);
+            assembly.getContainedElement().add(leafUsage);
+        }
+        
+        for (int index = 0; index < 2; index++)
+        {
+            ElementUsage assemblyUsage = new ElementUsage(UUID.randomUUID(), null, null);
+            assemblyUsage.setName(String.format("assembly%s", index));
+            assemblyUsage.setElementDefinition(assembly);
+            assemblyUsage.setInterfaceEnd(InterfaceEndKind.NONE);
+            product.getContainedElement().add(assemblyUsage);
+        }
+        
+        this.elements.clear();
+        this.elements.add(new MappedElementDefinitionRowViewModel(product, null, MappingDirection.FromHubToDst));
+        
+        assertEquals(3, this.mappingRule.Transform(this.elements).size());
+        assertEquals(3, this.mappingRule.GetNumberOfAvoidedContainedElementMappings());
+        verify(this.transactionService, times(3)).Create(eq(Stereotypes.Block), any(String.class));
+    }
+    
+    @Test
+    void VerifyTransformReusesTheExistingPropertiesOfTheBlock()
+    {
+        Class block = (Class)this.MockElement("elementDefinition0", Stereotypes.Block);
+        Property existingProperty = (Property)this.MockElement("BOOLEANPARAMETERTYPE", Stereotypes.ValueProperty);
+        block.getOwnedAttribute().add(existingProperty);
+        
+        this.elements.clear();
+        this.elements.add(new MappedElementDefinitionRowViewModel(this.elementDefinition0, block, MappingDirection.FromHubToDst));
+        
+        assertDoesNotThrow(() -> this.mappingRule.Transform(this.elements));
+        verify(this.transactionService, times(2)).Create(eq(Stereotypes.ValueProperty), any(String.class));
+        assertTrue(block.getOwnedAttribute().contains(existingProperty));
+        assertEquals(1, block.getOwnedAttribute().stream().filter(x -> "booleanParameterType".equalsIgnoreCase(x.getName())).count());
+    }
+    
     private void SetupElements()
     {
         this.literals = new BasicEList<EnumerationLiteral>();
@@ -48,6 +48,7 @@ import Enumerations.MappingDirection;
 import HubController.IHubController;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
 import Services.MappingConfiguration.IMagicDrawMappingConfigurationService;
+import Services.MappingMetrics.IMappingMetricsService;
 import Services.Stereotype.IStereotypeService;
 import Utils.Stereotypes.HubRequirementCollection;
 import Utils.Stereotypes.Stereotypes;
@@ -96,7 +97,8 @@ class HubRequirementToDstRequirementMappingRuleTest
         
         this.SetupElements();
         
-        this.mappingRule = new HubRequirementToDstRequirementMappingRule(this.hubController, this.mappingConfigurationService, this.transactionService, this.stereotypeService);
+        this.mappingRule = new HubRequirementToDstRequirementMappingRule(this.hubController, this.mappingConfigurationService, this.transactionService, this.stereotypeService, 
+                mock(IMappingMetricsService.class));
         this.mappingRule.dstController = this.dstController;
     }
     
@@ -26,13 +26,16 @@ package MappingRules;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.UUID;
 
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
@@ -231,4 +234,142 @@ class StateMappingRuleTest
         
         assertDoesNotThrow(() -> this.mappingRule.Clear());
     }
+    
+    @Test
+    void VerifyMapStateDependenciesReusesTheExistingActualFiniteStates()
+    {
+        PossibleFiniteState on = new PossibleFiniteState(UUID.randomUUID(), null, null);
+        on.setName("on");
+        on.setShortName("on");
+        PossibleFiniteState off = new PossibleFiniteState(UUID.randomUUID(), null, null);
+        off.setName("off");
+        off.setShortName("off");
+        
+        PossibleFiniteStateList possibleFiniteStateList = new PossibleFiniteStateList(UUID.randomUUID(), null, null);
+        possibleFiniteStateList.setName("powerMode");
+        possibleFiniteStateList.setShortName("powerMode");
+        possibleFiniteStateList.getPossibleState().add(on);
+        possibleFiniteStateList.getPossibleState().add(off);
+        
+        ActualFiniteState actualOff = new ActualFiniteState(UUID.randomUUID(), null, null);
+        actualOff.getPossibleState().add(off);
+        ActualFiniteState actualOn = new ActualFiniteState(UUID.randomUUID(), null, null);
+        actualOn.getPossibleState().add(on);
+        
+        ActualFiniteStateList existingActualFiniteStateList = new ActualFiniteStateList(UUID.randomUUID(), null, null);
+        existingActualFiniteStateList.getPossibleFiniteStateList().add(possibleFiniteStateList);
+        existingActualFiniteStateList.getActualState().add(actualOff);
+        existingActualFiniteStateList.getActualState().add(actualOn);
+        
+        this.iteration.getPossibleFiniteStateList().add(possibleFiniteStateList);
+        this.iteration.getActualFiniteStateList().add(existingActualFiniteStateList);
+        
+        Region onRegion = mock(Region.class);
+        when(onRegion.getName()).thenReturn("on");
+        Region offRegion = mock(Region.class);
+        when(offRegion.getName()).thenReturn("off");
+        
+        State powerMode = mock(State.class);
+        when(powerMode.getName()).thenReturn("powerMode");
+        when(powerMode.getRegion()).thenReturn(Arrays.asList(onRegion, offRegion));
+        
+        Dependency powerModeDependency = mock(Dependency.class);
+        when(powerModeDependency.getTarget()).thenReturn(Arrays.asList(powerMode));
+        when(this.stateDependentProperty.get_directedRelationshipOfSource()).thenReturn(Arrays.asList(powerModeDependency));
+        
+        Parameter parameter0 = new Parameter();
+        Parameter parameter1 = new Parameter();
+        
+        this.mappingRule.MapStateDependencies(parameter0, this.stateDependentProperty, MappingDirection.FromDstToHub);
+        this.mappingRule.MapStateDependencies(parameter1, this.stateDependentProperty, MappingDirection.FromDstToHub);
+        
+        ActualFiniteStateList mappedActualFiniteStateList = parameter0.getStateDependence();
+        
+        assertEquals(existingActualFiniteStateList.getIid(), mappedActualFiniteStateList.getIid());
+        assertSame(mappedActualFiniteStateList, parameter1.getStateDependence());
+        assertEquals(2, mappedActualFiniteStateList.getActualState().size());
+        assertEquals(actualOn.getIid(), mappedActualFiniteStateList.getActualState().get(0).getIid());
+        assertEquals(actualOff.getIid(), mappedActualFiniteStateList.getActualState().get(1).getIid());
+        
+        this.mappingRule.Clear();
+    }
+    
+    @Test
+    void VerifyMapStateDependenciesIndexesTheProjectStatesOnce()
+    {
+        PossibleFiniteState possibleFiniteState = new PossibleFiniteState(UUID.randomUUID(), null, null);
+        possibleFiniteState.setName("nominal");
+        possibleFiniteState.setShortName("nominal");
+        
+        PossibleFiniteStateList possibleFiniteStateList = new PossibleFiniteStateList(UUID.randomUUID(), null, null);
+        possibleFiniteStateList.setName("Operating Mode");
+        possibleFiniteStateList.setShortName("OperatingMode");
+        possibleFiniteStateList.getPossibleState().add(possibleFiniteState);
+        
+        ActualFiniteStateList stateDependence = new ActualFiniteStateList(UUID.randomUUID(), null, null);
+        stateDependence.getPossibleFiniteStateList().add(possibleFiniteStateList);
+        
+        Parameter parameter = new Parameter();
+        parameter.setStateDependence(stateDependence);
+        
+        State operatingMode = mock(State.class);
+        when(operatingMode.getName()).thenReturn("operatingmode");
+        Region region = mock(Region.class);
+        when(region.getOwnedElement()).thenReturn(Arrays.asList(this.state1, operatingMode));
+        StateMachine stateMachine = mock(StateMachine.class);
+        when(stateMachine.getRegion()).thenReturn(Arrays.asList(region));
+        when(this.sessionService.GetProjectElements()).thenReturn(Arrays.asList(stateMachine));
+        
+        this.mappingRule.MapStateDependencies(parameter, mock(Property.class), MappingDirection.FromHubToDst);
+        this.mappingRule.MapStateDependencies(parameter, mock(Property.class), MappingDirection.FromHubToDst);
+        
+        verify(this.sessionService, times(1)).GetProjectElements();
+        verify(this.transactionService, never()).Create(eq(State.class), any(String.class));
+        
+        this.mappingRule.Clear();
+    }
+    
+    @Test
+    void VerifyMapStateDependenciesKeepsTheFirstProjectStateMatchingEitherName()
+    {
+        PossibleFiniteState possibleFiniteState = new PossibleFiniteState(UUID.randomUUID(), null, null);
+        possibleFiniteState.setName("nominal");
+        possibleFiniteState.setShortName("nominal");
+        
+        PossibleFiniteStateList possibleFiniteStateList = new PossibleFiniteStateList(UUID.randomUUID(), null, null);
+        possibleFiniteStateList.setName("Operating Mode");
+        possibleFiniteStateList.setShortName("OperatingMode");
+        possibleFiniteStateList.getPossibleState().add(possibleFiniteState);
+        
+        ActualFiniteStateList stateDependence = new ActualFiniteStateList(UUID.randomUUID(), null, null);
+        stateDependence.getPossibleFiniteStateList().add(possibleFiniteStateList);
+        
+        Parameter parameter = new Parameter();
+        parameter.setStateDependence(stateDependence);
+        
+        State stateMatchingTheShortName = mock(State.class);
+        when(stateMatchingTheShortName.getName()).thenReturn("operatingmode");
+        Region region0 = mock(Region.class);
+        when(region0.getOwnedElement()).thenReturn(Arrays.asList(stateMatchingTheShortName));
+        
+        State stateMatchingTheName = mock(State.class);
+        when(stateMatchingTheName.getName()).thenReturn("Operating Mode");
+        State sameNamedState = mock(State.class);
+        when(sameNamedState.getName()).thenReturn("operatingmode");
+        Region region1 = mock(Region.class);
+        when(region1.getOwnedElement()).thenReturn(Arrays.asList(stateMatchingTheName, sameNamedState));
+        
+        StateMachine stateMachine = mock(StateMachine.class);
+        when(stateMachine.getRegion()).thenReturn(Arrays.asList(region0, region1));
+        when(this.sessionService.GetProjectElements()).thenReturn(Arrays.asList(stateMachine));
+        
+        this.mappingRule.MapStateDependencies(parameter, mock(Property.class), MappingDirection.FromHubToDst);
+        
+        verify(stateMatchingTheShortName, atLeastOnce()).get_relationshipOfRelatedElement();
+        verify(stateMatchingTheName, never()).get_relationshipOfRelatedElement();
+        verify(sameNamedState, never()).get_relationshipOfRelatedElement();
+        verify(this.transactionService, never()).Create(eq(State.class), any(String.class));
+        
+        this.mappingRule.Clear();
+    }
 }
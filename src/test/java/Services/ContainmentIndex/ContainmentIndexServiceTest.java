@@ -0,0 +1,107 @@
+/*
+ * ContainmentIndexServiceTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.ContainmentIndex;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.beans.PropertyChangeEvent;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Element;
+
+import Services.MagicDrawSession.IMagicDrawSessionService;
+import io.reactivex.Observable;
+import io.reactivex.subjects.PublishSubject;
+
+class ContainmentIndexServiceTest
+{
+    private IMagicDrawSessionService sessionService;
+    private PublishSubject<Collection<PropertyChangeEvent>> modelChanged;
+    private ContainmentIndexService service;
+    private Element model;
+    private Element package0;
+    private Element package1;
+    private Element element;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        this.sessionService = mock(IMagicDrawSessionService.class);
+        this.modelChanged = PublishSubject.create();
+        when(this.sessionService.HasAnyOpenSessionObservable()).thenReturn(Observable.empty());
+        when(this.sessionService.SessionUpdated()).thenReturn(Observable.empty());
+        when(this.sessionService.ModelChanged()).thenReturn(this.modelChanged);
+        
+        this.model = this.MockElement(null);
+        this.package0 = this.MockElement(this.model);
+        this.package1 = this.MockElement(this.model);
+        this.element = this.MockElement(this.package0);
+        
+        this.service = new ContainmentIndexService(this.sessionService);
+    }
+    
+    private Element MockElement(Element owner)
+    {
+        Element element = mock(Element.class);
+        when(element.getID()).thenReturn(UUID.randomUUID().toString());
+        when(element.getOwner()).thenReturn(owner);
+        return element;
+    }
+
+    @Test
+    void VerifyIsOwnedBy()
+    {
+        assertTrue(this.service.IsOwnedBy(this.element, this.package0));
+        assertTrue(this.service.IsOwnedBy(this.element, this.model));
+        assertFalse(this.service.IsOwnedBy(this.element, this.package1));
+        assertFalse(this.service.IsOwnedBy(this.element, this.element));
+        assertFalse(this.service.IsOwnedBy(this.model, this.element));
+        assertFalse(this.service.IsOwnedBy(null, this.model));
+        assertFalse(this.service.IsOwnedBy(this.element, null));
+        verify(this.element, times(1)).getOwner();
+    }
+
+    @Test
+    void VerifyInvalidate()
+    {
+        assertTrue(this.service.IsOwnedBy(this.element, this.package0));
+        when(this.element.getOwner()).thenReturn(this.package1);
+        assertTrue(this.service.IsOwnedBy(this.element, this.package0));
+        
+        this.modelChanged.onNext(Collections.emptyList());
+        
+        assertFalse(this.service.IsOwnedBy(this.element, this.package0));
+        assertTrue(this.service.IsOwnedBy(this.element, this.package1));
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * IncrementalMappingServiceTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IncrementalMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+import org.eclipse.emf.common.util.BasicEList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
+import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Property;
+import com.nomagic.uml2.ext.magicdraw.compositestructures.mdports.Port;
+
+import Enumerations.MappingDirection;
+import Services.Stereotype.IStereotypeService;
+import Utils.Stereotypes.MagicDrawBlockCollection;
+import ViewModels.Rows.MappedElementDefinitionRowViewModel;
+import cdp4common.engineeringmodeldata.ElementDefinition;
+
+class IncrementalMappingServiceTest
+{
+    private IStereotypeService stereotypeService;
+    private IncrementalMappingService service;
+    private Class parent;
+    private Class child;
+    private Class other;
+    private MagicDrawBlockCollection mappedBlocks;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        this.stereotypeService = mock(IStereotypeService.class);
+        this.service = new IncrementalMappingService(this.stereotypeService);
+        
+        this.child = this.MockBlock("child");
+        this.other = this.MockBlock("other");
+        this.parent = this.MockBlock("parent");
+        
+        Property partProperty = mock(Property.class);
+        when(partProperty.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partProperty.getName()).thenReturn("child");
+        when(partProperty.getType()).thenReturn(this.child);
+        this.parent.getOwnedAttribute().add(partProperty);
+        
+        this.mappedBlocks = new MagicDrawBlockCollection();
+        
+        for (Class block : Arrays.asList(this.parent, this.child, this.other))
+        {
+            this.mappedBlocks.add(new MappedElementDefinitionRowViewModel(new ElementDefinition(UUID.randomUUID(), null, null), block, MappingDirection.FromDstToHub));
+        }
+    }
+
+    private Class MockBlock(String name)
+    {
+        Class block = mock(Class.class);
+        String id = UUID.randomUUID().toString();
+        when(block.getID()).thenReturn(id);
+        when(block.getName()).thenReturn(name);
+        when(block.getOwnedAttribute()).thenReturn(new BasicEList<Property>());
+        when(block.getOwnedPort()).thenReturn(new BasicEList<Port>());
+        return block;
+    }
+    
+    @Test
+    void VerifyGetBlocksToMap()
+    {
+        assertEquals(3, this.service.GetBlocksToMap(this.mappedBlocks).size());
+        assertEquals(0, this.service.GetNumberOfReusedBlocks());
+        
+        this.service.Register(this.mappedBlocks);
+        
+        MagicDrawBlockCollection blocksToMap = this.service.GetBlocksToMap(this.mappedBlocks);
+        assertTrue(blocksToMap.isEmpty());
+        assertEquals(3, blocksToMap.GetReusedElements().size());
+        assertEquals(3, this.service.GetNumberOfReusedBlocks());
+        
+        when(this.child.getName()).thenReturn("renamedChild");
+        
+        blocksToMap = this.service.GetBlocksToMap(this.mappedBlocks);
+        assertEquals(2, blocksToMap.size());
+        assertTrue(blocksToMap.stream().anyMatch(x -> x.GetDstElement() == this.parent));
+        assertTrue(blocksToMap.stream().anyMatch(x -> x.GetDstElement() == this.child));
+        assertEquals(1, blocksToMap.GetReusedElements().size());
+        assertTrue(blocksToMap.GetReusedElements().get(0).GetDstElement() == this.other);
+        
+        this.service.Invalidate();
+        assertEquals(3, this.service.GetBlocksToMap(this.mappedBlocks).size());
+    }
+    
+    @Test
+    void VerifyGetBlocksToMapRemapsTheBlocksWhosePartPropertyTypesChanged()
+    {
+        MagicDrawBlockCollection parentOnly = new MagicDrawBlockCollection();
+        parentOnly.add(this.mappedBlocks.get(0));
+        this.service.Register(this.mappedBlocks);
+        
+        assertTrue(this.service.GetBlocksToMap(parentOnly).isEmpty());
+        
+        when(this.child.getName()).thenReturn("renamedChild");
+        
+        MagicDrawBlockCollection blocksToMap = this.service.GetBlocksToMap(parentOnly);
+        assertEquals(1, blocksToMap.size());
+        assertTrue(blocksToMap.get(0).GetDstElement() == this.parent);
+        assertTrue(blocksToMap.GetReusedElements().isEmpty());
+    }
+    
+    @Test
+    void VerifyGetBlocksToMapAlwaysMapsTheBlocksThatOwnPorts()
+    {
+        this.other.getOwnedPort().add(mock(Port.class));
+        this.service.Register(this.mappedBlocks);
+        
+        MagicDrawBlockCollection blocksToMap = this.service.GetBlocksToMap(this.mappedBlocks);
+        assertEquals(1, blocksToMap.size());
+        assertTrue(blocksToMap.get(0).GetDstElement() == this.other);
+        assertEquals(2, blocksToMap.GetReusedElements().size());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * ElementDefinitionIndexServiceTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IterationIndex;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import HubController.IHubController;
+import cdp4common.engineeringmodeldata.ElementDefinition;
+import cdp4common.engineeringmodeldata.Iteration;
+import io.reactivex.Observable;
+
+class ElementDefinitionIndexServiceTest
+{
+    private IHubController hubController;
+    private ElementDefinitionIndexService service;
+    private Iteration iteration;
+    private ElementDefinition battery;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        this.hubController = mock(IHubController.class);
+        when(this.hubController.GetIsSessionOpenObservable()).thenReturn(Observable.empty());
+        when(this.hubController.GetSessionEventObservable()).thenReturn(Observable.empty());
+
+        this.iteration = new Iteration();
+        this.iteration.setIid(UUID.randomUUID());
+        this.battery = new ElementDefinition();
+        this.battery.setIid(UUID.randomUUID());
+        this.battery.setName("Battery Pack");
+        this.battery.setShortName("BatteryPack");
+        this.iteration.getElement().add(this.battery);
+
+        when(this.hubController.GetOpenIteration()).thenReturn(this.iteration);
+
+        this.service = new ElementDefinitionIndexService(this.hubController);
+    }
+
+    @Test
+    void VerifyGet()
+    {
+        assertSame(this.battery, this.service.Get(null, "batterypack").get());
+        assertSame(this.battery, this.service.Get("BATTERY PACK", "unknown").get());
+        assertFalse(this.service.Get("Solar Array", "SolarArray").isPresent());
+    }
+
+    @Test
+    void VerifyInvalidate()
+    {
+        ElementDefinition solarArray = new ElementDefinition();
+        solarArray.setIid(UUID.randomUUID());
+        solarArray.setName("Solar Array");
+        solarArray.setShortName("SolarArray");
+
+        assertFalse(this.service.Get("Solar Array", null).isPresent());
+        this.iteration.getElement().add(solarArray);
+        assertFalse(this.service.Get("Solar Array", null).isPresent());
+        this.service.Invalidate();
+        assertSame(solarArray, this.service.Get("Solar Array", null).get());
+    }
+}
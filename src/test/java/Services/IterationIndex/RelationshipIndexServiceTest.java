@@ -0,0 +1,102 @@
+/*
+ * RelationshipIndexServiceTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IterationIndex;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import HubController.IHubController;
+import cdp4common.engineeringmodeldata.BinaryRelationship;
+import cdp4common.engineeringmodeldata.ElementDefinition;
+import cdp4common.engineeringmodeldata.Iteration;
+import cdp4common.sitedirectorydata.Category;
+import io.reactivex.Observable;
+
+class RelationshipIndexServiceTest
+{
+    private IHubController hubController;
+    private RelationshipIndexService service;
+    private Iteration iteration;
+    private ElementDefinition source;
+    private ElementDefinition target;
+    private Category category;
+    private BinaryRelationship relationship;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        this.hubController = mock(IHubController.class);
+        when(this.hubController.GetIsSessionOpenObservable()).thenReturn(Observable.empty());
+        when(this.hubController.GetSessionEventObservable()).thenReturn(Observable.empty());
+
+        this.iteration = new Iteration();
+        this.iteration.setIid(UUID.randomUUID());
+        this.source = new ElementDefinition(UUID.randomUUID(), null, null);
+        this.target = new ElementDefinition(UUID.randomUUID(), null, null);
+        this.category = new Category();
+        this.category.setName("Connector Property");
+
+        this.relationship = new BinaryRelationship();
+        this.relationship.setIid(UUID.randomUUID());
+        this.relationship.setSource(this.source);
+        this.relationship.setTarget(this.target);
+        this.relationship.getCategory().add(this.category);
+        this.iteration.getRelationship().add(this.relationship);
+
+        when(this.hubController.GetOpenIteration()).thenReturn(this.iteration);
+
+        this.service = new RelationshipIndexService(this.hubController);
+    }
+
+    @Test
+    void VerifyGetBinaryRelationships()
+    {
+        assertSame(this.relationship, this.service.GetBinaryRelationships(this.source.getIid(), this.target.getIid(), "Connector Property").iterator().next());
+        assertTrue(this.service.GetBinaryRelationships(this.target.getIid(), this.source.getIid(), "Connector Property").isEmpty());
+        assertTrue(this.service.GetBinaryRelationships(this.source.getIid(), this.target.getIid(), "interface").isEmpty());
+    }
+
+    @Test
+    void VerifyInvalidate()
+    {
+        BinaryRelationship reversed = new BinaryRelationship();
+        reversed.setIid(UUID.randomUUID());
+        reversed.setSource(this.target);
+        reversed.setTarget(this.source);
+        reversed.getCategory().add(this.category);
+
+        assertTrue(this.service.GetBinaryRelationships(this.target.getIid(), this.source.getIid(), "Connector Property").isEmpty());
+        this.iteration.getRelationship().add(reversed);
+        this.service.Invalidate();
+        assertEquals(1, this.service.GetBinaryRelationships(this.target.getIid(), this.source.getIid(), "Connector Property").size());
+    }
+}
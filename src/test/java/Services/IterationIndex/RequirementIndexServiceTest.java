@@ -0,0 +1,117 @@
+/*
+ * RequirementIndexServiceTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.IterationIndex;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import HubController.IHubController;
+import cdp4common.engineeringmodeldata.Iteration;
+import cdp4common.engineeringmodeldata.Requirement;
+import cdp4common.engineeringmodeldata.RequirementsGroup;
+import cdp4common.engineeringmodeldata.RequirementsSpecification;
+import io.reactivex.Observable;
+
+class RequirementIndexServiceTest
+{
+    private IHubController hubController;
+    private RequirementIndexService service;
+    private Iteration iteration;
+    private RequirementsSpecification specification;
+    private RequirementsGroup subGroup;
+    private Requirement requirement;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        this.hubController = mock(IHubController.class);
+        when(this.hubController.GetIsSessionOpenObservable()).thenReturn(Observable.empty());
+        when(this.hubController.GetSessionEventObservable()).thenReturn(Observable.empty());
+
+        this.iteration = new Iteration();
+        this.iteration.setIid(UUID.randomUUID());
+        
+        this.specification = new RequirementsSpecification();
+        this.specification.setShortName("SystemRequirements");
+        
+        RequirementsGroup group = new RequirementsGroup();
+        group.setShortName("Power");
+        this.subGroup = new RequirementsGroup();
+        this.subGroup.setShortName("Battery");
+        group.getGroup().add(this.subGroup);
+        this.specification.getGroup().add(group);
+        
+        Requirement deprecatedRequirement = new Requirement();
+        deprecatedRequirement.setShortName("REQ-001");
+        deprecatedRequirement.setDeprecated(true);
+        this.requirement = new Requirement();
+        this.requirement.setShortName("REQ-001");
+        this.specification.getRequirement().add(deprecatedRequirement);
+        this.specification.getRequirement().add(this.requirement);
+        
+        RequirementsSpecification deprecatedSpecification = new RequirementsSpecification();
+        deprecatedSpecification.setShortName("Legacy");
+        deprecatedSpecification.setDeprecated(true);
+        Requirement legacyRequirement = new Requirement();
+        legacyRequirement.setShortName("REQ-002");
+        deprecatedSpecification.getRequirement().add(legacyRequirement);
+        
+        this.iteration.getRequirementsSpecification().add(deprecatedSpecification);
+        this.iteration.getRequirementsSpecification().add(this.specification);
+
+        when(this.hubController.GetOpenIteration()).thenReturn(this.iteration);
+
+        this.service = new RequirementIndexService(this.hubController);
+    }
+
+    @Test
+    void VerifyGet()
+    {
+        assertSame(this.specification, this.service.GetRequirementsSpecification("systemrequirements").get());
+        assertFalse(this.service.GetRequirementsSpecification("Legacy").isPresent());
+        assertSame(this.subGroup, this.service.GetRequirementsGroup("BATTERY").get());
+        assertSame(this.requirement, this.service.GetRequirement("req-001").get());
+        assertFalse(this.service.GetRequirement("REQ-002").isPresent());
+    }
+
+    @Test
+    void VerifyInvalidate()
+    {
+        Requirement newRequirement = new Requirement();
+        newRequirement.setShortName("REQ-003");
+
+        assertFalse(this.service.GetRequirement("REQ-003").isPresent());
+        this.specification.getRequirement().add(newRequirement);
+        assertFalse(this.service.GetRequirement("REQ-003").isPresent());
+        this.service.Invalidate();
+        assertSame(newRequirement, this.service.GetRequirement("REQ-003").get());
+    }
+}
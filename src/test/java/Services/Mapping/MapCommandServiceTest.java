@@ -25,9 +25,15 @@ package Services.Mapping;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+
+import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -38,8 +44,12 @@ import Reactive.ObservableCollection;
 import Services.MagicDrawSelection.IMagicDrawSelectionService;
 import Services.MagicDrawSession.IMagicDrawSessionService;
 import Services.MagicDrawUILog.IMagicDrawUILogService;
+import Services.MappingEngineService.IMappableThingCollection;
+import Services.MappingMetrics.MappingMetricsService;
 import Services.NavigationService.INavigationService;
 import Utils.Ref;
+import Utils.Stereotypes.MagicDrawBlockCollection;
+import Utils.Stereotypes.MagicDrawRequirementCollection;
 import ViewModels.Dialogs.Interfaces.IDstToHubMappingConfigurationDialogViewModel;
 import ViewModels.Dialogs.Interfaces.IHubToDstMappingConfigurationDialogViewModel;
 import io.reactivex.Observable;
@@ -71,7 +81,7 @@ class MapCommandServiceTest
         this.InitializeMockSetups();
         
         this.service = new MapCommandService(dstController, navigationService, dstMappingDialog, logService, 
-                hubController, sessionService, hubMappingDialog, selectionService);
+                hubController, sessionService, hubMappingDialog, selectionService, new MappingMetricsService());
     }
 
     private void InitializeMockSetups()
@@ -114,4 +124,23 @@ class MapCommandServiceTest
         assertDoesNotThrow(() -> this.service.WhenDialogHasBeenClosed(dialogResult, MappingDirection.FromDstToHub));
         assertDoesNotThrow(() -> this.service.WhenDialogHasBeenClosed(dialogResult, MappingDirection.FromHubToDst));
     }
+    
+    @SuppressWarnings("unchecked")
+    @Test
+    void VerifyMapGroups()
+    {
+        MagicDrawRequirementCollection requirements = new MagicDrawRequirementCollection();
+        MagicDrawBlockCollection blocks = new MagicDrawBlockCollection();
+        
+        when(this.dstController.PreMap(any())).thenReturn(new ArrayList<>());
+        when(this.dstController.Map(any(IMappableThingCollection.class), any(Collection.class), any())).thenReturn(true);
+        when(this.dstController.Map(any(IMappableThingCollection.class), any())).thenReturn(true);
+        
+        assertTrue(this.service.MapGroups(Arrays.asList(Pair.of("Requirements", requirements), Pair.of("Blocks", blocks)), MappingDirection.FromDstToHub));
+        
+        when(this.dstController.PreMap(same(blocks))).thenThrow(new IllegalStateException());
+        when(this.dstController.Map(same(blocks), any())).thenReturn(false);
+        
+        assertFalse(this.service.MapGroups(Arrays.asList(Pair.of("Requirements", requirements), Pair.of("Blocks", blocks)), MappingDirection.FromDstToHub));
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * MappingMetricsServiceTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.MappingMetrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class MappingMetricsServiceTest
+{
+    private MappingMetricsService service;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        this.service = new MappingMetricsService();
+    }
+
+    @Test
+    void VerifyRegisterAndGetMetrics()
+    {
+        MappingRuleMetrics blockMetrics = new MappingRuleMetrics("BlockToElementMappingRule", 10);
+        blockMetrics.IncrementNumberOfClones();
+        blockMetrics.IncrementNumberOfHubRoundTrips();
+        blockMetrics.Complete(12, 42);
+        
+        MappingRuleMetrics requirementMetrics = new MappingRuleMetrics("DstRequirementToHubRequirementMappingRule", 3);
+        requirementMetrics.IncrementNumberOfFullModelScans();
+        requirementMetrics.Complete(3, 7);
+        
+        this.service.Register(blockMetrics);
+        this.service.Register(requirementMetrics);
+        
+        assertEquals(2, this.service.GetMetrics().size());
+        assertEquals(1, this.service.GetMetrics("BlockToElementMappingRule").size());
+        assertEquals(12, this.service.GetMetrics("BlockToElementMappingRule").get(0).GetOutputCount());
+        assertEquals(42, this.service.GetMetrics("BlockToElementMappingRule").get(0).GetElapsedMilliseconds());
+        
+        String summary = this.service.GetSummary();
+        assertEquals(3, summary.split(System.lineSeparator()).length);
+        assertTrue(summary.contains("DstRequirementToHubRequirementMappingRule"));
+        
+        this.service.Clear();
+        assertTrue(this.service.GetMetrics().isEmpty());
+    }
+}
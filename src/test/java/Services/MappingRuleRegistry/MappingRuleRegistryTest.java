@@ -0,0 +1,98 @@
+/*
+ * MappingRuleRegistryTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.MappingRuleRegistry;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+
+import java.util.ArrayList;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import MappingRules.BinaryRelationshipsToDirectedRelationshipsMappingRule;
+import MappingRules.BlockToElementMappingRule;
+import MappingRules.DirectedRelationshipsToBinaryRelationshipsMappingRule;
+import MappingRules.DstRequirementToHubRequirementMappingRule;
+import MappingRules.ElementToBlockMappingRule;
+import MappingRules.HubRequirementToDstRequirementMappingRule;
+import Utils.Stereotypes.HubElementCollection;
+import Utils.Stereotypes.HubRelationshipElementsCollection;
+import Utils.Stereotypes.HubRequirementCollection;
+import Utils.Stereotypes.MagicDrawBlockCollection;
+import Utils.Stereotypes.MagicDrawRelatedElementCollection;
+import Utils.Stereotypes.MagicDrawRequirementCollection;
+
+class MappingRuleRegistryTest
+{
+    private MappingRuleRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        this.registry = new MappingRuleRegistry();
+    }
+
+    @Test
+    void VerifyGetRuleType()
+    {
+        assertEquals(6, this.registry.GetRuleTypes().size());
+        assertEquals(BlockToElementMappingRule.class, this.registry.GetRuleType(MagicDrawBlockCollection.class).get());
+        assertEquals(DstRequirementToHubRequirementMappingRule.class, this.registry.GetRuleType(MagicDrawRequirementCollection.class).get());
+        assertEquals(DirectedRelationshipsToBinaryRelationshipsMappingRule.class, this.registry.GetRuleType(MagicDrawRelatedElementCollection.class).get());
+        assertEquals(ElementToBlockMappingRule.class, this.registry.GetRuleType(HubElementCollection.class).get());
+        assertEquals(HubRequirementToDstRequirementMappingRule.class, this.registry.GetRuleType(HubRequirementCollection.class).get());
+        assertEquals(BinaryRelationshipsToDirectedRelationshipsMappingRule.class, this.registry.GetRuleType(HubRelationshipElementsCollection.class).get());
+        assertEquals(BlockToElementMappingRule.class, this.registry.GetRuleType(new MagicDrawBlockCollection() { }.getClass()).get());
+        assertFalse(this.registry.GetRuleType(ArrayList.class).isPresent());
+        assertFalse(this.registry.GetRuleType(Object.class).isPresent());
+    }
+
+    @Test
+    void VerifyMap()
+    {
+        MagicDrawMappingEngineService engine = spy(new MagicDrawMappingEngineService(this.registry));
+        BlockToElementMappingRule rule = mock(BlockToElementMappingRule.class);
+        ArrayList<?> output = new ArrayList<>();
+        MagicDrawBlockCollection input = new MagicDrawBlockCollection();
+        doReturn(rule).when(engine).GetRule(any());
+        doReturn(output).when(rule).Transform(input);
+        
+        assertNull(engine.Map(null));
+        assertSame(output, engine.Map(input));
+        
+        MagicDrawBlockCollection derivedInput = new MagicDrawBlockCollection() { };
+        doReturn(output).when(rule).Transform(derivedInput);
+        assertSame(output, engine.Map(derivedInput));
+        
+        doReturn(null).when(engine).GetRule(any());
+        assertNull(engine.Map(input));
+    }
+}
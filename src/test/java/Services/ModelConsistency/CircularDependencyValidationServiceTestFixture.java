@@ -30,13 +30,20 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
+import java.beans.PropertyChangeEvent;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.nomagic.magicdraw.core.Project;
 import com.nomagic.uml2.ext.magicdraw.classes.mdkernel.Class;
@@ -63,6 +70,10 @@ public class CircularDependencyValidationServiceTestFixture
     private ObservableValue<Boolean> projectSavedObservable;
     private ObservableValue<Boolean> sessionOpenObservable;
     private ObservableValue<Boolean> sessionEventObservable;
+    private ObservableValue<Collection<PropertyChangeEvent>> modelChangedObservable;
+    
+    @TempDir
+    Path cacheDirectory;
 
     @BeforeEach
     public void Setup()
@@ -75,16 +86,19 @@ public class CircularDependencyValidationServiceTestFixture
         this.projectSavedObservable = new ObservableValue<Boolean>(false, Boolean.class);
         this.sessionOpenObservable = new ObservableValue<Boolean>(false, Boolean.class);
         this.sessionEventObservable = new ObservableValue<Boolean>(false, Boolean.class);
+        this.modelChangedObservable = new ObservableValue<Collection<PropertyChangeEvent>>();
         
         when(this.sessionService.GetProjectName()).thenReturn("MODEL");
         when(this.sessionService.GetAllProjectElements()).thenReturn(this.elements);
         when(this.sessionService.ProjectSaved()).thenReturn(this.projectSavedObservable.Observable());
         when(this.sessionService.HasAnyOpenSessionObservable()).thenReturn(this.sessionOpenObservable.Observable());
         when(this.sessionService.GetSessionEvent()).thenReturn(this.sessionEventObservable);
+        when(this.sessionService.ModelChanged()).thenReturn(this.modelChangedObservable.Observable());
         when(this.stereotypeService.DoesItHaveTheStereotype(any(), any())).thenReturn(true);
         when(this.stereotypeService.IsPartProperty(any())).thenReturn(true);
                 
-        this.service = new CircularDependencyValidationService(this.sessionService, this.stereotypeService, this.logService);
+        this.service = new CircularDependencyValidationService(this.sessionService, this.stereotypeService, this.logService, 
+                new CircularDependencyValidationCache(this.cacheDirectory));
     }
 
     private void SetupElements()
@@ -334,4 +348,340 @@ public class CircularDependencyValidationServiceTestFixture
         assertDoesNotThrow(() -> this.projectSavedObservable.Value(true));
         assertEquals(0, this.service.GetInvalidPaths().size());
     }
+
+    @Test
+    public void VerifyIncrementalValidation()
+    {
+        ArrayList<Element> containedElements = new ArrayList<>();
+
+        Class blockA = mock(Class.class);
+        when(blockA.getName()).thenReturn("blockA");
+        when(blockA.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockA);
+        ArrayList<Property> blockAProperties = new ArrayList<>();
+        when(blockA.getOwnedAttribute()).thenReturn(blockAProperties);
+
+        Class blockB = mock(Class.class);
+        when(blockB.getName()).thenReturn("blockB");
+        when(blockB.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockB);
+        ArrayList<Property> blockBProperties = new ArrayList<>();
+        when(blockB.getOwnedAttribute()).thenReturn(blockBProperties);
+
+        Class blockC = mock(Class.class);
+        when(blockC.getName()).thenReturn("blockC");
+        when(blockC.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockC);
+        ArrayList<Property> blockCProperties = new ArrayList<>();
+        when(blockC.getOwnedAttribute()).thenReturn(blockCProperties);
+        
+        Property partPropertyA = mock(Property.class);
+        when(partPropertyA.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyA.getType()).thenReturn(blockB);
+        when(partPropertyA.getObjectParent()).thenReturn(blockA);
+        blockAProperties.add(partPropertyA);
+        
+        Property partPropertyB = mock(Property.class);
+        when(partPropertyB.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyB.getType()).thenReturn(blockC);
+        when(partPropertyB.getObjectParent()).thenReturn(blockB);
+        when(partPropertyB.getOwner()).thenReturn(blockB);
+        blockBProperties.add(partPropertyB);
+
+        Class blockD = mock(Class.class);
+        when(blockD.getName()).thenReturn("blockD");
+        when(blockD.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockD);
+        ArrayList<Property> blockDProperties = new ArrayList<>();
+        when(blockD.getOwnedAttribute()).thenReturn(blockDProperties);
+
+        Class blockE = mock(Class.class);
+        when(blockE.getName()).thenReturn("blockE");
+        when(blockE.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockE);
+        when(blockE.getOwnedAttribute()).thenReturn(new ArrayList<>());
+        
+        Property partPropertyD = mock(Property.class);
+        when(partPropertyD.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyD.getType()).thenReturn(blockE);
+        when(partPropertyD.getObjectParent()).thenReturn(blockD);
+        blockDProperties.add(partPropertyD);
+        
+        when(this.sessionService.GetAllProjectElements()).thenReturn(containedElements);
+        
+        assertTrue(this.service.Validate());
+        clearInvocations(blockA, blockB, blockC, blockD, blockE);
+        
+        Property partPropertyC = mock(Property.class);
+        when(partPropertyC.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyC.getType()).thenReturn(blockA);
+        when(partPropertyC.getObjectParent()).thenReturn(blockC);
+        when(partPropertyC.getOwner()).thenReturn(blockC);
+        blockCProperties.add(partPropertyC);
+        
+        assertFalse(this.service.Validate(Arrays.asList(blockC)));
+        assertEquals(3, this.service.GetInvalidPaths().keySet().size());
+        assertEquals(Arrays.asList(Arrays.asList(partPropertyA, blockB, partPropertyB, blockC, partPropertyC)), this.service.GetInvalidPaths().get(blockA));
+        assertEquals(Arrays.asList(Arrays.asList(partPropertyB, blockC, partPropertyC, blockA, partPropertyA)), this.service.GetInvalidPaths().get(blockB));
+        assertEquals(Arrays.asList(Arrays.asList(partPropertyC, blockA, partPropertyA, blockB, partPropertyB)), this.service.GetInvalidPaths().get(blockC));
+        verify(blockD, never()).getOwnedAttribute();
+        verify(blockE, never()).getOwnedAttribute();
+        
+        blockCProperties.clear();
+        
+        assertTrue(this.service.Validate(Arrays.asList(blockC)));
+        assertEquals(0, this.service.GetInvalidPaths().size());
+        verify(blockD, never()).getOwnedAttribute();
+        verify(blockE, never()).getOwnedAttribute();
+        
+        this.modelChangedObservable.Value(Arrays.asList(new PropertyChangeEvent(partPropertyB, "name", "old", "new")));
+        assertDoesNotThrow(() -> this.projectSavedObservable.Value(true));
+        this.modelChangedObservable.Value(Arrays.asList(new PropertyChangeEvent(partPropertyB, "type", blockC, blockA)));
+        assertDoesNotThrow(() -> this.projectSavedObservable.Value(true));
+    }
+
+    @Test
+    public void VerifyCachedValidationResult()
+    {
+        ArrayList<Element> containedElements = new ArrayList<>();
+
+        Class blockA = mock(Class.class);
+        when(blockA.getName()).thenReturn("blockA");
+        when(blockA.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockA);
+        ArrayList<Property> blockAProperties = new ArrayList<>();
+        when(blockA.getOwnedAttribute()).thenReturn(blockAProperties);
+
+        Class blockB = mock(Class.class);
+        when(blockB.getName()).thenReturn("blockB");
+        when(blockB.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockB);
+        ArrayList<Property> blockBProperties = new ArrayList<>();
+        when(blockB.getOwnedAttribute()).thenReturn(blockBProperties);
+        
+        Property partPropertyA = mock(Property.class);
+        when(partPropertyA.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyA.getType()).thenReturn(blockB);
+        when(partPropertyA.getObjectParent()).thenReturn(blockA);
+        blockAProperties.add(partPropertyA);
+        
+        Property partPropertyB = mock(Property.class);
+        when(partPropertyB.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyB.getType()).thenReturn(blockA);
+        when(partPropertyB.getObjectParent()).thenReturn(blockB);
+        blockBProperties.add(partPropertyB);
+        
+        when(this.sessionService.GetAllProjectElements()).thenReturn(containedElements);
+        
+        assertFalse(this.service.Validate());
+        assertEquals(2, this.service.GetInvalidPaths().size());
+        
+        CircularDependencyValidationService otherService = new CircularDependencyValidationService(this.sessionService, this.stereotypeService, this.logService, 
+                new CircularDependencyValidationCache(this.cacheDirectory));
+        
+        assertFalse(otherService.Validate());
+        assertEquals(2, otherService.GetInvalidPaths().size());
+        assertEquals(this.service.GetInvalidPaths().get(blockA), otherService.GetInvalidPaths().get(blockA));
+        
+        blockBProperties.clear();
+        
+        assertTrue(otherService.Validate());
+        assertEquals(0, otherService.GetInvalidPaths().size());
+    }
+
+    @Test
+    public void VerifyCachedValidationResultTakesRollUpBlocksIntoAccount()
+    {
+        ArrayList<Element> containedElements = new ArrayList<>();
+
+        Class blockA = mock(Class.class);
+        when(blockA.getName()).thenReturn("blockA");
+        when(blockA.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockA);
+        ArrayList<Property> blockAProperties = new ArrayList<>();
+        when(blockA.getOwnedAttribute()).thenReturn(blockAProperties);
+
+        Class rollUpBlock = mock(Class.class);
+        when(rollUpBlock.getName()).thenReturn("RollUpBlock");
+        when(rollUpBlock.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(rollUpBlock);
+        ArrayList<Property> rollUpBlockProperties = new ArrayList<>();
+        when(rollUpBlock.getOwnedAttribute()).thenReturn(rollUpBlockProperties);
+        
+        Property partPropertyA = mock(Property.class);
+        when(partPropertyA.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyA.getType()).thenReturn(rollUpBlock);
+        when(partPropertyA.getObjectParent()).thenReturn(blockA);
+        blockAProperties.add(partPropertyA);
+        
+        when(this.sessionService.GetAllProjectElements()).thenReturn(containedElements);
+        
+        assertTrue(this.service.Validate());
+        
+        Property partPropertyRollUp = mock(Property.class);
+        when(partPropertyRollUp.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyRollUp.getType()).thenReturn(blockA);
+        when(partPropertyRollUp.getObjectParent()).thenReturn(rollUpBlock);
+        rollUpBlockProperties.add(partPropertyRollUp);
+        
+        CircularDependencyValidationService otherService = new CircularDependencyValidationService(this.sessionService, this.stereotypeService, this.logService, 
+                new CircularDependencyValidationCache(this.cacheDirectory));
+        
+        assertFalse(otherService.Validate());
+        assertEquals(1, otherService.GetInvalidPaths().get(blockA).size());
+    }
+
+    @Test
+    public void VerifyIncrementalValidationThroughRollUpBlocks()
+    {
+        ArrayList<Element> containedElements = new ArrayList<>();
+
+        Class blockA = mock(Class.class);
+        when(blockA.getName()).thenReturn("blockA");
+        when(blockA.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockA);
+        ArrayList<Property> blockAProperties = new ArrayList<>();
+        when(blockA.getOwnedAttribute()).thenReturn(blockAProperties);
+
+        Class rollUpBlock = mock(Class.class);
+        when(rollUpBlock.getName()).thenReturn("RollUpBlock");
+        when(rollUpBlock.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(rollUpBlock);
+        ArrayList<Property> rollUpBlockProperties = new ArrayList<>();
+        when(rollUpBlock.getOwnedAttribute()).thenReturn(rollUpBlockProperties);
+
+        Class blockX = mock(Class.class);
+        when(blockX.getName()).thenReturn("blockX");
+        when(blockX.getID()).thenReturn(UUID.randomUUID().toString());
+        containedElements.add(blockX);
+        ArrayList<Property> blockXProperties = new ArrayList<>();
+        when(blockX.getOwnedAttribute()).thenReturn(blockXProperties);
+        
+        Property partPropertyA = mock(Property.class);
+        when(partPropertyA.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyA.getType()).thenReturn(rollUpBlock);
+        when(partPropertyA.getObjectParent()).thenReturn(blockA);
+        blockAProperties.add(partPropertyA);
+        
+        Property partPropertyRollUp = mock(Property.class);
+        when(partPropertyRollUp.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyRollUp.getType()).thenReturn(blockX);
+        when(partPropertyRollUp.getObjectParent()).thenReturn(rollUpBlock);
+        rollUpBlockProperties.add(partPropertyRollUp);
+        
+        when(this.sessionService.GetAllProjectElements()).thenReturn(containedElements);
+        
+        assertTrue(this.service.Validate());
+        
+        Property partPropertyX = mock(Property.class);
+        when(partPropertyX.getID()).thenReturn(UUID.randomUUID().toString());
+        when(partPropertyX.getType()).thenReturn(blockA);
+        when(partPropertyX.getObjectParent()).thenReturn(blockX);
+        blockXProperties.add(partPropertyX);
+        
+        assertFalse(this.service.Validate(Arrays.asList(blockX)));
+        assertEquals(1, this.service.GetInvalidPaths().get(blockA).size());
+        
+        blockXProperties.clear();
+        
+        assertTrue(this.service.Validate(Arrays.asList(blockX)));
+        assertEquals(0, this.service.GetInvalidPaths().size());
+    }
+
+    @Test
+    public void VerifyIsAlreadyPresent()
+    {
+        ArrayList<Element> containedElements = new ArrayList<>();
+
+        Class blockA = mock(Class.class);
+        when(blockA.getName()).thenReturn("blockA");
+        when(blockA.getID()).thenReturn("A");
+        containedElements.add(blockA);
+        ArrayList<Property> blockAProperties = new ArrayList<>();
+        when(blockA.getOwnedAttribute()).thenReturn(blockAProperties);
+
+        Class blockB = mock(Class.class);
+        when(blockB.getName()).thenReturn("blockB");
+        when(blockB.getID()).thenReturn("B");
+        containedElements.add(blockB);
+        ArrayList<Property> blockBProperties = new ArrayList<>();
+        when(blockB.getOwnedAttribute()).thenReturn(blockBProperties);
+        
+        Property partPropertyA = mock(Property.class);
+        when(partPropertyA.getID()).thenReturn("a");
+        when(partPropertyA.getType()).thenReturn(blockB);
+        when(partPropertyA.getObjectParent()).thenReturn(blockA);
+        blockAProperties.add(partPropertyA);
+        
+        Property partPropertyB = mock(Property.class);
+        when(partPropertyB.getID()).thenReturn("b");
+        when(partPropertyB.getType()).thenReturn(blockA);
+        when(partPropertyB.getObjectParent()).thenReturn(blockB);
+        blockBProperties.add(partPropertyB);
+        
+        when(this.sessionService.GetAllProjectElements()).thenReturn(containedElements);
+
+        assertTrue(this.service.IsAlreadyPresent(partPropertyB, "A/B"));
+        assertFalse(this.service.IsAlreadyPresent(partPropertyA, "A"));
+        
+        assertFalse(this.service.Validate());
+        
+        assertTrue(this.service.IsAlreadyPresent(partPropertyB, "A/B"));
+        assertTrue(this.service.IsAlreadyPresent(partPropertyA, "B/A"));
+        assertFalse(this.service.IsAlreadyPresent(partPropertyA, "A/B"));
+        assertFalse(this.service.IsAlreadyPresent(partPropertyB, "B"));
+    }
+
+    @Test
+    public void VerifyValidationOfDisjointHierarchies()
+    {
+        ArrayList<Element> containedElements = new ArrayList<>();
+        ArrayList<Class> blocks = new ArrayList<>();
+        
+        for (int index = 0; index < 6; index++)
+        {
+            Class block = mock(Class.class);
+            when(block.getName()).thenReturn("block" + index);
+            when(block.getID()).thenReturn("block" + index);
+            when(block.getOwnedAttribute()).thenReturn(new ArrayList<>());
+            containedElements.add(block);
+            blocks.add(block);
+        }
+        
+        for (int index = 0; index < 6; index++)
+        {
+            Class owner = blocks.get(index);
+            Class type = blocks.get(index % 2 == 0 ? index + 1 : index - 1);
+            
+            Property partProperty = mock(Property.class);
+            when(partProperty.getID()).thenReturn("part" + index);
+            when(partProperty.getType()).thenReturn(type);
+            when(partProperty.getObjectParent()).thenReturn(owner);
+            owner.getOwnedAttribute().add(partProperty);
+        }
+        
+        when(this.sessionService.GetAllProjectElements()).thenReturn(containedElements);
+        
+        try
+        {
+            System.setProperty(CircularDependencyValidationService.ParallelismPropertyName, "1");
+            
+            CircularDependencyValidationService sequentialService = new CircularDependencyValidationService(this.sessionService, this.stereotypeService, this.logService, 
+                    new CircularDependencyValidationCache(this.cacheDirectory.resolve("sequential")));
+            
+            System.setProperty(CircularDependencyValidationService.ParallelismPropertyName, "4");
+            
+            CircularDependencyValidationService parallelService = new CircularDependencyValidationService(this.sessionService, this.stereotypeService, this.logService, 
+                    new CircularDependencyValidationCache(this.cacheDirectory.resolve("parallel")));
+            
+            assertFalse(parallelService.Validate());
+            assertEquals(6, parallelService.GetInvalidPaths().keySet().size());
+            assertFalse(sequentialService.Validate());
+            assertEquals(sequentialService.GetInvalidPaths(), parallelService.GetInvalidPaths());
+        }
+        finally
+        {
+            System.clearProperty(CircularDependencyValidationService.ParallelismPropertyName);
+        }
+    }
 }
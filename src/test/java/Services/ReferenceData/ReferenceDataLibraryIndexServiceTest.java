@@ -0,0 +1,144 @@
+/*
+ * ReferenceDataLibraryIndexServiceTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Services.ReferenceData;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import HubController.IHubController;
+import Utils.Ref;
+import cdp4common.sitedirectorydata.Category;
+import cdp4common.sitedirectorydata.MeasurementUnit;
+import cdp4common.sitedirectorydata.ModelReferenceDataLibrary;
+import cdp4common.sitedirectorydata.ParameterType;
+import cdp4common.sitedirectorydata.SimpleQuantityKind;
+import cdp4common.sitedirectorydata.SimpleUnit;
+import cdp4common.sitedirectorydata.SiteReferenceDataLibrary;
+import cdp4common.sitedirectorydata.TextParameterType;
+import io.reactivex.Observable;
+
+class ReferenceDataLibraryIndexServiceTest
+{
+    private IHubController hubController;
+    private ReferenceDataLibraryIndexService service;
+    private ModelReferenceDataLibrary modelReferenceDataLibrary;
+    private SiteReferenceDataLibrary siteReferenceDataLibrary;
+    private SimpleQuantityKind mass;
+    private Category equipments;
+
+    @BeforeEach
+    void setUp() throws Exception
+    {
+        this.hubController = mock(IHubController.class);
+        when(this.hubController.GetIsSessionOpenObservable()).thenReturn(Observable.empty());
+        when(this.hubController.GetSessionEventObservable()).thenReturn(Observable.empty());
+
+        this.siteReferenceDataLibrary = new SiteReferenceDataLibrary();
+        this.modelReferenceDataLibrary = new ModelReferenceDataLibrary();
+        this.modelReferenceDataLibrary.setRequiredRdl(this.siteReferenceDataLibrary);
+
+        this.mass = new SimpleQuantityKind();
+        this.mass.setIid(UUID.randomUUID());
+        this.mass.setName("Mass");
+        this.mass.setShortName("m");
+        this.siteReferenceDataLibrary.getParameterType().add(this.mass);
+
+        this.equipments = new Category();
+        this.equipments.setIid(UUID.randomUUID());
+        this.equipments.setName("Equipments");
+        this.equipments.setShortName("EQT");
+        this.modelReferenceDataLibrary.getDefinedCategory().add(this.equipments);
+
+        when(this.hubController.GetDehpOrModelReferenceDataLibrary()).thenReturn(this.modelReferenceDataLibrary);
+
+        this.service = new ReferenceDataLibraryIndexService(this.hubController);
+    }
+
+    @Test
+    void VerifyTryGet()
+    {
+        Ref<ParameterType> refParameterType = new Ref<>(ParameterType.class);
+        assertTrue(this.service.TryGet(refParameterType, "unknown", "MASS"));
+        assertSame(this.mass, refParameterType.Get());
+
+        Ref<Category> refCategory = new Ref<>(Category.class);
+        assertFalse(this.service.TryGet(refCategory, "Mass"));
+        assertTrue(this.service.TryGet(refCategory, null, "eqt"));
+        assertSame(this.equipments, refCategory.Get());
+    }
+
+    @Test
+    void VerifyTryGetResolvesCollisionsByChainOrder()
+    {
+        TextParameterType massDescription = new TextParameterType();
+        massDescription.setIid(UUID.randomUUID());
+        massDescription.setName("Mass");
+        massDescription.setShortName("massDescription");
+        this.modelReferenceDataLibrary.getParameterType().add(massDescription);
+
+        Ref<ParameterType> refParameterType = new Ref<>(ParameterType.class);
+        assertTrue(this.service.TryGet(refParameterType, "mass"));
+        assertSame(massDescription, refParameterType.Get());
+
+        this.modelReferenceDataLibrary.getParameterType().remove(massDescription);
+        this.siteReferenceDataLibrary.getParameterType().remove(this.mass);
+        this.modelReferenceDataLibrary.getParameterType().add(this.mass);
+        this.siteReferenceDataLibrary.getParameterType().add(massDescription);
+        this.service.Invalidate();
+
+        assertTrue(this.service.TryGet(refParameterType, "mass"));
+        assertSame(this.mass, refParameterType.Get());
+        
+        Ref<SimpleQuantityKind> refQuantityKind = new Ref<>(SimpleQuantityKind.class);
+        assertTrue(this.service.TryGet(refQuantityKind, "m"));
+        assertSame(this.mass, refQuantityKind.Get());
+    }
+
+    @Test
+    void VerifyInvalidate()
+    {
+        Ref<MeasurementUnit> refMeasurementUnit = new Ref<>(MeasurementUnit.class);
+        assertFalse(this.service.TryGet(refMeasurementUnit, "kg"));
+
+        SimpleUnit kilogram = new SimpleUnit();
+        kilogram.setIid(UUID.randomUUID());
+        kilogram.setName("kilogram");
+        kilogram.setShortName("kg");
+        this.siteReferenceDataLibrary.getUnit().add(kilogram);
+
+        assertFalse(this.service.TryGet(refMeasurementUnit, "kg"));
+        this.service.Invalidate();
+        assertTrue(this.service.TryGet(refMeasurementUnit, "KG"));
+        assertEquals(kilogram.getIid(), refMeasurementUnit.Get().getIid());
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * StereotypeUtilsTest.java
+ *
+ * Copyright (c) 2020-2021 RHEA System S.A.
+ *
+ * Author: Sam Gerené, Alex Vorobiev, Nathanael Smiechowski 
+ *
+ * This file is part of DEH-MDSYSML
+ *
+ * The DEH-MDSYSML is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * The DEH-MDSYSML is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package Utils.Stereotypes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class StereotypeUtilsTest
+{
+    private static final String[] NameParts = { "Power", "Supply", "Unit", "Battery", "Solar", "Array", "Thruster", "mass", "kg", "Reaction", "Wheel", "OBC", "Harness", "temperature" };
+    
+    private static final String[] Separators = { " ", "_", "-", ".", "", " (", ") " };
+
+    @Test
+    void VerifyGetShortName()
+    {
+        assertEquals("PowerSupplyUnit3", StereotypeUtils.GetShortName("Power Supply Unit 3"));
+        assertEquals("massKg", StereotypeUtils.GetShortName("mass [Kg]"));
+        assertEquals("Battery", StereotypeUtils.GetShortName("Battery"));
+        assertEquals("Rotation", StereotypeUtils.GetShortName("Rotation\u00b0"));
+        assertEquals("", StereotypeUtils.GetShortName(""));
+    }
+
+    @Test
+    void VerifyGetCaseFoldedName()
+    {
+        assertNull(StereotypeUtils.GetCaseFoldedName(null));
+        assertEquals("power supply", StereotypeUtils.GetCaseFoldedName("Power Supply"));
+        assertEquals("title", StereotypeUtils.GetCaseFoldedName("TITLE"));
+    }
+
+    @Test
+    void VerifyTheShortNameCacheStaysBounded()
+    {
+        for (int index = 0; index < StereotypeUtils.MaximumNumberOfCachedNames * 2 + 1; index++)
+        {
+            assertEquals("Name" + index, StereotypeUtils.GetShortName("Name " + index));
+        }
+        
+        assertEquals(StereotypeUtils.MaximumNumberOfCachedNames, StereotypeUtils.ShortNames.Size());
+    }
+
+    @Test
+    void VerifyTheCachesEvictTheLeastRecentlyUsedName()
+    {
+        AtomicInteger numberOfNormalizations = new AtomicInteger();
+        NormalizedNameCache cache = new NormalizedNameCache(2, x -> 
+        {
+            numberOfNormalizations.incrementAndGet();
+            return x.toLowerCase(Locale.ROOT);
+        });
+        
+        assertEquals("battery", cache.Get("Battery"));
+        assertEquals("solar", cache.Get("Solar"));
+        assertEquals("battery", cache.Get("Battery"));
+        assertEquals(2, numberOfNormalizations.get());
+        
+        assertEquals("wheel", cache.Get("Wheel"));
+        assertEquals(2, cache.Size());
+        assertEquals("battery", cache.Get("Battery"));
+        assertEquals(3, numberOfNormalizations.get());
+        
+        assertEquals("solar", cache.Get("Solar"));
+        assertEquals(4, numberOfNormalizations.get());
+    }
+
+    /**
+     * Verifies the cached normalization against the per call regular expression and case folding. 
+     * The names are drawn with a Zipf-like distribution from a vocabulary of model element names, 
+     * a few names being looked up far more often than the others as in a mapping pass
+     */
+    @Test
+    void VerifyTheCachedNormalizationMatchesTheUncachedOne()
+    {
+        Random random = new Random(42);
+        List<String> vocabulary = new ArrayList<>();
+        
+        for (int index = 0; index < 2000; index++)
+        {
+            StringBuilder name = new StringBuilder(NameParts[random.nextInt(NameParts.length)]);
+            
+            for (int part = random.nextInt(4); part > 0; part--)
+            {
+                name.append(Separators[random.nextInt(Separators.length)]).append(NameParts[random.nextInt(NameParts.length)]);
+            }
+            
+            vocabulary.add(random.nextBoolean() ? name.append(index).toString() : name.append(' ').append(index).toString());
+        }
+        
+        for (int index = 0; index < 50_000; index++)
+        {
+            String name = vocabulary.get((int) Math.floor(Math.pow(vocabulary.size(), random.nextDouble())) - 1);
+            
+            assertEquals(name.replaceAll("[^a-zA-Z0-9]", ""), StereotypeUtils.GetShortName(name));
+            assertEquals(name.toLowerCase(Locale.ROOT), StereotypeUtils.GetCaseFoldedName(name));
+        }
+    }
+}
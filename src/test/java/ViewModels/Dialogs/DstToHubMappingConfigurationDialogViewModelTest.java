@@ -49,6 +49,7 @@ import HubController.IHubController;
 import Reactive.ObservableCollection;
 import Reactive.ObservableValue;
 import Services.MagicDrawTransaction.IMagicDrawTransactionService;
+import Services.IterationIndex.ElementDefinitionIndexService;
 import Services.ModelConsistency.ICircularDependencyValidationService;
 import Services.NavigationService.INavigationService;
 import Services.Stereotype.IStereotypeService;
@@ -74,6 +75,7 @@ import cdp4common.engineeringmodeldata.Iteration;
 import cdp4common.engineeringmodeldata.Requirement;
 import cdp4common.engineeringmodeldata.RequirementsSpecification;
 import cdp4common.sitedirectorydata.DomainOfExpertise;
+import io.reactivex.Observable;
 
 class DstToHubMappingConfigurationDialogViewModelTest
 {
@@ -122,6 +124,8 @@ class DstToHubMappingConfigurationDialogViewModelTest
 		this.iteration = new Iteration();
 
 		when(this.hubController.GetOpenIteration()).thenReturn(this.iteration);
+		when(this.hubController.GetIsSessionOpenObservable()).thenReturn(Observable.empty());
+		when(this.hubController.GetSessionEventObservable()).thenReturn(Observable.empty());
 		when(this.hubController.GetCurrentDomainOfExpertise()).thenReturn(domain);
 		when(this.dstController.GetDstMapResult()).thenReturn(this.dstMapResult);
 		
@@ -140,7 +144,8 @@ class DstToHubMappingConfigurationDialogViewModelTest
 		this.viewModel = new DstToHubMappingConfigurationDialogViewModel(this.dstController, this.hubController,
 				this.elementDefinitionBrowserViewModel, this.requirementBrowserViewModel,
 				this.magicDrawObjectBrowserViewModel, this.mappedElementListViewViewModel, 
-				this.stereotypeService, this.circularDependencyService, this.navigationService);
+				this.stereotypeService, this.circularDependencyService, this.navigationService,
+				new ElementDefinitionIndexService(this.hubController));
 	}
 
 	@Test